@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.util.concurrent.Semaphore;
+import model.concurrent.ControlTowerConcurrent;
+import model.concurrent.ControlTowerConcurrent.Request;
+import model.concurrent.Plane;
+import util.EventSink;
+import util.Gate;
+import util.Runway;
+
+/**
+ * Avión que no se arranca como hilo: el hilo del benchmark envía las
+ * peticiones a la torre y espera las respuestas a través de un semáforo.
+ * <p>
+ * Una misma sonda repite rotaciones completas, así que cada petición debe
+ * haberse procesado antes de enviar la siguiente.
+ * </p>
+ */
+class AvionSonda extends Plane {
+
+    private final ControlTowerConcurrent tower;
+    private final Semaphore respuestas = new Semaphore(0);
+    private volatile boolean saliendo = false;
+
+    AvionSonda(String id, ControlTowerConcurrent tower, EventSink ventana) {
+        super(id, tower, ventana);
+        this.tower = tower;
+    }
+
+    /**
+     * Envía una petición y espera a que un operario la atienda.
+     */
+    void pedir(Request.Type tipo) throws InterruptedException {
+        enviar(tipo);
+        respuestas.acquire();
+    }
+
+    /**
+     * Envía DEPARTED y espera a que un operario lo procese. La torre no
+     * responde a esa petición: se detecta cuando el operario consulta la pista
+     * a liberar, con el cerrojo de lógica ya tomado. Así la siguiente rotación
+     * de la sonda no puede adelantarse a su propia salida.
+     */
+    void salir() throws InterruptedException {
+        saliendo = true;
+        enviar(Request.Type.DEPARTED);
+        respuestas.acquire();
+    }
+
+    private void enviar(Request.Type tipo) {
+        tower.addRequest(new Request(tipo, this));
+    }
+
+    @Override
+    public Runway getCurrentRunway() {
+        if (saliendo) {
+            saliendo = false;
+            respuestas.release();
+        }
+        return super.getCurrentRunway();
+    }
+
+    @Override
+    public void assignResources(Runway r, Gate g, long esperaEstela) {
+        super.assignResources(r, g, esperaEstela);
+        respuestas.release();
+    }
+
+    @Override
+    public void assignRunwayForTakeoff(Runway r, long esperaEstela) {
+        super.assignRunwayForTakeoff(r, esperaEstela);
+        respuestas.release();
+    }
+
+    @Override
+    public void proceed() {
+        super.proceed();
+        respuestas.release();
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.concurrent.ControlTowerConcurrent;
+import model.concurrent.ControlTowerConcurrent.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ContextoSimulacion;
+import util.HeadlessSink;
+
+/**
+ * Rendimiento de la cola de peticiones de {@link ControlTowerConcurrent}:
+ * cada hilo del benchmark encola una petición sin recursos (BOARDING), un
+ * operario la extrae y la atiende, y el hilo recibe la respuesta.
+ * <p>
+ * Mide el par productor-consumidor ({@code queueLock}, {@code wait/notifyAll}
+ * y el cerrojo de lógica) sin el tiempo de gestión simulado. Con 4 hilos
+ * nunca se alcanza la capacidad máxima de la cola.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Djava.awt.headless=true"})
+public class ColaPeticionesBenchmark {
+
+    @Param({"1", "4"})
+    public int operarios;
+
+    ControlTowerConcurrent tower;
+    private final AtomicInteger siguiente = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        tower = new ControlTowerConcurrent(1, 1, new HeadlessSink(null), ContextoSimulacion.enMemoria());
+        tower.setTiempoGestion(0);
+        tower.startOperators(operarios);
+    }
+
+    @TearDown(Level.Trial)
+    public void apagar() {
+        tower.apagar();
+    }
+
+    @State(Scope.Thread)
+    public static class Productor {
+
+        AvionSonda avion;
+
+        @Setup(Level.Trial)
+        public void crear(ColaPeticionesBenchmark b) {
+            avion = new AvionSonda(String.format("BEN-%03d", b.siguiente.incrementAndGet()), b.tower,
+                    new HeadlessSink(null));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void encolarYAtender(Productor p) throws InterruptedException {
+        p.avion.pedir(Request.Type.BOARDING);
+    }
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.concurrent.ControlTowerConcurrent;
+import model.concurrent.ControlTowerConcurrent.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ContextoSimulacion;
+import util.HeadlessSink;
+
+/**
+ * Latencia de concesión de pista y puerta con más aviones que recursos.
+ * <p>
+ * Cada operación es una rotación completa contra la torre: aterrizaje
+ * (espera hasta la autorización), liberación de pista, liberación de puerta,
+ * despegue (espera hasta la autorización) y salida (espera a que se procese). Con 8 hilos y pocas
+ * pistas, parte de las peticiones pasan por las colas de espera y se
+ * reactivan en {@code checkPendingRequests}.
+ * </p>
+ * <p>
+ * Los rechazos por recurso ocupado se cuentan en las métricas de la torre y
+ * se resumen en {@code System.err} como mucho una vez por segundo; aun así se
+ * descarta la salida durante la medición para no medir la consola.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Djava.awt.headless=true"})
+public class ConcesionRecursosBenchmark {
+
+    @Param({"1", "3"})
+    public int pistas;
+
+    @Param({"4"})
+    public int operarios;
+
+    ControlTowerConcurrent tower;
+    private final AtomicInteger siguiente = new AtomicInteger();
+    private PrintStream errOriginal;
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        errOriginal = System.err;
+        System.setErr(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        tower = new ControlTowerConcurrent(pistas, pistas + 1, new HeadlessSink(null),
+                ContextoSimulacion.enMemoria());
+        tower.setTiempoGestion(0);
+        tower.startOperators(operarios);
+    }
+
+    @TearDown(Level.Trial)
+    public void apagar() {
+        tower.apagar();
+        System.setErr(errOriginal);
+    }
+
+    @State(Scope.Thread)
+    public static class Avion {
+
+        AvionSonda avion;
+
+        @Setup(Level.Trial)
+        public void crear(ConcesionRecursosBenchmark b) {
+            avion = new AvionSonda(String.format("BEN-%03d", b.siguiente.incrementAndGet()), b.tower,
+                    new HeadlessSink(null));
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void rotacion(Avion a) throws InterruptedException {
+        a.avion.pedir(Request.Type.LANDING);
+        a.avion.pedir(Request.Type.LANDED);
+        a.avion.pedir(Request.Type.BOARDED);
+        a.avion.pedir(Request.Type.TAKEOFF);
+        a.avion.salir();
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import model.EmbarqueParalelo;
+import model.Manifiesto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Estancia en puerta: embarque de un {@link Manifiesto} en serie frente a la
+ * cadena fork/join de {@link EmbarqueParalelo}.
+ * <p>
+ * Cada manifiesto está calibrado para que un núcleo tarde 50 ms; la versión
+ * paralela debería acercarse a 50 ms / núcleos. El número de hilos del pool
+ * se fija con {@code -Daeron.embarque.hilos=N} en {@code -jvmArgsAppend}.
+ * Pasajes con semilla fija (42).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class EmbarqueBenchmark {
+
+    private static final long EMBARQUE_MS = 50;
+
+    @Param({"150", "400"})
+    public int pasajeros;
+
+    private Manifiesto manifiesto;
+
+    @Setup(Level.Invocation)
+    public void preparar() {
+        manifiesto = new Manifiesto(pasajeros, EMBARQUE_MS, 42);
+    }
+
+    @Benchmark
+    public int serie() {
+        return manifiesto.embarcar();
+    }
+
+    @Benchmark
+    public int paralelo() {
+        return EmbarqueParalelo.embarcar(manifiesto);
+    }
+}
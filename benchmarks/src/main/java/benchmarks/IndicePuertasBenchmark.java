@@ -0,0 +1,74 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ClaseAvion;
+import util.Escenario.Asignacion;
+import util.Gate;
+import util.IndiceRecursos;
+
+/**
+ * Coste de elegir puerta con {@link IndiceRecursos}: mejor ajuste (skip list,
+ * O(log n)) frente a primer hueco (recorrido de la lista, O(n)).
+ * <p>
+ * Las puertas están ordenadas de mayor a menor, como en
+ * {@code escenarios/clases.properties}, y hasta el 90 % ocupadas. Cada operación
+ * reserva una puerta para un avión de clase aleatoria y la libera.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class IndicePuertasBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int puertas;
+
+    @Param({"MEJOR_AJUSTE", "PRIMER_HUECO"})
+    public Asignacion asignacion;
+
+    private IndiceRecursos<Gate> indice;
+    private final SplittableRandom rnd = new SplittableRandom(42);
+
+    @Setup
+    public void preparar() {
+        List<Gate> gates = new ArrayList<>();
+        ClaseAvion[] clases = ClaseAvion.values();
+        for (int i = 0; i < puertas; i++) {
+            // Primero las grandes: JUMBO, ANCHO y el resto ESTRECHO
+            ClaseAvion c = i < puertas / 10 ? clases[2] : i < puertas / 3 ? clases[1] : clases[0];
+            gates.add(new Gate("G" + (i + 1), c));
+        }
+        indice = new IndiceRecursos<>(gates, asignacion);
+        // Ocupa el 90 % con la propia política y una mezcla uniforme de clases
+        for (int k = 0; k < puertas * 9 / 10; k++) {
+            indice.reservar(clases[rnd.nextInt(clases.length)], "FIJO");
+        }
+    }
+
+    @Benchmark
+    public Gate reservarYLiberar() {
+        ClaseAvion c = ClaseAvion.values()[rnd.nextInt(3)];
+        Gate g = indice.reservar(c, "BENCH");
+        if (g != null) {
+            indice.liberar(g, "BENCH");
+        }
+        return g;
+    }
+}
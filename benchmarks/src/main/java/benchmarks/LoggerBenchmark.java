@@ -0,0 +1,83 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.SimulationLogger;
+
+/**
+ * Rendimiento de {@link SimulationLogger#log(String, String)} con 1, 4 y 8
+ * hilos escribiendo en el mismo fichero.
+ * <p>
+ * El log se crea en un directorio temporal que se borra al terminar.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class LoggerBenchmark {
+
+    private File directorio;
+    private SimulationLogger logger;
+
+    @Setup(Level.Trial)
+    public void abrir() throws IOException {
+        directorio = Files.createTempDirectory("aeron-log").toFile();
+        logger = new SimulationLogger(directorio, "CONCURRENT", 100, 3, 5, 5);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        logger.close();
+        borrar(directorio);
+    }
+
+    private static void borrar(File f) {
+        File[] hijos = f.listFiles();
+        if (hijos != null) {
+            for (File h : hijos) {
+                borrar(h);
+            }
+        }
+        f.delete();
+    }
+
+    private void escribir() {
+        logger.log("IBE-042", "IBE-042: Aterrizado. Liberando pista y yendo a G3");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void hilos1() {
+        escribir();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void hilos4() {
+        escribir();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void hilos8() {
+        escribir();
+    }
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.concurrent.ControlTowerConcurrent;
+import model.concurrent.ControlTowerConcurrent.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ContextoSimulacion;
+import util.HeadlessSink;
+
+/**
+ * Cola de peticiones de {@link ControlTowerConcurrent} con un observador que
+ * la consulta sin pausa (una GUI o un cliente JMX muy rápidos) mientras tres
+ * productores encolan peticiones sin recursos y dos operarios las atienden.
+ * <p>
+ * {@code instantanea} copia la cola con {@code getQueueSnapshot()};
+ * {@code composicion} solo lee la profundidad y las peticiones por tipo. Lo
+ * que interesa es cuánto frena el observador a productores y operarios
+ * ({@code encolarYAtender}).
+ * </p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-Djava.awt.headless=true"})
+public class ObservadorColaBenchmark {
+
+    ControlTowerConcurrent tower;
+    private final AtomicInteger siguiente = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        tower = new ControlTowerConcurrent(1, 1, new HeadlessSink(null), ContextoSimulacion.enMemoria());
+        tower.setTiempoGestion(0);
+        tower.startOperators(2);
+    }
+
+    @TearDown(Level.Trial)
+    public void apagar() {
+        tower.apagar();
+    }
+
+    @State(Scope.Thread)
+    public static class Productor {
+
+        AvionSonda avion;
+
+        @Setup(Level.Trial)
+        public void crear(ObservadorColaBenchmark b) {
+            avion = new AvionSonda(String.format("OBS-%03d", b.siguiente.incrementAndGet()), b.tower,
+                    new HeadlessSink(null));
+        }
+    }
+
+    @Benchmark
+    @Group("instantanea")
+    @GroupThreads(3)
+    public void encolarYAtender(Productor p) throws InterruptedException {
+        p.avion.pedir(Request.Type.BOARDING);
+    }
+
+    @Benchmark
+    @Group("instantanea")
+    @GroupThreads(1)
+    public int copiarCola() {
+        return tower.getQueueSnapshot().size();
+    }
+
+    @Benchmark
+    @Group("composicion")
+    @GroupThreads(3)
+    public void encolarYAtenderConRecuento(Productor p) throws InterruptedException {
+        p.avion.pedir(Request.Type.BOARDING);
+    }
+
+    @Benchmark
+    @Group("composicion")
+    @GroupThreads(1)
+    public int contarCola() {
+        return tower.getQueueComposition()[Request.Type.BOARDING.ordinal()];
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.GestorJSON;
+
+/**
+ * Coste de {@link GestorJSON#actualizarEstado(String, String)} con N vuelos
+ * en el panel, persistiendo en disco o solo en memoria.
+ * <p>
+ * El fichero se crea en el directorio temporal del sistema. Los vuelos y
+ * estados actualizados salen de una secuencia fija (semilla 42).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class PanelJSONBenchmark {
+
+    private static final String[] ESTADOS = {"IN_FLIGHT", "LANDING", "LANDED", "BOARDING", "BOARDED",
+        "TAKEOFF_REQUESTED", "DEPARTING", "DEPARTED"};
+    private static final int SECUENCIA = 1 << 12;
+
+    @Param({"10", "100", "1000"})
+    public int vuelos;
+
+    @Param({"true", "false"})
+    public boolean persistir;
+
+    private File fichero;
+    private GestorJSON panel;
+    private String[] ids;
+    private int[] orden;
+    private int pos;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        fichero = persistir ? File.createTempFile("aeron-panel", ".json") : null;
+        panel = new GestorJSON(fichero);
+        ids = new String[vuelos];
+        for (int i = 0; i < vuelos; i++) {
+            ids[i] = String.format("IBE-%03d", i + 1);
+            panel.actualizarEstado(ids[i], ESTADOS[0]);
+        }
+        SplittableRandom rnd = new SplittableRandom(42);
+        orden = new int[SECUENCIA];
+        for (int i = 0; i < SECUENCIA; i++) {
+            orden[i] = rnd.nextInt(vuelos);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        if (fichero != null) {
+            fichero.delete();
+        }
+    }
+
+    @Benchmark
+    public void actualizarEstado() {
+        int i = orden[pos++ & (SECUENCIA - 1)];
+        panel.actualizarEstado(ids[i], ESTADOS[pos & (ESTADOS.length - 1)]);
+    }
+}
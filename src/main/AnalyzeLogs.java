@@ -0,0 +1,139 @@
+package main;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import util.ColumnarStatsReader;
+import util.EstadisticasVuelo;
+import util.LatencyHistogram;
+import util.LogAnalyzer;
+
+/**
+ * Punto de entrada del analizador offline de logs.
+ * <p>
+ * Uso: {@code java -cp bin main.AnalyzeLogs [DIRECTORIO] [--csv=SALIDA.csv]
+ * [--hilos=N] [--exportar-csv]}
+ * </p>
+ * <p>
+ * Por defecto analiza el directorio actual (logs/ y estadisticas_*.csv) con
+ * tantos hilos como procesadores disponibles. Si el directorio contiene
+ * histogramas exportados ({@code histogramas_*.hst}), se fusionan y se muestran
+ * los percentiles agregados de todas las ejecuciones. Las estadísticas
+ * binarias ({@code estadisticas_*.acol}) se resumen por columnas y, con
+ * {@code --exportar-csv}, se convierten a CSV junto al original.
+ * </p>
+ */
+public class AnalyzeLogs {
+
+    public static void main(String[] args) {
+        File directorio = new File(".");
+        String salidaCsv = null;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        boolean exportarCsv = false;
+
+        for (String arg : args) {
+            if (arg.startsWith("--csv=")) {
+                salidaCsv = arg.substring("--csv=".length());
+            } else if (arg.startsWith("--hilos=")) {
+                try {
+                    hilos = Math.max(1, Integer.parseInt(arg.substring("--hilos=".length())));
+                } catch (NumberFormatException e) {
+                    System.err.println("Número de hilos no válido: '" + arg + "'. Usando " + hilos);
+                }
+            } else if (arg.equals("--exportar-csv")) {
+                exportarCsv = true;
+            } else {
+                directorio = new File(arg);
+            }
+        }
+
+        if (!directorio.isDirectory()) {
+            System.err.println("No es un directorio: " + directorio);
+            System.exit(1);
+        }
+
+        long inicio = System.nanoTime();
+        List<LogAnalyzer.Informe> informes = LogAnalyzer.analizarDirectorio(directorio, hilos);
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.out.println("--------------------------------------------------");
+        System.out.printf("ANÁLISIS DE LOGS: %d ficheros en %d ms (%d hilos)%n", informes.size(), ms, hilos);
+        System.out.println("--------------------------------------------------");
+        System.out.print(LogAnalyzer.formatearInforme(informes));
+
+        if (salidaCsv != null) {
+            try (PrintWriter pw = new PrintWriter(new FileWriter(salidaCsv))) {
+                pw.print(LogAnalyzer.formatearCsv(informes));
+                System.out.println("--> Comparativa CSV generada: " + salidaCsv);
+            } catch (IOException e) {
+                System.err.println("No se ha podido escribir " + salidaCsv + ": " + e.getMessage());
+            }
+        }
+
+        fusionarHistogramas(directorio);
+        resumirColumnares(directorio, exportarCsv);
+    }
+
+    /**
+     * Resume los ficheros binarios por columnas sin materializar filas.
+     */
+    private static void resumirColumnares(File directorio, boolean exportarCsv) {
+        File[] ficheros = directorio.listFiles((d, n) -> n.startsWith("estadisticas_") && n.endsWith(".acol"));
+        if (ficheros == null || ficheros.length == 0) {
+            return;
+        }
+        System.out.println("--------------------------------------------------");
+        System.out.println("ESTADÍSTICAS BINARIAS (.acol)");
+        System.out.printf("%-36s %10s %12s %14s %14s%n", "FICHERO", "VUELOS", "MAKESPAN(ms)", "p50 TOTAL(ms)", "p99 TOTAL(ms)");
+        for (File f : ficheros) {
+            try (ColumnarStatsReader r = new ColumnarStatsReader(f)) {
+                long makespan = r.maximo("T_DESPEGADO") - r.minimo("T_SOLICITUD_ATERRIZAJE");
+                LatencyHistogram total = r.histograma("T_SOLICITUD_ATERRIZAJE", "T_DESPEGADO");
+                System.out.printf("%-36s %10d %12.1f %14.3f %14.3f%n", f.getName(), r.getFilas(),
+                        makespan / 1e6, total.percentil(50) / 1e6, total.percentil(99) / 1e6);
+                if (exportarCsv) {
+                    String nombre = f.getPath().substring(0, f.getPath().length() - ".acol".length()) + "_export.csv";
+                    try (PrintWriter pw = new PrintWriter(new FileWriter(nombre))) {
+                        r.exportarCsv(pw);
+                    }
+                    System.out.println("--> Exportado: " + nombre);
+                }
+            } catch (IOException e) {
+                System.err.println("No se ha podido leer " + f + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fusiona por fase todos los histogramas exportados en el directorio.
+     */
+    private static void fusionarHistogramas(File directorio) {
+        File[] ficheros = directorio.listFiles((d, n) -> n.startsWith("histogramas_") && n.endsWith(".hst"));
+        if (ficheros == null || ficheros.length == 0) {
+            return;
+        }
+        Map<String, LatencyHistogram> fusion = new LinkedHashMap<>();
+        for (File f : ficheros) {
+            try {
+                for (LatencyHistogram h : EstadisticasVuelo.importarHistogramas(f)) {
+                    LatencyHistogram acc = fusion.get(h.getNombre());
+                    if (acc == null) {
+                        fusion.put(h.getNombre(), h);
+                    } else {
+                        acc.fusionar(h);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("No se ha podido leer " + f + ": " + e.getMessage());
+            }
+        }
+        System.out.println("--------------------------------------------------");
+        System.out.printf("LATENCIAS POR FASE (%d ejecuciones fusionadas)%n", ficheros.length);
+        System.out.print(EstadisticasVuelo.resumenLatencias(new ArrayList<>(fusion.values())));
+    }
+}
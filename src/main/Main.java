@@ -1,12 +1,22 @@
 package main;
 
 import exceptions.AeronConfigException;
-import model.concurrent.ControlTowerConcurrent;
-import model.concurrent.Plane;
-import model.sequential.ControlTowerSequential;
-import model.sequential.PlaneSequential;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import model.Simulacion;
+import model.sequential.Checkpoint;
+import util.ContextoSimulacion;
+import util.Escenario;
 import util.EstadisticasVuelo;
-import util.SimulationLogger;
+import util.EventSink;
+import util.GeneradorLlegadas;
+import util.HeadlessSink;
+import util.LockProfiler;
+import util.Repeticion;
+import util.TowerMetrics;
 import util.Ventana;
 
 /**
@@ -32,11 +42,49 @@ public class Main {
     private static int NUM_PISTAS = 3;
     private static int NUM_PUERTAS = 5;
     private static int NUM_OPERARIOS = 5;
+    private static EstadisticasVuelo.Formato FORMATO_ESTADISTICAS = EstadisticasVuelo.Formato.CSV;
+    private static int FPS = Ventana.FPS_POR_DEFECTO;
+    private static int LINEAS_GUI = Ventana.LINEAS_POR_DEFECTO;
+    private static boolean HEADLESS = false;
+    private static boolean HEADLESS_LOG = true;
+    private static boolean CERRAR_AL_TERMINAR = false;
+    private static String FICHERO_ESCENARIO = null;
+    private static String FICHERO_GRABAR = null;
+    private static String FICHERO_REPRODUCIR = null;
+    private static Repeticion REPETICION = Repeticion.libre();
+    private static String FICHERO_CHECKPOINT = null;
+    private static long CHECKPOINT_CADA_S = 30;
+    private static String FICHERO_REANUDAR = null;
+    private static Checkpoint REANUDACION = null;
+    private static Escenario ESCENARIO;
 
     // =============================================================
     /**
      * Método principal. Acepta argumentos en orden: [MODO] [AVIONES] [PISTAS]
-     * [PUERTAS] [OPERARIOS]
+     * [PUERTAS] [OPERARIOS], más opciones {@code --clave=valor} en cualquier
+     * posición:
+     * <ul>
+     * <li>{@code --estadisticas=csv|binario|ambos}: formato de las
+     * estadísticas por vuelo.</li>
+     * <li>{@code --fps=N}: fotogramas por segundo máximos de la GUI.</li>
+     * <li>{@code --lineas=N}: líneas visibles en cada panel de log.</li>
+     * <li>{@code --headless[=sin-log]}: ejecuta sin GUI; los mensajes solo
+     * van al log de disco o, con {@code sin-log}, se descartan.</li>
+     * <li>{@code --cerrar-al-terminar}: cierra la GUI cuando han salido todos
+     * los vuelos, para ejecuciones automáticas con interfaz.</li>
+     * <li>{@code --escenario=FICHERO}: carga recursos, llegadas y duraciones
+     * de un fichero de escenario ({@link Escenario}); sus claves prevalecen
+     * sobre los argumentos posicionales.</li>
+     * <li>{@code --grabar=FICHERO}: guarda el escenario y el orden en que la
+     * torre procesa las peticiones ({@link Repeticion}).</li>
+     * <li>{@code --reproducir=FICHERO}: repite una ejecución grabada con el
+     * mismo orden y las mismas decisiones de la torre.</li>
+     * <li>{@code --checkpoint=FICHERO}: en modo secuencial, guarda el estado
+     * completo de la simulación ({@link Checkpoint}) cada
+     * {@code --checkpoint-cada=S} segundos simulados (30 por defecto).</li>
+     * <li>{@code --reanudar=FICHERO}: continúa una ejecución secuencial desde
+     * su último checkpoint; el escenario es el del checkpoint.</li>
+     * </ul>
      */
     public static void main(String[] args) {
         try {
@@ -47,33 +95,74 @@ public class Main {
             validarConfiguracion();
 
             // 2. Inicialización de sistemas de registro
-            SimulationLogger.setup(MODE, NUM_AVIONES, NUM_PISTAS, NUM_PUERTAS, NUM_OPERARIOS);
-            EstadisticasVuelo.setup();
+            ContextoSimulacion contexto = ContextoSimulacion.enDirectorio(new File("."), ESCENARIO,
+                    FORMATO_ESTADISTICAS, REPETICION);
+            if (LockProfiler.ACTIVO) {
+                LockProfiler.registrarJmx();
+            }
 
-            // 3. Inicialización de la Interfaz Gráfica
-            Ventana ventana = new Ventana();
+            // 3. Inicialización de la Interfaz Gráfica (o del destino sin GUI)
+            long inicioInterfaz = System.nanoTime();
+            EventSink ventana = HEADLESS
+                    ? new HeadlessSink(HEADLESS_LOG ? contexto.getLogger() : null)
+                    : new Ventana(FPS, LINEAS_GUI, contexto.getLogger(), CERRAR_AL_TERMINAR);
+            long msInterfaz = (System.nanoTime() - inicioInterfaz) / 1_000_000;
 
             System.out.println("--------------------------------------------------");
             System.out.println("INICIANDO AERON SIMULATOR");
             System.out.printf("MODO: %s | AVIONES: %d | PISTAS: %d | PUERTAS: %d | OPERARIOS: %s%n",
                     MODE, NUM_AVIONES, NUM_PISTAS, NUM_PUERTAS,
                     MODE.equals("CONCURRENT") ? NUM_OPERARIOS : "N/A");
-            System.out.println("--------------------------------------------------");
-
-            // 4. Ejecución según el modo seleccionado
-            if (MODE.equalsIgnoreCase("CONCURRENT")) {
-                ejecutarModoConcurrente(ventana);
-            } else {
-                ejecutarModoSecuencial(ventana);
+            System.out.println(ESCENARIO.describir());
+            if (REPETICION.getModo() == Repeticion.Modo.GRABAR) {
+                System.out.println("GRABANDO EN: " + FICHERO_GRABAR);
+            } else if (REPETICION.getModo() == Repeticion.Modo.REPRODUCIR) {
+                System.out.println("REPRODUCIENDO: " + FICHERO_REPRODUCIR);
+            }
+            if (REANUDACION != null) {
+                System.out.printf("REANUDANDO: %s (instante %.1f s)%n", FICHERO_REANUDAR,
+                        REANUDACION.getInstanteNanos() / 1e9);
+            }
+            if (FICHERO_CHECKPOINT != null) {
+                System.out.println("CHECKPOINT CADA " + CHECKPOINT_CADA_S + " s EN: " + FICHERO_CHECKPOINT);
             }
+            System.out.println("--------------------------------------------------");
 
-            // 5. Registro de gancho de cierre para asegurar guardado de ficheros
+            // 4. Registro de gancho de cierre para asegurar guardado de ficheros
+            // (cierre de la ventana o Ctrl+C antes de terminar la simulación)
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-                System.out.println("Cerrando recursos y guardando logs...");
-                SimulationLogger.close();
-                EstadisticasVuelo.close();
+                if (!contexto.isCerrado()) {
+                    System.out.println("Cerrando recursos y guardando logs...");
+                    contexto.close();
+                }
+                if (LockProfiler.ACTIVO) {
+                    System.out.println("--------------------------------------------------");
+                    System.out.println("CONTENCIÓN DE CERROJOS");
+                    System.out.print(LockProfiler.informe());
+                }
             }));
 
+            // 5. Ejecución según el modo seleccionado
+            long msArranque = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            Simulacion simulacion = new Simulacion(ESCENARIO, ventana, contexto);
+            if (FICHERO_CHECKPOINT != null) {
+                simulacion.configurarCheckpoint(new File(FICHERO_CHECKPOINT), CHECKPOINT_CADA_S * 1000);
+            }
+            if (REANUDACION != null) {
+                simulacion.reanudarDesde(REANUDACION);
+            }
+            Simulacion.Resultado resultado = simulacion.ejecutar();
+            informeRendimiento(msArranque, msInterfaz, resultado);
+            informeRepeticion();
+
+            // 6. Cierre ordenado: la torre ya está apagada; se cierran los
+            // ficheros y se avisa a la interfaz. Sin GUI (o con
+            // --cerrar-al-terminar) no queda ningún hilo vivo y la JVM termina sola
+            contexto.close();
+            ventana.finalizar(String.format("SIMULACIÓN FINALIZADA: %d/%d vuelos | makespan %.1f ms | %.2f vuelos/s",
+                    resultado.getCompletados(), resultado.getVuelos(), resultado.getMakespanNanos() / 1e6,
+                    resultado.getVuelosPorSegundo()));
+
         } catch (AeronConfigException e) {
             System.err.println("ERROR FATAL DE CONFIGURACIÓN:");
             System.err.println(e.getMessage());
@@ -89,7 +178,8 @@ public class Main {
      * Lee y valida los argumentos de la línea de comandos. Formato esperado:
      * java main.Main [MODO] [AVIONES] [PISTAS] [PUERTAS] [OPERARIOS]
      */
-    private static void procesarArgumentos(String[] args) {
+    private static void procesarArgumentos(String[] todos) throws AeronConfigException {
+        String[] args = procesarOpciones(todos);
         if (args.length > 0) {
             // 1. MODO
             String inputMode = args[0].toUpperCase();
@@ -124,49 +214,189 @@ public class Main {
                 System.err.println("Error al leer parámetros numéricos. Usando valores por defecto.");
             }
         }
-    }
 
-    /**
-     * Lanza la simulación usando hilos, semáforos y monitores.
-     */
-    private static void ejecutarModoConcurrente(Ventana ventana) {
-        ControlTowerConcurrent tower = new ControlTowerConcurrent(NUM_PISTAS, NUM_PUERTAS, ventana);
-        tower.startOperators(NUM_OPERARIOS);
+        // 6. ESCENARIO: los argumentos posicionales son la base del fichero
+        Escenario base = Escenario.porDefecto(MODE, NUM_AVIONES, NUM_PISTAS, NUM_PUERTAS, NUM_OPERARIOS);
+        ESCENARIO = FICHERO_ESCENARIO != null ? Escenario.cargar(new File(FICHERO_ESCENARIO), base) : base;
 
-        ventana.setTower(tower);
-        ventana.updateResources(); // Estado inicial visual
+        // 7. GRABACIÓN / REPRODUCCIÓN: la grabación trae su propio escenario
+        if (FICHERO_GRABAR != null && FICHERO_REPRODUCIR != null) {
+            throw new AeronConfigException("--grabar y --reproducir no se pueden combinar.");
+        }
+        if (FICHERO_REPRODUCIR != null) {
+            REPETICION = Repeticion.cargar(new File(FICHERO_REPRODUCIR));
+            ESCENARIO = REPETICION.getEscenario();
+        } else if (FICHERO_GRABAR != null) {
+            REPETICION = Repeticion.grabar(ESCENARIO);
+        }
 
-        for (int i = 1; i <= NUM_AVIONES; i++) {
-            String planeId = String.format("IBE-%03d", i);
-            Plane p = new Plane(planeId, tower, ventana);
-            p.start();
+        // 8. CHECKPOINTS: solo en modo secuencial; el checkpoint trae su propio escenario
+        if ((FICHERO_CHECKPOINT != null || FICHERO_REANUDAR != null) && REPETICION.activa()) {
+            throw new AeronConfigException("--checkpoint y --reanudar no se pueden combinar con --grabar ni --reproducir.");
+        }
+        if (FICHERO_REANUDAR != null) {
+            REANUDACION = Checkpoint.cargar(new File(FICHERO_REANUDAR));
+            ESCENARIO = REANUDACION.getEscenario();
+        }
+        if (FICHERO_CHECKPOINT != null && !ESCENARIO.getModo().equals("SEQUENTIAL")) {
+            throw new AeronConfigException("Los checkpoints solo están disponibles en modo SEQUENTIAL.");
+        }
+        MODE = ESCENARIO.getModo();
+        NUM_AVIONES = new GeneradorLlegadas(ESCENARIO).getTotal();
+        NUM_PISTAS = ESCENARIO.getPistas();
+        NUM_PUERTAS = ESCENARIO.getPuertas();
+        NUM_OPERARIOS = ESCENARIO.getOperarios();
+    }
 
-            // Pequeña pausa para escalonar las llegadas
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
+    /**
+     * Extrae las opciones {@code --clave=valor} y devuelve los argumentos
+     * posicionales restantes.
+     */
+    private static String[] procesarOpciones(String[] args) throws AeronConfigException {
+        List<String> posicionales = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                posicionales.add(arg);
+                continue;
+            }
+            int igual = arg.indexOf('=');
+            String clave = igual > 0 ? arg.substring(2, igual) : arg.substring(2);
+            String valor = igual > 0 ? arg.substring(igual + 1) : "";
+            switch (clave) {
+                case "estadisticas":
+                    if (valor.equalsIgnoreCase("csv")) {
+                        FORMATO_ESTADISTICAS = EstadisticasVuelo.Formato.CSV;
+                    } else if (valor.equalsIgnoreCase("binario") || valor.equalsIgnoreCase("bin")) {
+                        FORMATO_ESTADISTICAS = EstadisticasVuelo.Formato.BINARIO;
+                    } else if (valor.equalsIgnoreCase("ambos")) {
+                        FORMATO_ESTADISTICAS = EstadisticasVuelo.Formato.AMBOS;
+                    } else {
+                        throw new AeronConfigException("Formato de estadísticas desconocido: '" + valor + "' (csv, binario, ambos).");
+                    }
+                    break;
+                case "fps":
+                    try {
+                        FPS = Integer.parseInt(valor);
+                    } catch (NumberFormatException e) {
+                        throw new AeronConfigException("Valor de --fps no numérico: '" + valor + "'.");
+                    }
+                    if (FPS < 1) {
+                        throw new AeronConfigException("La GUI debe refrescarse al menos 1 vez por segundo.");
+                    }
+                    break;
+                case "lineas":
+                    try {
+                        LINEAS_GUI = Integer.parseInt(valor);
+                    } catch (NumberFormatException e) {
+                        throw new AeronConfigException("Valor de --lineas no numérico: '" + valor + "'.");
+                    }
+                    if (LINEAS_GUI < 1) {
+                        throw new AeronConfigException("Los paneles de log deben mostrar al menos 1 línea.");
+                    }
+                    break;
+                case "headless":
+                    HEADLESS = true;
+                    if (valor.equalsIgnoreCase("sin-log")) {
+                        HEADLESS_LOG = false;
+                    } else if (!valor.isEmpty()) {
+                        throw new AeronConfigException("Valor de --headless desconocido: '" + valor + "' (sin-log).");
+                    }
+                    break;
+                case "cerrar-al-terminar":
+                    CERRAR_AL_TERMINAR = true;
+                    break;
+                case "escenario":
+                    if (valor.isEmpty()) {
+                        throw new AeronConfigException("Falta el fichero en --escenario=FICHERO.");
+                    }
+                    FICHERO_ESCENARIO = valor;
+                    break;
+                case "grabar":
+                    if (valor.isEmpty()) {
+                        throw new AeronConfigException("Falta el fichero en --grabar=FICHERO.");
+                    }
+                    FICHERO_GRABAR = valor;
+                    break;
+                case "reproducir":
+                    if (valor.isEmpty()) {
+                        throw new AeronConfigException("Falta el fichero en --reproducir=FICHERO.");
+                    }
+                    FICHERO_REPRODUCIR = valor;
+                    break;
+                case "checkpoint":
+                    if (valor.isEmpty()) {
+                        throw new AeronConfigException("Falta el fichero en --checkpoint=FICHERO.");
+                    }
+                    FICHERO_CHECKPOINT = valor;
+                    break;
+                case "checkpoint-cada":
+                    try {
+                        CHECKPOINT_CADA_S = Long.parseLong(valor);
+                    } catch (NumberFormatException e) {
+                        throw new AeronConfigException("Valor de --checkpoint-cada no numérico: '" + valor + "'.");
+                    }
+                    if (CHECKPOINT_CADA_S < 1) {
+                        throw new AeronConfigException("Los checkpoints deben estar separados al menos 1 segundo.");
+                    }
+                    break;
+                case "reanudar":
+                    if (valor.isEmpty()) {
+                        throw new AeronConfigException("Falta el fichero en --reanudar=FICHERO.");
+                    }
+                    FICHERO_REANUDAR = valor;
+                    break;
+                default:
+                    throw new AeronConfigException("Opción desconocida: " + arg);
             }
         }
+        return posicionales.toArray(new String[0]);
     }
 
     /**
-     * Lanza la simulación usando una lógica secuencial FIFO estricta.
+     * Muestra el tiempo de arranque y el rendimiento de la ejecución.
+     *
+     * @param msArranque Milisegundos desde el arranque de la JVM hasta el
+     * lanzamiento del primer avión.
+     * @param msInterfaz Milisegundos de inicialización de la GUI o del destino
+     * sin interfaz.
+     * @param resultado Makespan (del primer lanzamiento a la última salida
+     * procesada) y vuelos completados.
      */
-    private static void ejecutarModoSecuencial(Ventana ventana) {
-        ControlTowerSequential tower = new ControlTowerSequential(NUM_PISTAS, NUM_PUERTAS, ventana);
-
-        ventana.setTower(tower);
-        ventana.updateResources();
-
-        for (int i = 1; i <= NUM_AVIONES; i++) {
-            String planeId = String.format("IBE-%03d", i);
-            PlaneSequential p = new PlaneSequential(planeId, tower, ventana);
-            p.start();
+    private static void informeRendimiento(long msArranque, long msInterfaz, Simulacion.Resultado resultado) {
+        System.out.println("--------------------------------------------------");
+        System.out.println("RENDIMIENTO (" + (HEADLESS ? "HEADLESS" : "GUI") + ")");
+        System.out.printf("Arranque JVM -> simulación: %d ms (interfaz: %d ms)%n", msArranque, msInterfaz);
+        System.out.printf("Makespan: %.1f ms | Vuelos: %d/%d | Rendimiento: %.2f vuelos/s%n",
+                resultado.getMakespanNanos() / 1e6, resultado.getCompletados(), resultado.getVuelos(),
+                resultado.getVuelosPorSegundo());
+        System.out.printf("Utilización: pistas %.1f%% | puertas %.1f%%%n",
+                100 * resultado.getUtilizacionPistas(), 100 * resultado.getUtilizacionPuertas());
+        System.out.printf("Rechazos: %d sin pista | %d sin puerta | %d reintentos por cola llena%n",
+                resultado.getRechazos(TowerMetrics.Rechazo.PISTA), resultado.getRechazos(TowerMetrics.Rechazo.PUERTA),
+                resultado.getRechazos(TowerMetrics.Rechazo.COLA));
+        System.out.println("--------------------------------------------------");
+    }
 
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-            }
+    /**
+     * Guarda la grabación o muestra el resultado de la reproducción.
+     */
+    private static void informeRepeticion() {
+        switch (REPETICION.getModo()) {
+            case GRABAR:
+                try {
+                    REPETICION.guardar(new File(FICHERO_GRABAR));
+                    System.out.printf("--> Grabación guardada: %s (%d decisiones)%n", FICHERO_GRABAR,
+                            REPETICION.getDecisiones());
+                } catch (IOException e) {
+                    System.err.println("No se ha podido guardar la grabación " + FICHERO_GRABAR + ": " + e.getMessage());
+                }
+                break;
+            case REPRODUCIR:
+                System.out.printf("REPRODUCCIÓN: %d decisiones | divergencias: %d%s%n", REPETICION.getDecisiones(),
+                        REPETICION.getDivergencias(), REPETICION.getDivergencias() == 0 ? " (exacta)" : "");
+                break;
+            default:
+                break;
         }
     }
 
@@ -176,21 +406,6 @@ public class Main {
      * @throws AeronConfigException Si alguna regla de negocio es violada.
      */
     private static void validarConfiguracion() throws AeronConfigException {
-        if (NUM_AVIONES < 1) {
-            throw new AeronConfigException("Debe haber al menos 1 avión.");
-        }
-        if (NUM_PISTAS < 1) {
-            throw new AeronConfigException("Debe haber al menos 1 pista.");
-        }
-        if (NUM_PUERTAS < 1) {
-            throw new AeronConfigException("Debe haber al menos 1 puerta.");
-        }
-
-        if (MODE.equalsIgnoreCase("CONCURRENT") && NUM_OPERARIOS < 1) {
-            throw new AeronConfigException("En modo concurrente debe haber al menos 1 operario.");
-        }
-        if (NUM_PISTAS > NUM_PUERTAS) {
-            throw new AeronConfigException("Configuración ilógica: Más pistas (" + NUM_PISTAS + ") que puertas (" + NUM_PUERTAS + ").");
-        }
+        ESCENARIO.validar();
     }
 }
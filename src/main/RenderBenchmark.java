@@ -0,0 +1,120 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import util.AirportState;
+import util.Gate;
+import util.Recurso;
+import util.ResourcePanelRenderer;
+import util.Runway;
+
+/**
+ * Microbenchmark del panel de recursos: compara
+ * {@link AirportState#showResourcesStatus(List, List)} (reconstrucción
+ * completa con {@code String.format}) con {@link ResourcePanelRenderer}
+ * (plantilla cacheada y parcheo de celdas).
+ * <p>
+ * Uso: {@code java -cp bin main.RenderBenchmark [ITERACIONES]}
+ * </p>
+ * <p>
+ * En cada iteración cambia el estado de un recurso aleatorio, como ocurre
+ * entre dos fotogramas de la GUI, y se pinta el panel. Antes de medir se
+ * comprueba que ambas implementaciones producen el mismo texto.
+ * </p>
+ */
+public class RenderBenchmark {
+
+    // {pistas, puertas} de cada configuración medida
+    private static final int[][] CONFIGURACIONES = {{3, 5}, {10, 50}, {40, 400}};
+
+    private static long sumidero = 0;
+
+    public static void main(String[] args) {
+        int iteraciones = 20_000;
+        if (args.length > 0) {
+            try {
+                iteraciones = Math.max(1, Integer.parseInt(args[0]));
+            } catch (NumberFormatException e) {
+                System.err.println("Número de iteraciones no válido: '" + args[0] + "'. Usando " + iteraciones);
+            }
+        }
+
+        System.out.println("--------------------------------------------------");
+        System.out.printf("BENCHMARK PANEL DE RECURSOS (%d iteraciones)%n", iteraciones);
+        System.out.println("--------------------------------------------------");
+        System.out.printf("%-16s %16s %16s %10s%n", "PISTAS/PUERTAS", "COMPLETO(ns)", "INCREMENTAL(ns)", "MEJORA");
+
+        for (int[] conf : CONFIGURACIONES) {
+            List<Runway> runways = new ArrayList<>();
+            for (int i = 1; i <= conf[0]; i++) {
+                runways.add(new Runway("P" + i));
+            }
+            List<Gate> gates = new ArrayList<>();
+            for (int i = 1; i <= conf[1]; i++) {
+                gates.add(new Gate("G" + i));
+            }
+
+            if (!verificar(runways, gates, 1_000)) {
+                System.err.println("ERROR: las salidas difieren para " + conf[0] + "/" + conf[1]);
+                System.exit(1);
+            }
+
+            // Calentamiento de ambos caminos antes de medir
+            medir(runways, gates, iteraciones, null);
+            medir(runways, gates, iteraciones, new ResourcePanelRenderer());
+            long completo = medir(runways, gates, iteraciones, null);
+            long incremental = medir(runways, gates, iteraciones, new ResourcePanelRenderer());
+
+            System.out.printf("%-16s %16d %16d %9.1fx%n", conf[0] + "/" + conf[1],
+                    completo, incremental, (double) completo / Math.max(1, incremental));
+        }
+        if (sumidero == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * @param renderer Renderizador incremental, o null para medir AirportState.
+     * @return Nanosegundos medios por fotograma.
+     */
+    private static long medir(List<Runway> runways, List<Gate> gates, int iteraciones, ResourcePanelRenderer renderer) {
+        SplittableRandom rnd = new SplittableRandom(7);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < iteraciones; i++) {
+            cambiarRecurso(runways, gates, rnd);
+            String s = renderer == null
+                    ? AirportState.showResourcesStatus(runways, gates)
+                    : renderer.render(runways, gates);
+            sumidero += s.length();
+        }
+        return (System.nanoTime() - inicio) / iteraciones;
+    }
+
+    private static boolean verificar(List<Runway> runways, List<Gate> gates, int pasos) {
+        ResourcePanelRenderer renderer = new ResourcePanelRenderer();
+        SplittableRandom rnd = new SplittableRandom(1);
+        for (int i = 0; i < pasos; i++) {
+            if (!AirportState.showResourcesStatus(runways, gates).equals(renderer.render(runways, gates))) {
+                return false;
+            }
+            cambiarRecurso(runways, gates, rnd);
+        }
+        return true;
+    }
+
+    private static void alternar(Recurso r) {
+        if (!r.tryClaim("BENCH")) {
+            r.release("BENCH");
+        }
+    }
+
+    private static void cambiarRecurso(List<Runway> runways, List<Gate> gates, SplittableRandom rnd) {
+        int k = rnd.nextInt(runways.size() + gates.size());
+        if (k < runways.size()) {
+            alternar(runways.get(k));
+        } else {
+            alternar(gates.get(k - runways.size()));
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package main;
+
+import exceptions.AeronConfigException;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import model.Simulacion;
+import util.ContextoSimulacion;
+import util.Escenario;
+import util.EstadisticasVuelo;
+import util.EstadisticasVuelo.Fase;
+import util.HeadlessSink;
+import util.LatencyHistogram;
+
+/**
+ * Barrido de parámetros: ejecuta en paralelo, dentro de la misma JVM, una
+ * simulación sin interfaz por cada combinación de aviones, pistas, puertas y
+ * operarios, y muestra una tabla comparativa.
+ * <p>
+ * Uso: {@code java -cp bin main.SweepRunner [--modo=CONCURRENT|SEQUENTIAL]
+ * [--aviones=R] [--pistas=R] [--puertas=R] [--operarios=R]
+ * [--escenario=FICHERO] [--paralelo=N] [--salida=DIRECTORIO] [--csv=FICHERO]
+ * [--referencia=si|no] [--asignacion=MEJOR_AJUSTE,PRIMER_HUECO]
+ * [--secuenciacion=FIFO,SEPARACION]}
+ * </p>
+ * <p>
+ * Cada rango {@code R} es una lista ({@code 2,3,5}) o un intervalo
+ * ({@code 1:8} o {@code 1:8:2}). El escenario, si se indica, aporta el proceso
+ * de llegadas, las duraciones y la semilla, comunes a todas las ejecuciones.
+ * Cada simulación tiene su propio {@link ContextoSimulacion}: en memoria, o
+ * con sus ficheros en un subdirectorio de {@code --salida}. Las combinaciones
+ * que no pasan la validación (por ejemplo, más pistas que puertas) se omiten.
+ * </p>
+ * <p>
+ * Con {@code --referencia=si} en modo concurrente se ejecuta además, para
+ * cada combinación de aviones, pistas y puertas, la torre secuencial (un
+ * único hilo con el mismo tiempo de gestión por petición) y cada fila
+ * concurrente muestra su aceleración ({@code makespan secuencial /
+ * makespan concurrente}) y su eficiencia (aceleración / operarios).
+ * </p>
+ * <p>
+ * Con varias políticas en {@code --asignacion} cada combinación se ejecuta
+ * con todas ellas, para comparar la utilización de pistas y puertas del
+ * mejor ajuste frente al primer hueco con la misma mezcla de aviones. Lo
+ * mismo con {@code --secuenciacion}: la tabla añade la separación media por
+ * estela, para medir cuánto rendimiento de pista gana la secuenciación por
+ * separación frente a FIFO.
+ * </p>
+ */
+public class SweepRunner {
+
+    private static final String SEPARADOR = "--------------------------------------------------";
+
+    /**
+     * Una combinación del barrido y, cuando termina, su resultado.
+     */
+    private static final class Ejecucion {
+
+        final Escenario escenario;
+        Simulacion.Resultado resultado;
+        String error;
+        // Ejecución secuencial de referencia (solo filas concurrentes con --referencia)
+        Ejecucion referencia;
+        // Las políticas forman parte del nombre si el barrido compara varias
+        final boolean conAsignacion;
+        final boolean conSecuenciacion;
+
+        Ejecucion(Escenario escenario, boolean conAsignacion, boolean conSecuenciacion) {
+            this.escenario = escenario;
+            this.conAsignacion = conAsignacion;
+            this.conSecuenciacion = conSecuenciacion;
+        }
+
+        String nombre() {
+            return String.format("%s-%dAV-%dPIS-%dPUE-%dOPE", escenario.getModo(), escenario.getAviones(),
+                    escenario.getPistas(), escenario.getPuertas(), escenario.getOperarios())
+                    + (conAsignacion ? "-" + escenario.getAsignacion() : "")
+                    + (conSecuenciacion ? "-" + escenario.getSecuenciacion() : "");
+        }
+    }
+
+    public static void main(String[] args) {
+        String modo = "CONCURRENT";
+        String aviones = "20";
+        String pistas = "3";
+        String puertas = "5";
+        String operarios = "5";
+        String ficheroEscenario = null;
+        int paralelo = Runtime.getRuntime().availableProcessors();
+        File salida = null;
+        String salidaCsv = null;
+        boolean referencia = false;
+        String asignaciones = null;
+        String secuenciaciones = null;
+
+        try {
+            for (String arg : args) {
+                int igual = arg.indexOf('=');
+                if (!arg.startsWith("--") || igual < 0) {
+                    throw new AeronConfigException("Argumento no reconocido: '" + arg + "' (--clave=valor).");
+                }
+                String clave = arg.substring(2, igual);
+                String valor = arg.substring(igual + 1);
+                switch (clave) {
+                    case "modo":
+                        modo = valor.toUpperCase();
+                        break;
+                    case "aviones":
+                        aviones = valor;
+                        break;
+                    case "pistas":
+                        pistas = valor;
+                        break;
+                    case "puertas":
+                        puertas = valor;
+                        break;
+                    case "operarios":
+                        operarios = valor;
+                        break;
+                    case "escenario":
+                        ficheroEscenario = valor;
+                        break;
+                    case "paralelo":
+                        paralelo = Math.max(1, entero(valor, clave));
+                        break;
+                    case "salida":
+                        salida = new File(valor);
+                        break;
+                    case "csv":
+                        salidaCsv = valor;
+                        break;
+                    case "referencia":
+                        referencia = siNo(valor, clave);
+                        break;
+                    case "asignacion":
+                        asignaciones = valor;
+                        break;
+                    case "secuenciacion":
+                        secuenciaciones = valor;
+                        break;
+                    default:
+                        throw new AeronConfigException("Opción desconocida: " + arg);
+                }
+            }
+            if (!modo.equals("CONCURRENT") && !modo.equals("SEQUENTIAL")) {
+                throw new AeronConfigException("Modo desconocido: '" + modo + "' (CONCURRENT, SEQUENTIAL).");
+            }
+
+            Escenario base = Escenario.porDefecto(modo, 0, 0, 0, 0);
+            if (ficheroEscenario != null) {
+                base = Escenario.cargar(new File(ficheroEscenario), base);
+            }
+            List<Escenario.Asignacion> politicas = new ArrayList<>();
+            if (asignaciones == null) {
+                politicas.add(base.getAsignacion());
+            } else {
+                for (String a : asignaciones.split(",")) {
+                    politicas.add(asignacion(a));
+                }
+            }
+            List<Escenario.Secuenciacion> ordenes = new ArrayList<>();
+            if (secuenciaciones == null) {
+                ordenes.add(base.getSecuenciacion());
+            } else {
+                for (String o : secuenciaciones.split(",")) {
+                    ordenes.add(secuenciacion(o));
+                }
+            }
+            List<Ejecucion> ejecuciones = combinaciones(base, rango(aviones, "aviones"),
+                    rango(pistas, "pistas"), rango(puertas, "puertas"), rango(operarios, "operarios"), politicas,
+                    ordenes);
+            if (ejecuciones.isEmpty()) {
+                throw new AeronConfigException("Ninguna combinación del barrido es válida.");
+            }
+            if (referencia && modo.equals("CONCURRENT")) {
+                ejecuciones.addAll(referencias(ejecuciones));
+            }
+
+            System.out.println(SEPARADOR);
+            System.out.printf("BARRIDO DE PARÁMETROS: %d simulaciones (%d en paralelo)%n", ejecuciones.size(), paralelo);
+            System.out.println(base.describir());
+            System.out.println(SEPARADOR);
+
+            long inicio = System.nanoTime();
+            ejecutar(ejecuciones, paralelo, salida);
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+            System.out.println(SEPARADOR);
+            System.out.printf("RESULTADOS (%d ms en total)%n", ms);
+            System.out.print(formatearTabla(ejecuciones));
+
+            if (salidaCsv != null) {
+                try (PrintWriter pw = new PrintWriter(new FileWriter(salidaCsv))) {
+                    pw.print(formatearCsv(ejecuciones));
+                    System.out.println("--> Comparativa CSV generada: " + salidaCsv);
+                } catch (IOException e) {
+                    System.err.println("No se ha podido escribir " + salidaCsv + ": " + e.getMessage());
+                }
+            }
+        } catch (AeronConfigException e) {
+            System.err.println("ERROR FATAL DE CONFIGURACIÓN:");
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            System.err.println("Barrido interrumpido.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Producto cartesiano de los rangos, omitiendo las combinaciones que no
+     * pasan la validación del escenario.
+     */
+    private static List<Ejecucion> combinaciones(Escenario base, List<Integer> aviones,
+            List<Integer> pistas, List<Integer> puertas, List<Integer> operarios,
+            List<Escenario.Asignacion> politicas, List<Escenario.Secuenciacion> ordenes) {
+        List<Ejecucion> ejecuciones = new ArrayList<>();
+        int omitidas = 0;
+        String modo = base.getModo();
+        // En secuencial no hay operarios: una sola pasada
+        List<Integer> ope = modo.equals("CONCURRENT") ? operarios : operarios.subList(0, 1);
+        for (int av : aviones) {
+            for (int pis : pistas) {
+                for (int pue : puertas) {
+                    for (int op : ope) {
+                        for (Escenario.Asignacion a : politicas) {
+                            for (Escenario.Secuenciacion o : ordenes) {
+                                Escenario e = base.conRecursos(modo, av, pis, pue, op).conAsignacion(a)
+                                        .conSecuenciacion(o);
+                                try {
+                                    e.validar();
+                                    ejecuciones.add(new Ejecucion(e, politicas.size() > 1, ordenes.size() > 1));
+                                } catch (AeronConfigException ex) {
+                                    omitidas++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (omitidas > 0) {
+            System.out.println("--> Combinaciones omitidas por no ser válidas: " + omitidas);
+        }
+        return ejecuciones;
+    }
+
+    /**
+     * Crea una ejecución secuencial por cada combinación distinta de aviones,
+     * pistas y puertas, y la enlaza con las filas concurrentes que la usan.
+     */
+    private static List<Ejecucion> referencias(List<Ejecucion> ejecuciones) {
+        Map<String, Ejecucion> porRecursos = new LinkedHashMap<>();
+        for (Ejecucion ej : ejecuciones) {
+            Escenario e = ej.escenario;
+            String clave = e.getAviones() + "/" + e.getPistas() + "/" + e.getPuertas() + "/" + e.getAsignacion()
+                    + "/" + e.getSecuenciacion();
+            Ejecucion ref = porRecursos.get(clave);
+            if (ref == null) {
+                ref = new Ejecucion(e.conRecursos("SEQUENTIAL", e.getAviones(), e.getPistas(), e.getPuertas(), 1),
+                        ej.conAsignacion, ej.conSecuenciacion);
+                porRecursos.put(clave, ref);
+            }
+            ej.referencia = ref;
+        }
+        return new ArrayList<>(porRecursos.values());
+    }
+
+    /**
+     * Lanza todas las simulaciones en un pool fijo y espera a que terminen.
+     */
+    private static void ejecutar(List<Ejecucion> ejecuciones, int paralelo, File salida) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(paralelo);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (Ejecucion ej : ejecuciones) {
+                tareas.add(pool.submit(() -> {
+                    ContextoSimulacion contexto = salida != null
+                            ? ContextoSimulacion.enDirectorio(new File(salida, ej.nombre()), ej.escenario,
+                                    EstadisticasVuelo.Formato.CSV)
+                            : ContextoSimulacion.enMemoria();
+                    try {
+                        ej.resultado = new Simulacion(ej.escenario, new HeadlessSink(contexto.getLogger()),
+                                contexto).ejecutar();
+                        System.out.printf("--> %s (torre %s): %.1f ms%n", ej.nombre(), ej.resultado.getTorre(),
+                                ej.resultado.getMakespanNanos() / 1e6);
+                    } finally {
+                        contexto.close();
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < tareas.size(); i++) {
+                try {
+                    tareas.get(i).get();
+                } catch (ExecutionException e) {
+                    ejecuciones.get(i).error = String.valueOf(e.getCause());
+                    System.err.println("Fallo en " + ejecuciones.get(i).nombre() + ": " + e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Tabla comparativa; la fila con mejor makespan se marca con {@code *}.
+     */
+    private static String formatearTabla(List<Ejecucion> ejecuciones) {
+        Ejecucion mejor = null;
+        for (Ejecucion ej : ejecuciones) {
+            if (ej.resultado != null
+                    && (mejor == null || ej.resultado.getMakespanNanos() < mejor.resultado.getMakespanNanos())) {
+                mejor = ej;
+            }
+        }
+        boolean conReferencia = false;
+        boolean conAsignacion = false;
+        boolean conSecuenciacion = false;
+        for (Ejecucion ej : ejecuciones) {
+            conReferencia |= ej.referencia != null;
+            conAsignacion |= ej.conAsignacion;
+            conSecuenciacion |= ej.conSecuenciacion;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("  %-10s %6s %4s %4s %4s %13s %10s %14s %14s %14s %8s %8s", "MODO", "AV", "PIS",
+                "PUE", "OPE", "MAKESPAN(ms)", "VUELOS/S", "p50 TOTAL(ms)", "p99 TOTAL(ms)", "p99 ESP.AT(ms)",
+                "UTIL.PIS", "UTIL.PUE"));
+        sb.append(conAsignacion ? String.format(" %-12s", "ASIGNACIÓN") : "");
+        sb.append(conSecuenciacion ? String.format(" %-13s %13s", "SECUENCIACIÓN", "SEP.MEDIA(ms)") : "");
+        sb.append(conReferencia ? String.format(" %8s %7s%n", "SPEEDUP", "EFIC.") : System.lineSeparator());
+        for (Ejecucion ej : ejecuciones) {
+            Escenario e = ej.escenario;
+            sb.append(ej == mejor ? "* " : "  ");
+            sb.append(String.format("%-10s %6d %4d %4d %4s ", e.getModo(), e.getAviones(), e.getPistas(),
+                    e.getPuertas(), e.getModo().equals("CONCURRENT") ? String.valueOf(e.getOperarios()) : "-"));
+            if (ej.resultado == null) {
+                sb.append("ERROR: ").append(ej.error).append(System.lineSeparator());
+                continue;
+            }
+            LatencyHistogram total = ej.resultado.getEstadisticas().getHistograma(Fase.TOTAL);
+            LatencyHistogram espera = ej.resultado.getEstadisticas().getHistograma(Fase.ESPERA_ATERRIZAJE);
+            sb.append(String.format("%13.1f %10.2f %14.3f %14.3f %14.3f %7.1f%% %7.1f%%",
+                    ej.resultado.getMakespanNanos() / 1e6, ej.resultado.getVuelosPorSegundo(),
+                    total.percentil(50) / 1e6, total.percentil(99) / 1e6, espera.percentil(99) / 1e6,
+                    100 * ej.resultado.getUtilizacionPistas(), 100 * ej.resultado.getUtilizacionPuertas()));
+            if (conAsignacion) {
+                sb.append(String.format(" %-12s", e.getAsignacion()));
+            }
+            if (conSecuenciacion) {
+                sb.append(String.format(" %-13s %13.3f", e.getSecuenciacion(), separacionMedia(ej) / 1e6));
+            }
+            double speedup = speedup(ej);
+            if (conReferencia && speedup > 0) {
+                sb.append(String.format(" %8.2f %6.0f%%", speedup, 100 * speedup / e.getOperarios()));
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    private static String formatearCsv(List<Ejecucion> ejecuciones) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Modo,Aviones,Pistas,Puertas,Operarios,Makespan_ms,Vuelos_s,P50_Total_ms,P99_Total_ms,P99_EsperaAterrizaje_ms,"
+                + "Speedup,Eficiencia,Asignacion,Utilizacion_Pistas,Utilizacion_Puertas,Secuenciacion,Separacion_Media_ms\n");
+        for (Ejecucion ej : ejecuciones) {
+            if (ej.resultado == null) {
+                continue;
+            }
+            Escenario e = ej.escenario;
+            LatencyHistogram total = ej.resultado.getEstadisticas().getHistograma(Fase.TOTAL);
+            LatencyHistogram espera = ej.resultado.getEstadisticas().getHistograma(Fase.ESPERA_ATERRIZAJE);
+            sb.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,", e.getModo(),
+                    e.getAviones(), e.getPistas(), e.getPuertas(), e.getOperarios(),
+                    ej.resultado.getMakespanNanos() / 1e6, ej.resultado.getVuelosPorSegundo(),
+                    total.percentil(50) / 1e6, total.percentil(99) / 1e6, espera.percentil(99) / 1e6));
+            double speedup = speedup(ej);
+            if (speedup > 0) {
+                sb.append(String.format(Locale.ROOT, "%.3f,%.3f", speedup, speedup / e.getOperarios()));
+            } else {
+                sb.append(',');
+            }
+            sb.append(String.format(Locale.ROOT, ",%s,%.4f,%.4f,%s,%.3f", e.getAsignacion(),
+                    ej.resultado.getUtilizacionPistas(), ej.resultado.getUtilizacionPuertas(),
+                    e.getSecuenciacion(), separacionMedia(ej) / 1e6));
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return Espera media por estela de cada operación de pista (ns), o 0
+     * sin separación.
+     */
+    private static double separacionMedia(Ejecucion ej) {
+        return ej.resultado.getEstadisticas().getHistograma(Fase.SEPARACION).getMedia();
+    }
+
+    /**
+     * @return Makespan de la referencia secuencial entre el de la ejecución,
+     * o 0 si no hay referencia o alguna ha fallado.
+     */
+    private static double speedup(Ejecucion ej) {
+        if (ej.referencia == null || ej.referencia.resultado == null || ej.resultado == null
+                || ej.resultado.getMakespanNanos() <= 0) {
+            return 0.0;
+        }
+        return (double) ej.referencia.resultado.getMakespanNanos() / ej.resultado.getMakespanNanos();
+    }
+
+    /**
+     * Interpreta un rango: lista {@code a,b,c} o intervalo
+     * {@code inicio:fin[:paso]}.
+     */
+    private static List<Integer> rango(String texto, String clave) throws AeronConfigException {
+        List<Integer> valores = new ArrayList<>();
+        if (texto.contains(":")) {
+            String[] partes = texto.split(":");
+            if (partes.length < 2 || partes.length > 3) {
+                throw new AeronConfigException("Rango no válido para --" + clave + ": '" + texto + "' (inicio:fin[:paso]).");
+            }
+            int desde = entero(partes[0], clave);
+            int hasta = entero(partes[1], clave);
+            int paso = partes.length == 3 ? entero(partes[2], clave) : 1;
+            if (paso < 1 || hasta < desde) {
+                throw new AeronConfigException("Rango vacío para --" + clave + ": '" + texto + "'.");
+            }
+            for (int v = desde; v <= hasta; v += paso) {
+                valores.add(v);
+            }
+        } else {
+            for (String parte : texto.split(",")) {
+                valores.add(entero(parte, clave));
+            }
+        }
+        return valores;
+    }
+
+    private static Escenario.Asignacion asignacion(String texto) throws AeronConfigException {
+        try {
+            return Escenario.Asignacion.valueOf(texto.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new AeronConfigException("Valor no válido para --asignacion: '" + texto
+                    + "' (MEJOR_AJUSTE, PRIMER_HUECO).");
+        }
+    }
+
+    private static Escenario.Secuenciacion secuenciacion(String texto) throws AeronConfigException {
+        try {
+            return Escenario.Secuenciacion.valueOf(texto.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new AeronConfigException("Valor no válido para --secuenciacion: '" + texto
+                    + "' (FIFO, SEPARACION).");
+        }
+    }
+
+    private static boolean siNo(String texto, String clave) throws AeronConfigException {
+        switch (texto.trim().toLowerCase()) {
+            case "si":
+            case "sí":
+            case "true":
+                return true;
+            case "no":
+            case "false":
+                return false;
+            default:
+                throw new AeronConfigException("Valor no válido para --" + clave + ": '" + texto + "' (si, no).");
+        }
+    }
+
+    private static int entero(String texto, String clave) throws AeronConfigException {
+        try {
+            return Integer.parseInt(texto.trim());
+        } catch (NumberFormatException e) {
+            throw new AeronConfigException("Valor no numérico para --" + clave + ": '" + texto + "'.");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Embarque en paralelo de un {@link Manifiesto} sobre un
+ * {@link ForkJoinPool} compartido por todas las puertas.
+ * <p>
+ * Cada cohorte (prioritarios y zonas de la cola a la cabeza) pasa por tres
+ * etapas encadenadas: facturación, asignación de asiento y escaneo. Dentro
+ * de una etapa los pasajeros se reparten en tareas fork/join; entre cohortes
+ * las etapas se solapan como en una cadena de montaje: mientras se escanea
+ * una cohorte, la siguiente ya está eligiendo asiento. Los escaneos respetan
+ * el orden de embarque de las cohortes.
+ * </p>
+ * <p>
+ * El pool tiene tantos hilos como núcleos (o los indicados en la propiedad
+ * {@code aeron.embarque.hilos}), así que la estancia en puerta se reduce al
+ * añadir núcleos hasta que el trabajo de todas las puertas los ocupa.
+ * </p>
+ */
+public final class EmbarqueParalelo {
+
+    // Pasajeros por tarea hoja
+    private static final int UMBRAL = 8;
+
+    private static ForkJoinPool pool;
+
+    private EmbarqueParalelo() {
+    }
+
+    /**
+     * @return Pool compartido del embarque (se crea al primer uso).
+     */
+    public static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            int hilos = Integer.getInteger("aeron.embarque.hilos", Runtime.getRuntime().availableProcessors());
+            pool = new ForkJoinPool(Math.max(1, hilos));
+        }
+        return pool;
+    }
+
+    /**
+     * Embarca a todo el pasaje y espera a que termine.
+     *
+     * @param m Manifiesto del vuelo.
+     * @return Pasajeros embarcados.
+     */
+    public static int embarcar(Manifiesto m) {
+        ForkJoinPool p = getPool();
+        long inicio = System.nanoTime();
+        LongAccumulator huella = new LongAccumulator((a, b) -> a ^ b, 0);
+
+        CompletableFuture<Void> escaneos = CompletableFuture.completedFuture(null);
+        for (int[] cohorte : m.cohortes()) {
+            if (cohorte.length == 0) {
+                continue;
+            }
+            CompletableFuture<Void> asientos = CompletableFuture
+                    .runAsync(() -> etapa(cohorte, m::facturar, huella), p)
+                    .thenRunAsync(() -> etapa(cohorte, m::asignarAsiento, huella), p);
+            escaneos = escaneos.runAfterBothAsync(asientos,
+                    () -> etapa(cohorte, i -> m.escanear(i, inicio), huella), p);
+        }
+        escaneos.join();
+
+        m.cerrarEmbarque(huella.get(), System.nanoTime() - inicio);
+        return m.getEmbarcados();
+    }
+
+    private static void etapa(int[] indices, IntToLongFunction op, LongAccumulator huella) {
+        new Tramo(indices, 0, indices.length, op, huella).invoke();
+    }
+
+    /**
+     * Tramo de una cohorte: se divide en dos hasta {@value #UMBRAL}
+     * pasajeros.
+     */
+    private static final class Tramo extends RecursiveAction {
+
+        private final int[] indices;
+        private final int desde;
+        private final int hasta;
+        private final IntToLongFunction op;
+        private final LongAccumulator huella;
+
+        Tramo(int[] indices, int desde, int hasta, IntToLongFunction op, LongAccumulator huella) {
+            this.indices = indices;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.op = op;
+            this.huella = huella;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= UMBRAL) {
+                long h = 0;
+                for (int k = desde; k < hasta; k++) {
+                    h ^= op.applyAsLong(indices[k]);
+                }
+                huella.accumulate(h);
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new Tramo(indices, desde, medio, op, huella),
+                    new Tramo(indices, medio, hasta, op, huella));
+        }
+    }
+}
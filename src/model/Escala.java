@@ -0,0 +1,42 @@
+package model;
+
+import util.Escenario.Servicio;
+
+/**
+ * Trabajo de un avión en la puerta: duración de cada servicio de tierra y
+ * pasaje a embarcar.
+ */
+public class Escala {
+
+    private final Manifiesto manifiesto;
+    private final long[] servicioMs;
+
+    /**
+     * @param manifiesto Pasaje a embarcar.
+     * @param servicioMs Duración (ms) de cada servicio, en el orden de
+     * {@link Servicio}.
+     */
+    public Escala(Manifiesto manifiesto, long[] servicioMs) {
+        this.manifiesto = manifiesto;
+        this.servicioMs = servicioMs.clone();
+    }
+
+    /**
+     * Escala sin servicios de tierra: solo el embarque.
+     */
+    public static Escala soloEmbarque(Manifiesto manifiesto) {
+        return new Escala(manifiesto, new long[Servicio.values().length]);
+    }
+
+    public Manifiesto getManifiesto() {
+        return manifiesto;
+    }
+
+    /**
+     * @return Duración del servicio de la tarea en ms (0 para el embarque,
+     * cuya duración sale del manifiesto).
+     */
+    public long getMs(TareaEscala t) {
+        return t.getServicio() != null ? servicioMs[t.getServicio().ordinal()] : 0;
+    }
+}
@@ -0,0 +1,346 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import util.TrabajoCalibrado;
+
+/**
+ * Lista de pasajeros de un vuelo, guardada por columnas en arrays primitivos.
+ * <p>
+ * En lugar de un objeto por pasajero (cabecera, referencias y un
+ * {@code String}), cada atributo es un array indexado por pasajero: billete,
+ * grupo de embarque, asiento, estado e instante de embarque. Ocupa
+ * {@value #BYTES_POR_PASAJERO} bytes por pasajero más el mapa de asientos, de
+ * modo que una jornada con millones de pasajeros cabe sin presión sobre el
+ * recolector.
+ * </p>
+ * <p>
+ * El embarque procesa a cada pasajero en tres etapas: facturación (valida el
+ * dígito de control del billete), asignación de asiento dentro de la zona de
+ * su grupo y escaneo en puerta, por cohortes: primero los prioritarios y
+ * después las zonas de la cola a la cabeza. Las etapas de pasajeros distintos
+ * son independientes (el mapa de asientos se reserva con CAS), así que
+ * {@link EmbarqueParalelo} puede repartirlas entre varios hilos. Cada etapa
+ * hace además un trabajo de CPU
+ * calibrado ({@link TrabajoCalibrado}); el total está repartido para que un
+ * núcleo tarde el tiempo de embarque del escenario, así que la duración de la
+ * fase sale del procesamiento real.
+ * </p>
+ */
+public class Manifiesto {
+
+    // Estados del pasajero
+    public static final byte PENDIENTE = 0;
+    public static final byte FACTURADO = 1;
+    public static final byte CON_ASIENTO = 2;
+    public static final byte EMBARCADO = 3;
+    public static final byte RECHAZADO = 4;
+
+    /**
+     * Grupos de embarque: 0 prioritario, 1..ZONAS de la cola a la cabeza.
+     */
+    public static final int ZONAS = 4;
+
+    public static final int ASIENTOS_POR_FILA = 6;
+
+    /**
+     * Pasaje de los aviones creados sin manifiesto (media del escenario por
+     * defecto).
+     */
+    public static final int PASAJEROS_POR_DEFECTO = 275;
+
+    /**
+     * billete (4) + asiento (4) + grupo (1) + estado (1) + instante (4).
+     */
+    public static final int BYTES_POR_PASAJERO = 14;
+
+    // Una de cada 200 tarjetas llega con el dígito de control mal
+    private static final double PROB_BILLETE_ERRONEO = 0.005;
+    private static final double PROB_PRIORITARIO = 0.08;
+
+    private final int n;
+    private final int[] billete;
+    private final byte[] grupo;
+    // int: con short, un pasaje de más de ~32k desbordaría el índice
+    private final int[] asiento;
+    private final byte[] estado;
+    private final int[] embarqueUs;
+
+    // Mapa de asientos ocupados (un bit por asiento)
+    private final int filas;
+    private final AtomicLongArray ocupados;
+
+    private final long nanosEtapa;
+    private final long iteracionesEtapa;
+    private final long nanosNominales;
+
+    // Resultado del embarque (escrito al cerrarlo)
+    private int embarcados = 0;
+    private int rechazados = 0;
+    private long huella = 0;
+    private long nanosEmbarque = -1;
+
+    /**
+     * Genera el pasaje de un vuelo.
+     *
+     * @param pasajeros Número de pasajeros.
+     * @param embarqueMs Tiempo de embarque de todo el pasaje en un núcleo.
+     * @param semilla Semilla de los billetes y grupos.
+     */
+    public Manifiesto(int pasajeros, long embarqueMs, long semilla) {
+        this.n = Math.max(1, pasajeros);
+        this.billete = new int[n];
+        this.grupo = new byte[n];
+        this.asiento = new int[n];
+        this.estado = new byte[n];
+        this.embarqueUs = new int[n];
+
+        // Filas de sobra para que cada zona tenga hueco para su grupo
+        this.filas = (n + ASIENTOS_POR_FILA - 1) / ASIENTOS_POR_FILA + 2 * ZONAS;
+        this.ocupados = new AtomicLongArray((filas * ASIENTOS_POR_FILA + 63) / 64);
+
+        SplittableRandom rnd = new SplittableRandom(semilla);
+        int validos = 0;
+        for (int i = 0; i < n; i++) {
+            int base = 1_000_000 + rnd.nextInt(9_000_000);
+            int control = digitoControl(base);
+            if (rnd.nextDouble() < PROB_BILLETE_ERRONEO) {
+                control = (control + 1) % 10;
+            } else {
+                validos++;
+            }
+            billete[i] = base * 10 + control;
+            grupo[i] = (byte) (rnd.nextDouble() < PROB_PRIORITARIO ? 0 : 1 + rnd.nextInt(ZONAS));
+            asiento[i] = -1;
+            embarqueUs[i] = -1;
+        }
+
+        // Todas las tarjetas pasan por facturación; solo las válidas siguen
+        long etapas = n + 2L * validos;
+        this.nanosEtapa = Math.max(0, embarqueMs) * 1_000_000L / etapas;
+        this.iteracionesEtapa = TrabajoCalibrado.iteraciones(nanosEtapa);
+        this.nanosNominales = etapas * nanosEtapa;
+    }
+
+    /**
+     * Embarca a todo el pasaje por cohortes, en el hilo que llama.
+     *
+     * @return Pasajeros embarcados.
+     */
+    public int embarcar() {
+        long inicio = System.nanoTime();
+        long h = 0;
+        for (int[] cohorte : cohortes()) {
+            for (int i : cohorte) {
+                h ^= facturar(i);
+                h ^= asignarAsiento(i);
+                h ^= escanear(i, inicio);
+            }
+        }
+        cerrarEmbarque(h, System.nanoTime() - inicio);
+        return embarcados;
+    }
+
+    /**
+     * Índices de los pasajeros agrupados en orden de embarque: prioritarios
+     * y después zonas 1..{@value #ZONAS}. Dentro de cada cohorte, en orden de
+     * lista.
+     */
+    int[][] cohortes() {
+        int[] tam = new int[ZONAS + 1];
+        for (int i = 0; i < n; i++) {
+            tam[grupo[i]]++;
+        }
+        int[][] cohortes = new int[ZONAS + 1][];
+        for (int g = 0; g <= ZONAS; g++) {
+            cohortes[g] = new int[tam[g]];
+            tam[g] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            int g = grupo[i];
+            cohortes[g][tam[g]++] = i;
+        }
+        return cohortes;
+    }
+
+    /**
+     * Etapa 1: valida el dígito de control del billete.
+     *
+     * @return Resultado del trabajo calibrado.
+     */
+    long facturar(int i) {
+        long h = TrabajoCalibrado.consumir(iteracionesEtapa, billete[i]);
+        int b = billete[i];
+        estado[i] = digitoControl(b / 10) == b % 10 ? FACTURADO : RECHAZADO;
+        return h;
+    }
+
+    /**
+     * Etapa 2: primer asiento libre a partir del inicio de la zona del grupo
+     * (los prioritarios, en las primeras filas).
+     *
+     * @return Resultado del trabajo calibrado.
+     */
+    long asignarAsiento(int i) {
+        if (estado[i] != FACTURADO) {
+            return 0;
+        }
+        long h = TrabajoCalibrado.consumir(iteracionesEtapa, i);
+        int total = filas * ASIENTOS_POR_FILA;
+        int zona = grupo[i] == 0 ? ZONAS : grupo[i];
+        // Zona 1 al fondo del avión, zona ZONAS en cabeza
+        int desde = (ZONAS - zona) * (filas / ZONAS) * ASIENTOS_POR_FILA;
+        for (int k = 0; k < total; k++) {
+            int s = (desde + k) % total;
+            if (reservar(s)) {
+                asiento[i] = s;
+                estado[i] = CON_ASIENTO;
+                return h;
+            }
+        }
+        return h;
+    }
+
+    // Marca el asiento como ocupado si estaba libre
+    private boolean reservar(int s) {
+        long bit = 1L << s;
+        while (true) {
+            long palabra = ocupados.get(s >>> 6);
+            if ((palabra & bit) != 0) {
+                return false;
+            }
+            if (ocupados.compareAndSet(s >>> 6, palabra, palabra | bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Etapa 3: escaneo en puerta; anota el instante de embarque.
+     *
+     * @return Resultado del trabajo calibrado.
+     */
+    long escanear(int i, long inicio) {
+        if (estado[i] != CON_ASIENTO) {
+            return 0;
+        }
+        long h = TrabajoCalibrado.consumir(iteracionesEtapa, asiento[i]);
+        estado[i] = EMBARCADO;
+        embarqueUs[i] = (int) ((System.nanoTime() - inicio) / 1000);
+        return h;
+    }
+
+    /**
+     * Cuenta el resultado del embarque. Debe llamarse cuando han terminado
+     * todas las etapas.
+     *
+     * @param huella Resultado combinado del trabajo calibrado.
+     * @param nanos Duración medida del embarque.
+     */
+    void cerrarEmbarque(long huella, long nanos) {
+        int e = 0;
+        int r = 0;
+        for (int i = 0; i < n; i++) {
+            if (estado[i] == EMBARCADO) {
+                e++;
+            } else if (estado[i] == RECHAZADO) {
+                r++;
+            }
+        }
+        this.embarcados = e;
+        this.rechazados = r;
+        this.huella = huella;
+        this.nanosEmbarque = nanos;
+    }
+
+    // Algoritmo de Luhn
+    private static int digitoControl(int numero) {
+        int suma = 0;
+        boolean doble = true;
+        for (int v = numero; v > 0; v /= 10) {
+            int d = v % 10;
+            if (doble) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            suma += d;
+            doble = !doble;
+        }
+        return (10 - suma % 10) % 10;
+    }
+
+    public int getPasajeros() {
+        return n;
+    }
+
+    public int getEmbarcados() {
+        return embarcados;
+    }
+
+    public int getRechazados() {
+        return rechazados;
+    }
+
+    public byte getEstado(int i) {
+        return estado[i];
+    }
+
+    public byte getGrupo(int i) {
+        return grupo[i];
+    }
+
+    /**
+     * @return Asiento del pasajero ("12C"), o null si no tiene.
+     */
+    public String getAsiento(int i) {
+        int s = asiento[i];
+        if (s < 0) {
+            return null;
+        }
+        return (s / ASIENTOS_POR_FILA + 1) + String.valueOf((char) ('A' + s % ASIENTOS_POR_FILA));
+    }
+
+    /**
+     * @return Microsegundos desde el inicio del embarque hasta el escaneo del
+     * pasajero, o -1 si no ha embarcado.
+     */
+    public int getInstanteEmbarqueUs(int i) {
+        return embarqueUs[i];
+    }
+
+    /**
+     * @return Duración medida del último embarque, o -1 si no ha embarcado.
+     */
+    public long getNanosEmbarque() {
+        return nanosEmbarque;
+    }
+
+    /**
+     * @return Duración prevista del embarque en un núcleo libre.
+     */
+    public long getNanosNominales() {
+        return nanosNominales;
+    }
+
+    /**
+     * @return Resultado acumulado del trabajo calibrado (impide que el
+     * compilador lo elimine).
+     */
+    public long getHuella() {
+        return huella;
+    }
+
+    /**
+     * @return Memoria de las columnas y el mapa de asientos, en bytes.
+     */
+    public long getBytes() {
+        return (long) n * BYTES_POR_PASAJERO + ocupados.length() * 8L;
+    }
+
+    @Override
+    public String toString() {
+        return n + " pasajeros";
+    }
+}
@@ -0,0 +1,281 @@
+package model;
+
+import java.io.File;
+import java.util.function.Function;
+import model.concurrent.ControlTowerConcurrent;
+import model.concurrent.Plane;
+import model.sequential.Checkpoint;
+import model.sequential.ControlTowerSequential;
+import model.sequential.PlaneSequential;
+import util.ContextoSimulacion;
+import util.Escenario;
+import util.EstadisticasVuelo;
+import util.EventSink;
+import util.GeneradorLlegadas;
+import util.GeneradorLlegadas.Llegada;
+import util.TowerMetrics;
+import util.VuelosEnCurso;
+
+/**
+ * Una ejecución completa de la simulación: crea la torre del modo indicado
+ * por el escenario, lanza los aviones según su calendario, espera a que todos
+ * despeguen y apaga la torre.
+ * <p>
+ * Todo el estado vive en la instancia y en su {@link ContextoSimulacion}, así
+ * que se pueden ejecutar varias simulaciones en paralelo.
+ * </p>
+ */
+public class Simulacion {
+
+    /**
+     * Resultado de una ejecución.
+     */
+    public static class Resultado {
+
+        private final int vuelos;
+        private final int completados;
+        private final long makespanNanos;
+        private final EstadisticasVuelo estadisticas;
+        private final double utilizacionPistas;
+        private final double utilizacionPuertas;
+        private final long[] rechazos;
+        private final String torre;
+
+        Resultado(int vuelos, int completados, long makespanNanos, EstadisticasVuelo estadisticas,
+                double utilizacionPistas, double utilizacionPuertas, long[] rechazos, String torre) {
+            this.vuelos = vuelos;
+            this.completados = completados;
+            this.makespanNanos = makespanNanos;
+            this.estadisticas = estadisticas;
+            this.utilizacionPistas = utilizacionPistas;
+            this.utilizacionPuertas = utilizacionPuertas;
+            this.rechazos = rechazos;
+            this.torre = torre;
+        }
+
+        public int getVuelos() {
+            return vuelos;
+        }
+
+        /**
+         * @return Vuelos cuya salida ha procesado la torre (igual a
+         * {@link #getVuelos()} salvo interrupción).
+         */
+        public int getCompletados() {
+            return completados;
+        }
+
+        /**
+         * @return Tiempo desde el lanzamiento del primer avión hasta que la
+         * torre procesa la salida del último.
+         */
+        public long getMakespanNanos() {
+            return makespanNanos;
+        }
+
+        public double getVuelosPorSegundo() {
+            return makespanNanos > 0 ? completados / (makespanNanos / 1e9) : 0.0;
+        }
+
+        public EstadisticasVuelo getEstadisticas() {
+            return estadisticas;
+        }
+
+        /**
+         * @return Fracción del tiempo de la torre con las pistas ocupadas.
+         */
+        public double getUtilizacionPistas() {
+            return utilizacionPistas;
+        }
+
+        /**
+         * @return Fracción del tiempo de la torre con las puertas ocupadas.
+         */
+        public double getUtilizacionPuertas() {
+            return utilizacionPuertas;
+        }
+
+        /**
+         * @return Peticiones que la torre no pudo atender en el acto por el
+         * motivo indicado.
+         */
+        public long getRechazos(TowerMetrics.Rechazo motivo) {
+            return rechazos[motivo.ordinal()];
+        }
+
+        /**
+         * @return Nombre JMX de la torre, el mismo que encabeza sus resúmenes
+         * de rechazos por stderr.
+         */
+        public String getTorre() {
+            return torre;
+        }
+    }
+
+    // Tiempo sin ninguna salida tras el que la simulación se da por bloqueada
+    private static final long ESPERA_SALIDAS_MS = 60_000;
+
+    private final Escenario escenario;
+    private final EventSink ventana;
+    private final ContextoSimulacion contexto;
+
+    // Métricas de la torre al terminar (antes de apagarla)
+    private TowerMetrics metricas;
+
+    // Checkpoints del modo secuencial: fichero e intervalo, y estado del que se reanuda
+    private File ficheroCheckpoint;
+    private long intervaloCheckpointMs;
+    private Checkpoint reanudacion;
+
+    /**
+     * @param escenario Recursos, llegadas y duraciones.
+     * @param ventana Destino de los eventos (GUI o sin interfaz).
+     * @param contexto Log, estadísticas y panel de esta ejecución.
+     */
+    public Simulacion(Escenario escenario, EventSink ventana, ContextoSimulacion contexto) {
+        this.escenario = escenario;
+        this.ventana = ventana;
+        this.contexto = contexto;
+    }
+
+    /**
+     * Vuelca el estado de la simulación a un {@link Checkpoint} cada cierto
+     * tiempo simulado. Solo en modo secuencial.
+     *
+     * @param fichero Fichero del checkpoint (se sobrescribe cada vez).
+     * @param intervaloMs Tiempo simulado entre checkpoints.
+     */
+    public void configurarCheckpoint(File fichero, long intervaloMs) {
+        this.ficheroCheckpoint = fichero;
+        this.intervaloCheckpointMs = intervaloMs;
+    }
+
+    /**
+     * Continúa la ejecución desde un checkpoint en lugar de empezar desde el
+     * inicio. El escenario debe ser el del checkpoint. Solo en modo
+     * secuencial.
+     */
+    public void reanudarDesde(Checkpoint checkpoint) {
+        this.reanudacion = checkpoint;
+    }
+
+    /**
+     * Ejecuta la simulación hasta que la torre procesa la salida del último
+     * avión, y después apaga la torre (operarios y métricas JMX). En modo
+     * secuencial todo ocurre en el hilo que llama.
+     *
+     * @return Makespan, vuelos y estadísticas.
+     * @throws InterruptedException Si se interrumpe la espera de los aviones.
+     */
+    public Resultado ejecutar() throws InterruptedException {
+        VuelosEnCurso vuelos = contexto.getVuelos();
+        // Al reanudar, el makespan incluye el tiempo ya simulado
+        long inicio = System.nanoTime() - (reanudacion != null ? reanudacion.getInstanteNanos() : 0);
+        if (escenario.getModo().equalsIgnoreCase("CONCURRENT")) {
+            ejecutarConcurrente(vuelos);
+        } else {
+            ejecutarSecuencial();
+        }
+        long fin = vuelos.getUltimaSalidaNanos() > 0 ? vuelos.getUltimaSalidaNanos() : System.nanoTime();
+        return new Resultado(vuelos.getLanzados(), vuelos.getCompletados(),
+                fin - inicio, contexto.getEstadisticas(), metricas.getRunwayUtilization(),
+                metricas.getGateUtilization(), rechazos(metricas), metricas.getNombre());
+    }
+
+    private static long[] rechazos(TowerMetrics metricas) {
+        long[] r = new long[TowerMetrics.Rechazo.values().length];
+        for (TowerMetrics.Rechazo motivo : TowerMetrics.Rechazo.values()) {
+            r[motivo.ordinal()] = metricas.getRechazos(motivo);
+        }
+        return r;
+    }
+
+    /**
+     * Un hilo por avión y operarios que atienden la cola de la torre.
+     */
+    private void ejecutarConcurrente(VuelosEnCurso vuelos) throws InterruptedException {
+        ControlTowerConcurrent tower = new ControlTowerConcurrent(escenario.getClasesPistas(),
+                escenario.getClasesPuertas(), escenario.getAsignacion(), ventana, contexto);
+        metricas = tower.getMetrics();
+        tower.configurarTierra(escenario.getCuadrillas());
+        tower.configurarPistas(escenario.getSeparacion(), escenario.getSecuenciacion());
+        tower.startOperators(escenario.getOperarios());
+        ventana.setTower(tower);
+        ventana.updateResources(); // Estado inicial visual
+        lanzarLlegadas(ll -> new Plane(String.format("IBE-%03d", ll.indice), tower, ventana,
+                ll.aterrizajeMs, escala(ll), ll.despegueMs, ll.clase));
+        try {
+            vuelos.cerrarLlegadas();
+            // No se guardan los hilos (ni sus escalas) para no crecer con el
+            // número de llegadas: se espera mientras sigan saliendo vuelos
+            int completados = vuelos.getCompletados();
+            while (!vuelos.esperarFin(ESPERA_SALIDAS_MS)) {
+                if (vuelos.getCompletados() == completados) {
+                    System.err.println("Simulación incompleta: " + vuelos.getPendientes()
+                            + " vuelo(s) sin salida procesada.");
+                    break;
+                }
+                completados = vuelos.getCompletados();
+            }
+        } finally {
+            tower.apagar();
+        }
+    }
+
+    /**
+     * Bucle de eventos en el hilo actual: la torre secuencial lanza las
+     * llegadas (o continúa desde el checkpoint) y termina con la salida del
+     * último avión.
+     */
+    private void ejecutarSecuencial() throws InterruptedException {
+        ControlTowerSequential tower = new ControlTowerSequential(escenario.getClasesPistas(),
+                escenario.getClasesPuertas(), escenario.getAsignacion(), ventana, contexto);
+        metricas = tower.getMetrics();
+        tower.configurarTierra(escenario.getCuadrillas());
+        tower.configurarPistas(escenario.getSeparacion(), escenario.getSecuenciacion());
+        if (ficheroCheckpoint != null) {
+            tower.configurarCheckpoint(ficheroCheckpoint, intervaloCheckpointMs, escenario);
+        }
+        ventana.setTower(tower);
+        ventana.updateResources();
+        Function<Llegada, PlaneSequential> crear = ll -> new PlaneSequential(String.format("IBE-%03d", ll.indice),
+                ll.aterrizajeMs, escala(ll), ll.despegueMs, ll.clase);
+        try {
+            if (reanudacion != null) {
+                tower.reanudar(reanudacion, new GeneradorLlegadas(escenario).flujo().iterator(), crear);
+            } else {
+                tower.ejecutar(new GeneradorLlegadas(escenario).flujo().iterator(), crear);
+            }
+        } finally {
+            tower.apagar();
+        }
+    }
+
+    private static Escala escala(Llegada ll) {
+        return new Escala(new Manifiesto(ll.pasajeros, ll.embarqueMs, ll.semillaPasaje), ll.getServiciosMs());
+    }
+
+    /**
+     * Recorre el calendario del escenario y arranca cada avión en su instante
+     * de llegada. Si el lanzamiento va retrasado, los aviones pendientes se
+     * arrancan sin esperar.
+     *
+     * @param crear Construye el hilo del avión para una llegada.
+     */
+    private void lanzarLlegadas(Function<Llegada, Thread> crear) {
+        long inicio = System.nanoTime();
+        new GeneradorLlegadas(escenario).flujo().forEach(ll -> {
+            long espera = inicio + ll.instanteNanos - System.nanoTime();
+            if (espera > 0) {
+                try {
+                    Thread.sleep(espera / 1_000_000, (int) (espera % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Thread avion = crear.apply(ll);
+            contexto.getVuelos().lanzado();
+            avion.start();
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import util.Escenario.Servicio;
+
+/**
+ * Tareas de la escala en puerta y sus dependencias.
+ * <p>
+ * Entre LANDED y BOARDED el avión desembarca, se limpia, recibe el catering y
+ * reposta; después embarca. Limpieza y catering esperan al desembarque, el
+ * repostaje puede empezar al llegar a la puerta y el embarque espera a las
+ * tres. El orden de declaración es un orden topológico del grafo, y la ruta
+ * crítica decide cuándo se avisa a la torre del fin del embarque.
+ * </p>
+ */
+public enum TareaEscala {
+
+    DESEMBARQUE(Servicio.DESEMBARQUE),
+    LIMPIEZA(Servicio.LIMPIEZA, DESEMBARQUE),
+    CATERING(Servicio.CATERING, DESEMBARQUE),
+    COMBUSTIBLE(Servicio.COMBUSTIBLE),
+    EMBARQUE(null, LIMPIEZA, CATERING, COMBUSTIBLE);
+
+    private final Servicio servicio;
+    private final List<TareaEscala> previas;
+    private final List<TareaEscala> siguientes = new ArrayList<>();
+
+    TareaEscala(Servicio servicio, TareaEscala... previas) {
+        this.servicio = servicio;
+        List<TareaEscala> l = new ArrayList<>();
+        Collections.addAll(l, previas);
+        this.previas = Collections.unmodifiableList(l);
+    }
+
+    static {
+        for (TareaEscala t : values()) {
+            for (TareaEscala p : t.previas) {
+                p.siguientes.add(t);
+            }
+        }
+    }
+
+    /**
+     * @return Servicio de tierra que realiza la tarea, o null para el
+     * embarque (procesamiento del {@link Manifiesto}).
+     */
+    public Servicio getServicio() {
+        return servicio;
+    }
+
+    public List<TareaEscala> getPrevias() {
+        return previas;
+    }
+
+    public List<TareaEscala> getSiguientes() {
+        return Collections.unmodifiableList(siguientes);
+    }
+}
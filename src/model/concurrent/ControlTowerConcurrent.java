@@ -1,15 +1,26 @@
 package model.concurrent;
 
-import exceptions.ResourceException;
-import exceptions.SaturationException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.Semaphore;
+import util.ClaseAvion;
+import util.ContextoSimulacion;
+import util.Escenario;
+import util.EspejoCola;
+import util.EstadisticasVuelo;
+import util.EventSink;
 import util.Gate;
+import util.IndiceRecursos;
+import util.LockProfiler;
+import util.Repeticion;
 import util.Runway;
-import util.Ventana;
+import util.Separacion;
+import util.TowerMetrics;
 
 /**
  * Torre de Control que implementa lógica CONCURRENTE.
@@ -17,17 +28,29 @@ import util.Ventana;
  * Gestiona el acceso a los recursos compartidos utilizando:
  * <ul>
  * <li><b>Semáforos:</b> Para limitar el acceso a las pistas.</li>
- * <li><b>Monitores:</b> Para la exclusión mutua en la asignación de
- * puertas.</li>
+ * <li><b>Reservas atómicas:</b> Cada pista y puerta se ocupa con una CAS
+ * ({@link Gate#tryClaim}) que anota el avión y el instante, sin cerrojo
+ * propio; un {@link IndiceRecursos} elige el recurso libre compatible más
+ * pequeño para la clase del avión.</li>
  * <li><b>Colas de Espera:</b> Para evitar la pérdida de peticiones y prevenir
  * interbloqueos.</li>
+ * <li><b>Espejo de la cola:</b> Los observadores (GUI, JMX) leen la cola de
+ * peticiones en un {@link EspejoCola} versionado, sin tomar su cerrojo.</li>
  * </ul>
  * </p>
+ * <p>
+ * Con {@link Separacion} cada pista guarda la estela del último avión: la
+ * torre da la pista libre con menor espera y el avión la ocupa durante el
+ * hueco antes de operar. Al reanudar aviones en espera se puede seguir el
+ * orden de llegada o elegir el que menos separación necesita.
+ * </p>
  */
 public class ControlTowerConcurrent {
 
     private final List<Runway> runways;
     private final List<Gate> gates;
+    private final IndiceRecursos<Runway> indicePistas;
+    private final IndiceRecursos<Gate> indicePuertas;
 
     // Semáforo para controlar el número de pistas libres
     private final Semaphore semRunways;
@@ -40,28 +63,131 @@ public class ControlTowerConcurrent {
     private final Queue<Request> requestQueue = new LinkedList<>();
     // Límite artificial para simular la excepción de saturación
     private static final int MAX_QUEUE_CAPACITY = 10;
+    // Copia de requestQueue para GUI y JMX, que se lee sin tomar queueLock
+    private final EspejoCola<Request> espejoCola = new EspejoCola<>(MAX_QUEUE_CAPACITY,
+            Request.Type.values().length, req -> req.type.ordinal());
 
     private final Object queueLock = new Object();
     private final Object logicLock = new Object();
-    private final Ventana ventana;
+
+    // Perfilado de contención de los monitores de esta torre y de sus aviones
+    // (sin coste si está desactivado)
+    private final LockProfiler.Estadisticas queueLockStats;
+    private final LockProfiler.Estadisticas logicLockStats;
+    private final LockProfiler.Estadisticas monitorAvionesStats;
+    private final EventSink ventana;
+    private final ContextoSimulacion contexto;
+
+    // Métricas en vivo expuestas por JMX
+    private final TowerMetrics metrics;
+
+    private final List<Thread> operarios = new ArrayList<>();
+
+    // Servicios de tierra de la escala en puerta (cuadrillas compartidas)
+    private volatile ServiciosTierra tierra;
+
+    // Separación por estela y orden de reanudación en las colas de espera
+    private volatile Separacion separacion = Separacion.NINGUNA;
+    private volatile Escenario.Secuenciacion secuenciacion = Escenario.Secuenciacion.FIFO;
+
+    // Grabación/reproducción del orden de proceso y decisión en curso
+    // (protegida por logicLock)
+    private final Repeticion repeticion;
+    private final StringBuilder decision = new StringBuilder();
+
+    /**
+     * Tiempo de gestión simulado por petición (ms) si no se indica otro. La
+     * torre secuencial usa el mismo, para que la comparación sea justa.
+     */
+    public static final long TIEMPO_GESTION_MS = 300;
+
+    // Tiempo de gestión simulado por petición (ms)
+    private volatile long tiempoGestionMs = TIEMPO_GESTION_MS;
+
+    /**
+     * Inicializa la torre concurrente con pistas y puertas que admiten
+     * cualquier avión.
+     *
+     * @param contexto Log, estadísticas y panel de esta simulación.
+     */
+    public ControlTowerConcurrent(int nRunways, int nGates, EventSink ventana, ContextoSimulacion contexto) {
+        this(capacidades(nRunways), capacidades(nGates), Escenario.Asignacion.MEJOR_AJUSTE, ventana, contexto);
+    }
 
     /**
      * Inicializa la torre concurrente.
+     *
+     * @param clasesPistas Capacidad de cada pista.
+     * @param clasesPuertas Capacidad de cada puerta.
+     * @param asignacion Política de asignación de pistas y puertas.
+     * @param contexto Log, estadísticas y panel de esta simulación.
      */
-    public ControlTowerConcurrent(int nRunways, int nGates, Ventana ventana) {
+    public ControlTowerConcurrent(ClaseAvion[] clasesPistas, ClaseAvion[] clasesPuertas,
+            Escenario.Asignacion asignacion, EventSink ventana, ContextoSimulacion contexto) {
         this.ventana = ventana;
+        this.contexto = contexto;
+        this.repeticion = contexto.getRepeticion();
         this.runways = new ArrayList<>();
         this.gates = new ArrayList<>();
 
-        for (int i = 1; i <= nRunways; i++) {
-            runways.add(new Runway("P" + i));
+        for (int i = 1; i <= clasesPistas.length; i++) {
+            runways.add(new Runway("P" + i, clasesPistas[i - 1]));
         }
-        for (int i = 1; i <= nGates; i++) {
-            gates.add(new Gate("G" + i));
+        for (int i = 1; i <= clasesPuertas.length; i++) {
+            gates.add(new Gate("G" + i, clasesPuertas[i - 1]));
         }
+        this.indicePistas = new IndiceRecursos<>(runways, asignacion);
+        this.indicePuertas = new IndiceRecursos<>(gates, asignacion);
+
+        // Semáforo con política FIFO: un permiso por pista libre
+        this.semRunways = new Semaphore(clasesPistas.length, true);
+
+        // Lectura sin cerrojo: el tamaño de las colas de espera es orientativo
+        this.metrics = new TowerMetrics("CONCURRENT", semRunways::availablePermits,
+                () -> waitingForLanding.size(), () -> waitingForTakeoff.size(), runways, gates);
+        metrics.configurarCola(espejoCola::getProfundidad, espejoCola::getComposicion);
+        metrics.registrar();
+        this.queueLockStats = LockProfiler.cerrojo("queueLock", metrics.getNombre());
+        this.logicLockStats = LockProfiler.cerrojo("logicLock", metrics.getNombre());
+        this.monitorAvionesStats = LockProfiler.cerrojo("Plane (monitor)", metrics.getNombre());
+        this.tierra = new ServiciosTierra(Escenario.Servicio.cuadrillasPorDefecto(), ventana, contexto.getEstadisticas());
+    }
+
+    /**
+     * Cambia el tiempo de gestión simulado de cada petición. Con 0 los
+     * operarios atienden la cola sin pausa (benchmarks).
+     *
+     * @param ms Milisegundos por petición.
+     */
+    public void setTiempoGestion(long ms) {
+        this.tiempoGestionMs = ms;
+    }
+
+    /**
+     * Fija las cuadrillas de tierra compartidas por todas las puertas. Debe
+     * llamarse antes de lanzar los aviones.
+     *
+     * @param cuadrillas Cuadrillas de cada servicio, en el orden de
+     * {@link Escenario.Servicio} (0 = sin límite).
+     */
+    public void configurarTierra(int[] cuadrillas) {
+        ServiciosTierra anterior = tierra;
+        tierra = new ServiciosTierra(cuadrillas, ventana, contexto.getEstadisticas());
+        anterior.apagar();
+    }
 
-        // Semáforo con política FIFO 
-        this.semRunways = new Semaphore(nRunways, true);
+    /**
+     * Fija la separación por estela entre operaciones de una misma pista y
+     * el orden en que se reanudan los aviones en espera. Debe llamarse antes
+     * de lanzar los aviones.
+     */
+    public void configurarPistas(Separacion separacion, Escenario.Secuenciacion secuenciacion) {
+        this.separacion = separacion;
+        this.secuenciacion = secuenciacion;
+    }
+
+    public ServiciosTierra getServiciosTierra() {
+        return tierra;
     }
 
     /**
@@ -70,31 +196,60 @@ public class ControlTowerConcurrent {
      * @param nOperators Número de operarios a lanzar.
      */
     public void startOperators(int nOperators) {
+        metrics.configurarOperarios(nOperators);
         for (int i = 0; i < nOperators; i++) {
             Thread op = new Thread(new Operator(i + 1), "OP-" + i);
             op.setDaemon(true); // Daemon para que mueran al acabar el main
             op.start();
+            operarios.add(op);
+        }
+    }
+
+    /**
+     * Detiene los operarios y retira las métricas de JMX. Debe llamarse
+     * cuando ya no quedan aviones en curso.
+     */
+    public void apagar() {
+        for (Thread op : operarios) {
+            op.interrupt();
+        }
+        for (Thread op : operarios) {
+            try {
+                op.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
         }
+        operarios.clear();
+        tierra.apagar();
+        metrics.resumirRechazos();
+        metrics.desregistrar();
     }
 
     /**
-     * Añade una petición a la cola (Método Productor). Controla la saturación
-     * de la cola lanzando excepción si está llena.
+     * Añade una petición a la cola (Método Productor). Si la cola está llena
+     * cuenta un rechazo {@link TowerMetrics.Rechazo#COLA} y reintenta tras
+     * una pausa.
      */
     public void addRequest(Request request) {
         boolean added = false;
         while (!added) {
-            try {
-                synchronized (queueLock) {
-                    if (requestQueue.size() >= MAX_QUEUE_CAPACITY) {
-                        throw new SaturationException(request.type.toString(), request.plane.getPlaneId());
-                    }
+            long t0 = queueLockStats.antes();
+            synchronized (queueLock) {
+                queueLockStats.adquirido(t0);
+                // Al reproducir no se satura: la petición que toca podría no caber
+                if (requestQueue.size() < MAX_QUEUE_CAPACITY || repeticion.reproduciendo()) {
                     requestQueue.add(request);
+                    espejoCola.anadir(request);
+                    metrics.peticionRecibida();
                     queueLock.notifyAll(); // Despierta a los operarios
                     added = true;
                 }
-            } catch (SaturationException e) {
-                System.err.println(e.getMessage());
+            }
+            if (!added) {
+                metrics.rechazo(TowerMetrics.Rechazo.COLA);
+                metrics.avisarRechazos();
                 // Pequeña espera para no saturar CPU en reintento 
                 try {
                     Thread.sleep(200);
@@ -122,20 +277,39 @@ public class ControlTowerConcurrent {
             try {
                 while (true) {
                     Request req;
-                    // Extracción segura de la cola
+                    int turno;
+                    // Extracción segura de la cola (al reproducir, la petición grabada)
+                    long t0 = queueLockStats.antes();
                     synchronized (queueLock) {
-                        while (requestQueue.isEmpty()) {
-                            queueLock.wait();
+                        queueLockStats.adquirido(t0);
+                        while ((req = repeticion.extraer(requestQueue, Request::clave)) == null) {
+                            queueLock.wait(repeticion.reproduciendo() ? 1000 : 0);
                         }
-                        req = requestQueue.poll();
+                        espejoCola.quitar(req);
+                        turno = repeticion.turnoExtraido();
                     }
+                    metrics.peticionExtraida();
+                    contexto.getEstadisticas().registrarFase(EstadisticasVuelo.Fase.COLA_OPERARIO,
+                            System.nanoTime() - req.creada);
+                    repeticion.esperarTurno(turno);
 
                     // Procesamiento exclusivo de lógica de recursos
+                    t0 = logicLockStats.antes();
                     synchronized (logicLock) {
+                        logicLockStats.adquirido(t0);
+                        decision.setLength(0);
                         processRequest(req);
+                        if (repeticion.activa()) {
+                            repeticion.registrar(req.clave(), decision.toString());
+                        }
                     }
+                    metrics.peticionProcesada(id - 1);
+                    // El resumen de rechazos se escribe ya fuera de logicLock
+                    metrics.avisarRechazos();
 
-                    Thread.sleep(300); // Simulación de tiempo de gestión
+                    if (tiempoGestionMs > 0) {
+                        Thread.sleep(tiempoGestionMs); // Simulación de tiempo de gestión
+                    }
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -150,19 +324,22 @@ public class ControlTowerConcurrent {
     private void processRequest(Request req) {
         switch (req.type) {
             case LANDING:
-                //Obtener Puerta y Pista .
-                Gate freeGate = getFreeGate();
-
-                //evita bloqueo si no hay pistas
-                if (freeGate != null && semRunways.tryAcquire()) {
-                    Runway r = getFreeRunwayObject();
-                    r.setAvailable(false);
-                    freeGate.setOccupied(true);
+                //Obtener Pista y Puerta a la vez (o ninguna): evita bloqueo
+                Runway pista = claimRunway(req.plane);
+                Gate freeGate = pista != null ? claimGate(req.plane) : null;
+
+                if (freeGate != null) {
+                    Runway r = pista;
+                    anotar("CONCEDIDA " + r.getId() + " " + freeGate.getId());
                     ventana.log("AUTORIZADO ATERRIZAJE: " + req.plane.getPlaneId());
-                    req.plane.assignResources(r, freeGate);
+                    req.plane.assignResources(r, freeGate, esperaEstela(r, req.plane));
                 } else {
-                    //excepción y  espera
-                    System.err.println(new ResourceException("pista/puerta", req.plane.getPlaneId()).getMessage());
+                    // Rechazo contado (sin excepción) y espera
+                    if (pista != null) {
+                        releaseRunway(pista, req.plane.getPlaneId());
+                    }
+                    metrics.rechazo(pista == null ? TowerMetrics.Rechazo.PISTA : TowerMetrics.Rechazo.PUERTA);
+                    anotar("ESPERA");
                     ventana.log("ESPERA ATERRIZAJE: " + req.plane.getPlaneId());
                     waitingForLanding.add(req);
                 }
@@ -170,42 +347,48 @@ public class ControlTowerConcurrent {
 
             case TAKEOFF:
                 // Solo necesita pista nueva
-                if (semRunways.tryAcquire()) {
-                    Runway r = getFreeRunwayObject();
-                    r.setAvailable(false);
+                Runway r = claimRunway(req.plane);
+                if (r != null) {
+                    anotar("CONCEDIDA " + r.getId());
                     ventana.log("AUTORIZADO DESPEGUE: " + req.plane.getPlaneId());
-                    req.plane.assignRunwayForTakeoff(r);
+                    req.plane.assignRunwayForTakeoff(r, esperaEstela(r, req.plane));
                 } else {
-                    System.err.println(new ResourceException("pista", req.plane.getPlaneId()).getMessage());
+                    metrics.rechazo(TowerMetrics.Rechazo.PISTA);
+                    anotar("ESPERA");
                     ventana.log("ESPERA DESPEGUE: " + req.plane.getPlaneId());
                     waitingForTakeoff.add(req);
                 }
                 break;
 
-            case LANDED:
+            case LANDED: {
                 // Libera pista, mantiene puerta
-                req.plane.getCurrentRunway().setAvailable(true);
-                semRunways.release();
+                Runway usada = req.plane.getCurrentRunway();
+                usada.dejarEstela(req.plane.getClase(), System.nanoTime());
+                releaseRunway(usada, req.plane.getPlaneId());
                 ventana.log("Pista liberada por " + req.plane.getPlaneId());
                 req.plane.proceed();
                 checkPendingRequests(); // Revisa si alguien puede entrar
                 break;
+            }
 
             case BOARDED:
                 // Libera puerta
-                req.plane.getCurrentGate().setOccupied(false);
+                indicePuertas.liberar(req.plane.getCurrentGate(), req.plane.getPlaneId());
                 ventana.log("Puerta liberada por " + req.plane.getPlaneId());
                 req.plane.proceed();
                 checkPendingRequests();
                 break;
 
-            case DEPARTED:
+            case DEPARTED: {
                 // Libera pista final
-                req.plane.getCurrentRunway().setAvailable(true);
-                semRunways.release();
+                Runway usada = req.plane.getCurrentRunway();
+                usada.dejarEstela(req.plane.getClase(), System.nanoTime());
+                releaseRunway(usada, req.plane.getPlaneId());
                 ventana.log(req.plane.getPlaneId() + " DEPARTED.");
+                contexto.getVuelos().completado();
                 checkPendingRequests();
                 break;
+            }
 
             default:
                 req.plane.proceed();
@@ -216,50 +399,164 @@ public class ControlTowerConcurrent {
 
     /**
      * Revisa las colas de espera para reactivar aviones pausados cuando se
-     * liberan recursos.
+     * liberan recursos. En cada cola se reanuda el primer avión, en orden de
+     * llegada, para el que haya recursos de su clase: un avión grande en
+     * cabeza no bloquea a los pequeños. Con secuenciación por separación se
+     * reanuda el que menos espera por estela (ver {@link #candidatos}).
      */
     private void checkPendingRequests() {
         // 1: Aterrizajes
-        if (!waitingForLanding.isEmpty()) {
-            Gate g = getFreeGate();
-            if (g != null && semRunways.tryAcquire()) {
-                Request pending = waitingForLanding.poll();
-                Runway r = getFreeRunwayObject();
-                r.setAvailable(false);
-                g.setOccupied(true);
-                ventana.log("RESUMING ATERRIZAJE: " + pending.plane.getPlaneId());
-                pending.plane.assignResources(r, g);
+        for (Request pending : candidatos(waitingForLanding, true)) {
+            Runway r = claimRunway(pending.plane);
+            if (r == null) {
+                continue;
             }
+            Gate g = claimGate(pending.plane);
+            if (g == null) {
+                releaseRunway(r, pending.plane.getPlaneId());
+                continue;
+            }
+            waitingForLanding.remove(pending);
+            anotar("REANUDA " + pending.clave() + " " + r.getId() + " " + g.getId());
+            ventana.log("RESUMING ATERRIZAJE: " + pending.plane.getPlaneId());
+            pending.plane.assignResources(r, g, esperaEstela(r, pending.plane));
+            break;
         }
 
         //2: Despegues
-        if (!waitingForTakeoff.isEmpty()) {
-            if (semRunways.tryAcquire()) {
-                Request pending = waitingForTakeoff.poll();
-                Runway r = getFreeRunwayObject();
-                r.setAvailable(false);
+        for (Request pending : candidatos(waitingForTakeoff, false)) {
+            Runway r = claimRunway(pending.plane);
+            if (r != null) {
+                waitingForTakeoff.remove(pending);
+                anotar("REANUDA " + pending.clave() + " " + r.getId());
                 ventana.log("RESUMING DESPEGUE: " + pending.plane.getPlaneId());
-                pending.plane.assignRunwayForTakeoff(r);
+                pending.plane.assignRunwayForTakeoff(r, esperaEstela(r, pending.plane));
+                break;
+            }
+        }
+    }
+
+    /**
+     * Peticiones de una cola de espera en el orden en que se intenta
+     * reanudarlas. En FIFO, la cola entera. Por separación, la que menos
+     * espera por estela necesita entre las {@link Separacion#VENTANA}
+     * primeras que caben; las que adelanta suman un adelanto y, si la primera
+     * que cabe ya lleva {@link Separacion#MAX_ADELANTOS}, pasa ella.
+     *
+     * @param conPuerta Si además de pista necesita puerta (aterrizajes).
+     */
+    private Collection<Request> candidatos(Queue<Request> cola, boolean conPuerta) {
+        if (secuenciacion == Escenario.Secuenciacion.FIFO || cola.isEmpty()) {
+            return cola;
+        }
+        long ahora = System.nanoTime();
+        Request mejor = null;
+        long menor = Long.MAX_VALUE;
+        int vistas = 0;
+        for (Request req : cola) {
+            ClaseAvion clase = req.plane.getClase();
+            Runway r = separacion.elegir(runways, clase, ahora);
+            if (r == null || (conPuerta && !indicePuertas.hayLibre(clase))) {
+                continue;
+            }
+            if (vistas == 0 && req.adelantos >= Separacion.MAX_ADELANTOS) {
+                return Collections.singletonList(req);
+            }
+            long espera = separacion.esperaNanos(r, clase, ahora);
+            if (espera < menor) {
+                mejor = req;
+                menor = espera;
+            }
+            if (++vistas == Separacion.VENTANA || espera == 0) {
+                break;
+            }
+        }
+        if (mejor == null) {
+            return Collections.emptyList();
+        }
+        for (Request req : cola) {
+            if (req == mejor) {
+                break;
             }
+            req.adelantos++;
+        }
+        return Collections.singletonList(mejor);
+    }
+
+    /**
+     * Espera por estela del avión en la pista que acaba de ocupar; se anota
+     * en {@link EstadisticasVuelo.Fase#SEPARACION}.
+     *
+     * @return Nanosegundos que el avión debe esperar antes de operar.
+     */
+    private long esperaEstela(Runway r, Plane plane) {
+        if (!separacion.activa()) {
+            return 0;
         }
+        long espera = separacion.esperaNanos(r, plane.getClase(), System.nanoTime());
+        contexto.getEstadisticas().registrarFase(EstadisticasVuelo.Fase.SEPARACION, espera);
+        return espera;
     }
 
-    private Gate getFreeGate() {
-        for (Gate g : gates) {
-            if (!g.isOccupied()) {
-                return g;
+    /**
+     * Añade un fragmento a la decisión de la petición en curso (solo si se
+     * graba o reproduce).
+     */
+    private void anotar(String texto) {
+        if (repeticion.activa()) {
+            if (decision.length() > 0) {
+                decision.append("; ");
             }
+            decision.append(texto);
         }
-        return null;
     }
 
-    private Runway getFreeRunwayObject() {
-        for (Runway r : runways) {
-            if (r.isAvailable()) {
-                return r;
+    /**
+     * Ocupa la pista libre compatible más pequeña o, con separación por
+     * estela, la de menor espera. Toma antes un permiso de
+     * {@code semRunways} (uno por pista libre) y lo devuelve si ninguna pista
+     * libre admite la clase del avión.
+     *
+     * @return Pista ocupada, o null.
+     */
+    private Runway claimRunway(Plane plane) {
+        if (!semRunways.tryAcquire()) {
+            return null;
+        }
+        Runway r;
+        if (separacion.activa()) {
+            long ahora = System.nanoTime();
+            r = separacion.elegir(runways, plane.getClase(), ahora);
+            if (r != null && !indicePistas.reservar(r, plane.getPlaneId(), ahora)) {
+                r = null;
             }
+        } else {
+            r = indicePistas.reservar(plane.getClase(), plane.getPlaneId());
+        }
+        if (r == null) {
+            semRunways.release();
         }
-        return null;
+        return r;
+    }
+
+    private Gate claimGate(Plane plane) {
+        return indicePuertas.reservar(plane.getClase(), plane.getPlaneId());
+    }
+
+    // Libera la pista y después su permiso; sin liberación no hay permiso que
+    // devolver (mantiene un permiso por pista libre)
+    private void releaseRunway(Runway r, String owner) {
+        if (indicePistas.liberar(r, owner)) {
+            semRunways.release();
+        } else {
+            System.err.println("Liberación ignorada: " + r + " no está ocupada por " + owner);
+        }
+    }
+
+    private static ClaseAvion[] capacidades(int n) {
+        ClaseAvion[] c = new ClaseAvion[n];
+        Arrays.fill(c, ClaseAvion.JUMBO);
+        return c;
     }
 
     public List<Runway> getRunways() {
@@ -270,10 +567,44 @@ public class ControlTowerConcurrent {
         return gates;
     }
 
+    public TowerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return Contención de los monitores de los aviones de esta torre
+     * (agregada para todos ellos).
+     */
+    public LockProfiler.Estadisticas getMonitorAvionesStats() {
+        return monitorAvionesStats;
+    }
+
+    public ContextoSimulacion getContexto() {
+        return contexto;
+    }
+
+    /**
+     * Copia coherente de la cola de peticiones, sin tomar {@code queueLock}:
+     * los observadores no frenan a productores ni operarios.
+     */
     public List<Request> getQueueSnapshot() {
-        synchronized (queueLock) {
-            return new ArrayList<>(requestQueue);
-        }
+        return espejoCola.instantanea();
+    }
+
+    /**
+     * @return Peticiones en cola por tipo, en el orden de
+     * {@link Request.Type} (O(1), sin copiar la cola).
+     */
+    public int[] getQueueComposition() {
+        return espejoCola.getComposicion();
+    }
+
+    /**
+     * @return Versión de la cola: si no ha cambiado desde la última consulta,
+     * la cola tampoco.
+     */
+    public long getQueueVersion() {
+        return espejoCola.getVersion();
     }
 
     /**
@@ -286,12 +617,24 @@ public class ControlTowerConcurrent {
         }
         public final Type type;
         public final Plane plane;
+        // Instante de creación para medir la espera en cola
+        public final long creada = System.nanoTime();
+        // Veces que otro avión le ha adelantado en su cola de espera (logicLock)
+        int adelantos = 0;
 
         public Request(Type type, Plane plane) {
             this.type = type;
             this.plane = plane;
         }
 
+        /**
+         * @return Clave de la petición en las grabaciones
+         * ({@code AVION TIPO}).
+         */
+        public String clave() {
+            return plane.getPlaneId() + " " + type;
+        }
+
         @Override
         public String toString() {
             return type + " [" + plane.getPlaneId() + "]";
@@ -1,11 +1,16 @@
 package model.concurrent;
 
-import model.Passenger;
-import util.EstadisticasVuelo;
+import java.util.concurrent.CompletionException;
+import model.Escala;
+import model.Manifiesto;
+import util.ClaseAvion;
+import util.EventSink;
 import util.Gate;
 import util.GestorJSON;
+import util.LockProfiler;
 import util.Runway;
-import util.Ventana;
+import util.TrazaVuelo;
+import util.TrazaVuelo.Hito;
 
 /**
  * Representa un avión que opera en modo CONCURRENTE.
@@ -17,10 +22,15 @@ import util.Ventana;
  */
 public class Plane extends Thread {
 
+    // Contención en el monitor del avión (agregada para los aviones de la torre)
+    private final LockProfiler.Estadisticas monitorStats;
+
     private final String id;
     private final ControlTowerConcurrent tower;
-    private final Ventana ventana;
-    private final Passenger passenger; // un pasajero por avión
+    private final EventSink ventana;
+    private final GestorJSON panel;
+    private final Escala escala; // servicios de tierra y pasaje del vuelo
+    private final ClaseAvion clase; // tamaño: decide las pistas y puertas compatibles
 
     // Recursos asignados por la torre
     private Runway currentRunway;
@@ -29,26 +39,93 @@ public class Plane extends Thread {
     // Monitor para esperar respuesta de la torre
     private boolean waiting = true;
 
+    // Espera por la estela del avión anterior en la pista asignada (ns)
+    private long esperaEstela = 0;
+
+    // Marcas temporales por fase para las estadísticas
+    private final TrazaVuelo traza = new TrazaVuelo();
+
+    // Duración simulada de aterrizaje y despegue (ms); la estancia en puerta
+    // es la ruta crítica de la escala
+    private final long msAterrizaje;
+    private final long msDespegue;
+
     /**
      * Constructor del avión concurrente.
      *
      * * @param id Identificador del avión (IBE-xxx).
      * @param tower Referencia a la torre de control concurrente.
-     * @param ventana Referencia a la GUI para logs.
+     * @param ventana Destino de los logs (GUI o modo sin interfaz).
      */
-    public Plane(String id, ControlTowerConcurrent tower, Ventana ventana) {
+    public Plane(String id, ControlTowerConcurrent tower, EventSink ventana) {
+        this(id, tower, ventana, 100, 300, 100);
+    }
+
+    /**
+     * Constructor con la duración de cada fase (escenarios).
+     *
+     * @param id Identificador del avión (IBE-xxx).
+     * @param tower Referencia a la torre de control concurrente.
+     * @param ventana Destino de los logs (GUI o modo sin interfaz).
+     * @param msAterrizaje Duración del aterrizaje en ms.
+     * @param msEmbarque Duración del embarque en ms.
+     * @param msDespegue Duración del despegue en ms.
+     */
+    public Plane(String id, ControlTowerConcurrent tower, EventSink ventana,
+            long msAterrizaje, long msEmbarque, long msDespegue) {
+        this(id, tower, ventana, msAterrizaje, Escala.soloEmbarque(
+                new Manifiesto(Manifiesto.PASAJEROS_POR_DEFECTO, msEmbarque, id.hashCode())), msDespegue);
+    }
+
+    /**
+     * Constructor con la escala del vuelo.
+     *
+     * @param id Identificador del avión (IBE-xxx).
+     * @param tower Referencia a la torre de control concurrente.
+     * @param ventana Destino de los logs (GUI o modo sin interfaz).
+     * @param msAterrizaje Duración del aterrizaje en ms.
+     * @param escala Servicios de tierra y pasajeros a embarcar.
+     * @param msDespegue Duración del despegue en ms.
+     */
+    public Plane(String id, ControlTowerConcurrent tower, EventSink ventana,
+            long msAterrizaje, Escala escala, long msDespegue) {
+        this(id, tower, ventana, msAterrizaje, escala, msDespegue, ClaseAvion.ESTRECHO);
+    }
+
+    /**
+     * Constructor con la escala y la clase del avión.
+     *
+     * @param id Identificador del avión (IBE-xxx).
+     * @param tower Referencia a la torre de control concurrente.
+     * @param ventana Destino de los logs (GUI o modo sin interfaz).
+     * @param msAterrizaje Duración del aterrizaje en ms.
+     * @param escala Servicios de tierra y pasajeros a embarcar.
+     * @param msDespegue Duración del despegue en ms.
+     * @param clase Tamaño del avión.
+     */
+    public Plane(String id, ControlTowerConcurrent tower, EventSink ventana,
+            long msAterrizaje, Escala escala, long msDespegue, ClaseAvion clase) {
         this.id = id;
+        this.clase = clase;
         this.tower = tower;
+        this.monitorStats = tower.getMonitorAvionesStats();
         this.ventana = ventana;
-        this.passenger = new Passenger("PAX-" + id);
+        this.panel = tower.getContexto().getPanel();
+        this.msAterrizaje = msAterrizaje;
+        this.msDespegue = msDespegue;
+        this.escala = escala;
         // Estado inicial en el panel
-        GestorJSON.actualizarEstado(id, "IN_FLIGHT");
+        panel.actualizarEstado(id, "IN_FLIGHT");
     }
 
     public String getPlaneId() {
         return id;
     }
 
+    public ClaseAvion getClase() {
+        return clase;
+    }
+
     public Runway getCurrentRunway() {
         return currentRunway;
     }
@@ -63,54 +140,69 @@ public class Plane extends Thread {
     @Override
     public void run() {
         try {
-            long startTime = System.currentTimeMillis();
-
             //SOLICITUD DE ATERRIZAJE
-            updatePhase("LANDING_REQUEST", "Solicitando pista y puerta...");
+            updatePhase("LANDING_REQUEST", "Solicitando pista y puerta (" + clase.getDescripcion() + ")...");
+            traza.marcar(Hito.SOLICITUD_ATERRIZAJE);
             tower.addRequest(new ControlTowerConcurrent.Request(ControlTowerConcurrent.Request.Type.LANDING, this));
             waitForTower(); // Bloqueo hasta asignación
+            traza.marcar(Hito.ATERRIZAJE_AUTORIZADO);
+            traza.recursosAterrizaje(currentRunway, currentGate);
 
             //ATERRIZANDO
+            separar();
             updatePhase("LANDING", "Aterrizando en " + currentRunway + "...");
-            Thread.sleep(100); // Simulación aterrizaje
+            Thread.sleep(msAterrizaje); // Simulación aterrizaje
 
             //ATERRIZADO 
             updatePhase("LANDED", "Aterrizado. Liberando pista y yendo a " + currentGate);
             tower.addRequest(new ControlTowerConcurrent.Request(ControlTowerConcurrent.Request.Type.LANDED, this));
             waitForTower();
+            traza.marcar(Hito.PISTA_LIBERADA);
 
-            //EMBARQUE
-            updatePhase("BOARDING", "En puerta " + currentGate + ". Subiendo " + passenger);
+            //ESCALA EN PUERTA
+            Manifiesto manifiesto = escala.getManifiesto();
+            updatePhase("BOARDING", "En puerta " + currentGate + ". Servicios de tierra y " + manifiesto);
             tower.addRequest(new ControlTowerConcurrent.Request(ControlTowerConcurrent.Request.Type.BOARDING, this));
             waitForTower();
 
-            Thread.sleep(300); // Simulación embarque
+            // Grafo de servicios y embarque: se espera a la ruta crítica
+            tower.getServiciosTierra().escala(id, escala).join();
+            traza.embarque(manifiesto.getPasajeros(), manifiesto.getEmbarcados(), manifiesto.getRechazados(),
+                    manifiesto.getNanosEmbarque());
 
             //FIN EMBARQUE 
-            updatePhase("BOARDED", "Embarque finalizado. Solicitando salida.");
+            updatePhase("BOARDED", "Embarque finalizado (" + manifiesto.getEmbarcados() + "/"
+                    + manifiesto.getPasajeros() + "). Solicitando salida.");
             tower.addRequest(new ControlTowerConcurrent.Request(ControlTowerConcurrent.Request.Type.BOARDED, this));
             waitForTower();
+            traza.marcar(Hito.PUERTA_LIBERADA);
 
             // SOLICITUD DE DESPEGUE 
             updatePhase("TAKEOFF_REQUESTED", "Solicitando pista para despegue...");
+            traza.marcar(Hito.SOLICITUD_DESPEGUE);
             tower.addRequest(new ControlTowerConcurrent.Request(ControlTowerConcurrent.Request.Type.TAKEOFF, this));
             waitForTower();
+            traza.marcar(Hito.DESPEGUE_AUTORIZADO);
+            traza.recursoDespegue(currentRunway);
 
             //DESPEGANDO
+            separar();
             updatePhase("DEPARTING", "Despegando por " + currentRunway + "...");
-            Thread.sleep(100); // Simulación despegue
+            Thread.sleep(msDespegue); // Simulación despegue
 
             //FINAL 
-            GestorJSON.actualizarEstado(id, "DEPARTED");
+            panel.actualizarEstado(id, "DEPARTED");
             ventana.logAvion(id + ": DEPARTED. Vuelo finalizado.");
+            traza.marcar(Hito.DESPEGADO);
+            // Estadísticas antes de DEPARTED: al procesarlo la torre da el
+            // vuelo por completado y la simulación puede cerrar el contexto
+            tower.getContexto().getEstadisticas().registrarVuelo(id, traza);
             tower.addRequest(new ControlTowerConcurrent.Request(ControlTowerConcurrent.Request.Type.DEPARTED, this));
 
-            //Estadísticas
-            long totalTime = System.currentTimeMillis() - startTime;
-            EstadisticasVuelo.registrarVuelo(id, totalTime);
-
         } catch (InterruptedException e) {
             ventana.logAvion(id + ": Interrumpido inesperadamente.");
+        } catch (CompletionException e) {
+            ventana.logAvion(id + ": Escala interrumpida (" + e.getCause() + ").");
         }
     }
 
@@ -118,51 +210,103 @@ public class Plane extends Thread {
      * Actualiza el estado en el JSON y escribe un log en la ventana.
      */
     private void updatePhase(String state, String msg) {
-        GestorJSON.actualizarEstado(id, state);
+        panel.actualizarEstado(id, state);
         ventana.logAvion(id + ": " + msg);
     }
 
-   
+    /**
+     * Espera en la pista asignada a que se disipe la estela del avión
+     * anterior.
+     */
+    private void separar() throws InterruptedException {
+        if (esperaEstela > 0) {
+            ventana.logAvion(id + ": Separación por estela en " + currentRunway + " ("
+                    + esperaEstela / 1_000_000 + " ms)");
+            Thread.sleep(esperaEstela / 1_000_000, (int) (esperaEstela % 1_000_000));
+        }
+    }
+
+    /**
+     * Asigna recursos de aterrizaje y despierta al avión.
+     *
+     * @param r Pista asignada.
+     * @param g Puerta asignada.
+     */
+    public void assignResources(Runway r, Gate g) {
+        assignResources(r, g, 0);
+    }
+
     /**
      * Asigna recursos de aterrizaje y despierta al avión.
      *
      * @param r Pista asignada.
      * @param g Puerta asignada.
+     * @param esperaEstela Espera por estela antes de aterrizar (ns).
+     */
+    public void assignResources(Runway r, Gate g, long esperaEstela) {
+        long t0 = monitorStats.antes();
+        synchronized (this) {
+            monitorStats.adquirido(t0);
+            this.currentRunway = r;
+            this.currentGate = g;
+            this.esperaEstela = esperaEstela;
+            this.waiting = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Asigna pista de despegue y despierta al avión.
+     *
+     * @param r Pista asignada.
      */
-    public synchronized void assignResources(Runway r, Gate g) {
-        this.currentRunway = r;
-        this.currentGate = g;
-        this.waiting = false;
-        notify();
+    public void assignRunwayForTakeoff(Runway r) {
+        assignRunwayForTakeoff(r, 0);
     }
 
     /**
      * Asigna pista de despegue y despierta al avión.
      *
      * @param r Pista asignada.
+     * @param esperaEstela Espera por estela antes de despegar (ns).
      */
-    public synchronized void assignRunwayForTakeoff(Runway r) {
-        this.currentRunway = r;
-        this.waiting = false;
-        notify();
+    public void assignRunwayForTakeoff(Runway r, long esperaEstela) {
+        long t0 = monitorStats.antes();
+        synchronized (this) {
+            monitorStats.adquirido(t0);
+            this.currentRunway = r;
+            this.esperaEstela = esperaEstela;
+            this.waiting = false;
+            notifyAll();
+        }
     }
 
     /**
      * Despierta al avión para que continúe a la siguiente fase.
      */
-    public synchronized void proceed() {
-        this.waiting = false;
-        notify();
+    public void proceed() {
+        long t0 = monitorStats.antes();
+        synchronized (this) {
+            monitorStats.adquirido(t0);
+            this.waiting = false;
+            notifyAll();
+        }
     }
 
     /**
      * Espera pasiva hasta ser notificado por la torre.
      */
-    private synchronized void waitForTower() throws InterruptedException {
-        while (waiting) {
-            wait();
+    private void waitForTower() throws InterruptedException {
+        long t0 = monitorStats.antes();
+        synchronized (this) {
+            monitorStats.adquirido(t0);
+            // El monitor es el propio Thread, compartido con join(): por eso
+            // los avisos usan notifyAll y la espera repite la comprobación
+            while (waiting) {
+                wait();
+            }
+            waiting = true; // Reset para la próxima espera
         }
-        waiting = true; // Reset para la próxima espera
     }
 
     @Override
@@ -0,0 +1,112 @@
+package model.concurrent;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.EmbarqueParalelo;
+import model.Escala;
+import model.TareaEscala;
+import util.Escenario.Servicio;
+import util.EstadisticasVuelo;
+import util.EventSink;
+
+/**
+ * Servicios de tierra de la escala en puerta, en modo CONCURRENTE.
+ * <p>
+ * Cada escala es un grafo de {@link CompletableFuture} con la forma de
+ * {@link TareaEscala}: una tarea arranca en el ejecutor en cuanto terminan
+ * sus previas, así que limpieza, catering y repostaje se solapan y el avión
+ * solo espera a la ruta crítica. Las cuadrillas son semáforos justos
+ * compartidos por todas las puertas; el tiempo que una tarea espera cuadrilla
+ * se registra en {@link EstadisticasVuelo.Fase#ESPERA_CUADRILLA}.
+ * </p>
+ */
+public class ServiciosTierra {
+
+    private final EventSink ventana;
+    private final EstadisticasVuelo estadisticas;
+
+    // Una cuadrilla por permiso; null = sin límite
+    private final Semaphore[] cuadrillas = new Semaphore[Servicio.values().length];
+
+    private final AtomicInteger hilos = new AtomicInteger();
+    private final ExecutorService ejecutor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "TIERRA-" + hilos.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param cuadrillas Cuadrillas de cada servicio, en el orden de
+     * {@link Servicio} (0 = sin límite).
+     */
+    public ServiciosTierra(int[] cuadrillas, EventSink ventana, EstadisticasVuelo estadisticas) {
+        this.ventana = ventana;
+        this.estadisticas = estadisticas;
+        for (Servicio s : Servicio.values()) {
+            int c = s.ordinal() < cuadrillas.length ? cuadrillas[s.ordinal()] : 0;
+            this.cuadrillas[s.ordinal()] = c > 0 ? new Semaphore(c, true) : null;
+        }
+    }
+
+    /**
+     * Lanza la escala de un avión.
+     *
+     * @param avion Identificador del avión (para el log).
+     * @param escala Duración de los servicios y pasaje.
+     * @return Futuro que se completa al terminar la ruta crítica.
+     */
+    public CompletableFuture<Void> escala(String avion, Escala escala) {
+        Map<TareaEscala, CompletableFuture<Void>> tareas = new EnumMap<>(TareaEscala.class);
+        // El orden de declaración es topológico: las previas ya están creadas
+        for (TareaEscala t : TareaEscala.values()) {
+            CompletableFuture<?>[] previas = new CompletableFuture<?>[t.getPrevias().size()];
+            for (int i = 0; i < previas.length; i++) {
+                previas[i] = tareas.get(t.getPrevias().get(i));
+            }
+            CompletableFuture<Void> listas = previas.length == 0
+                    ? CompletableFuture.completedFuture(null) : CompletableFuture.allOf(previas);
+            tareas.put(t, listas.thenRunAsync(() -> ejecutar(avion, t, escala), ejecutor));
+        }
+        return CompletableFuture.allOf(tareas.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    private void ejecutar(String avion, TareaEscala t, Escala escala) {
+        if (t.getServicio() == null) {
+            EmbarqueParalelo.embarcar(escala.getManifiesto());
+            return;
+        }
+        Semaphore cuadrilla = cuadrillas[t.getServicio().ordinal()];
+        long pedida = System.nanoTime();
+        try {
+            if (cuadrilla != null) {
+                cuadrilla.acquire();
+            }
+            try {
+                estadisticas.registrarFase(EstadisticasVuelo.Fase.ESPERA_CUADRILLA, System.nanoTime() - pedida);
+                long ms = escala.getMs(t);
+                ventana.logAvion(avion + ": " + t + " (" + ms + " ms)");
+                Thread.sleep(ms); // Simulación del servicio
+            } finally {
+                if (cuadrilla != null) {
+                    cuadrilla.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Interrumpe los servicios en curso y detiene el ejecutor.
+     */
+    public void apagar() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,269 @@
+package model.sequential;
+
+import exceptions.AeronConfigException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import util.Escenario;
+
+/**
+ * Checkpoint de una simulación SECUENCIAL: escenario, instante del reloj
+ * simulado y estado completo del bucle de eventos de
+ * {@link ControlTowerSequential} (agenda, colas de peticiones y de espera,
+ * aviones en curso con su traza y su escala, reservas y estela de pistas y
+ * puertas, cuadrillas, panel, contadores e histogramas).
+ * <p>
+ * La torre copia el estado en memoria entre dos eventos, así que el bucle
+ * solo se detiene lo que cuesta serializarlo; comprimir y escribir el fichero
+ * lo hace un hilo aparte ({@link Escritor}). El fichero se escribe con otro
+ * nombre y se renombra al terminar, de modo que una caída durante la
+ * escritura conserva el checkpoint anterior.
+ * </p>
+ * <p>
+ * Los aviones no se guardan enteros: se guarda el índice de su llegada y, al
+ * reanudar, se recorre el calendario del escenario (determinista por la
+ * semilla) hasta la siguiente llegada pendiente para volver a crearlos.
+ * </p>
+ */
+public final class Checkpoint {
+
+    private static final int MAGIC = 0x4143484B; // "ACHK"
+    private static final int VERSION = 1;
+
+    private final Escenario escenario;
+    private final long instanteNanos;
+    private final byte[] estado;
+
+    Checkpoint(Escenario escenario, long instanteNanos, byte[] estado) {
+        this.escenario = escenario;
+        this.instanteNanos = instanteNanos;
+        this.estado = estado;
+    }
+
+    /**
+     * Carga un checkpoint para reanudar la simulación.
+     *
+     * @param fichero Fichero escrito durante una ejecución con checkpoints.
+     * @throws AeronConfigException Si el fichero no existe o no es un
+     * checkpoint válido.
+     */
+    public static Checkpoint cargar(File fichero) throws AeronConfigException {
+        Properties p = new Properties();
+        long instante;
+        byte[] estado;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(fichero))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new AeronConfigException("'" + fichero + "' no es un checkpoint de AERON.");
+            }
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                p.setProperty(in.readUTF(), in.readUTF());
+            }
+            instante = in.readLong();
+            estado = new byte[in.readInt()];
+            in.readFully(estado);
+        } catch (IOException e) {
+            throw new AeronConfigException("No se puede leer el checkpoint '" + fichero + "': " + e.getMessage());
+        }
+        Escenario escenario = Escenario.desde(p, Escenario.porDefecto("SEQUENTIAL", 0, 0, 0, 0));
+        return new Checkpoint(escenario, instante, estado);
+    }
+
+    /**
+     * Escribe el checkpoint en un fichero temporal y lo renombra sobre el
+     * indicado.
+     */
+    void guardar(File fichero) throws IOException {
+        File temporal = new File(fichero.getPath() + ".tmp");
+        Properties p = escenario.aProperties();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(temporal))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            TreeSet<String> claves = new TreeSet<>(p.stringPropertyNames());
+            out.writeInt(claves.size());
+            for (String k : claves) {
+                out.writeUTF(k);
+                out.writeUTF(p.getProperty(k));
+            }
+            out.writeLong(instanteNanos);
+            out.writeInt(estado.length);
+            out.write(estado);
+        }
+        try {
+            Files.move(temporal.toPath(), fichero.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal.toPath(), fichero.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return Escenario de la ejecución (semilla incluida).
+     */
+    public Escenario getEscenario() {
+        return escenario;
+    }
+
+    /**
+     * @return Instante del reloj simulado (ns desde el inicio) en que se tomó.
+     */
+    public long getInstanteNanos() {
+        return instanteNanos;
+    }
+
+    DataInputStream abrirEstado() {
+        return new DataInputStream(new ByteArrayInputStream(estado));
+    }
+
+    /**
+     * Estado que se puede volcar a un checkpoint.
+     */
+    interface Volcado {
+
+        void guardarEstado(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Toma checkpoints periódicos del bucle de eventos. La copia del estado
+     * se hace en el hilo del bucle; la escritura, en un hilo propio. Si la
+     * escritura anterior no ha terminado, el checkpoint se aplaza al
+     * siguiente evento.
+     */
+    static final class Escritor {
+
+        private final File fichero;
+        private final Escenario escenario;
+        private final long intervaloNanos;
+        private final ExecutorService hilo = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "CHECKPOINT");
+            t.setDaemon(true);
+            return t;
+        });
+
+        private long proximo;
+        private Future<?> escritura;
+        // Tamaño del último estado, para reservar el buffer del siguiente
+        private int ultimoTamano = 1 << 16;
+
+        private int escritos = 0;
+        private long pausaTotal = 0;
+        private long pausaMaxima = 0;
+
+        /**
+         * @param fichero Fichero del checkpoint (se sobrescribe cada vez).
+         * @param intervaloMs Tiempo simulado entre checkpoints.
+         * @param escenario Escenario que se guarda con el estado.
+         */
+        Escritor(File fichero, long intervaloMs, Escenario escenario) {
+            this.fichero = fichero;
+            this.escenario = escenario;
+            this.intervaloNanos = intervaloMs * 1_000_000L;
+        }
+
+        /**
+         * Fija el primer checkpoint un intervalo después del instante
+         * indicado.
+         */
+        void iniciar(long ahora) {
+            proximo = ahora + intervaloNanos;
+        }
+
+        /**
+         * Si toca, copia el estado y encarga su escritura.
+         *
+         * @param ahora Instante del reloj simulado.
+         */
+        void comprobar(long ahora, Volcado estado) {
+            if (ahora < proximo || (escritura != null && !escritura.isDone())) {
+                return;
+            }
+            long t0 = System.nanoTime();
+            Buffer buffer = new Buffer(ultimoTamano);
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                estado.guardarEstado(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Checkpoint c = new Checkpoint(escenario, ahora, buffer.toByteArray());
+            long pausa = System.nanoTime() - t0;
+            ultimoTamano = c.estado.length;
+            escritos++;
+            pausaTotal += pausa;
+            pausaMaxima = Math.max(pausaMaxima, pausa);
+            proximo = ahora + intervaloNanos;
+            escritura = hilo.submit(() -> {
+                try {
+                    c.guardar(fichero);
+                } catch (IOException e) {
+                    System.err.println("No se ha podido escribir el checkpoint " + fichero + ": " + e.getMessage());
+                }
+            });
+        }
+
+        /**
+         * Espera a que termine la última escritura y muestra el resumen.
+         */
+        void cerrar() {
+            hilo.shutdown();
+            try {
+                hilo.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (escritos > 0) {
+                System.out.printf("--> Checkpoints: %d en %s (%d KB sin comprimir) | pausa media %.3f ms, máx %.3f ms%n",
+                        escritos, fichero, ultimoTamano / 1024, pausaTotal / 1e6 / escritos, pausaMaxima / 1e6);
+            }
+        }
+    }
+
+    /**
+     * {@link ByteArrayOutputStream} sin sincronizar: solo lo usa el hilo del
+     * bucle, y cada campo del estado es una escritura.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer(int tamano) {
+            super(tamano);
+        }
+
+        @Override
+        public void write(int b) {
+            if (count == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (count + len > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + len));
+            }
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+    }
+}
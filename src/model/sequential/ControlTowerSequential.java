@@ -1,118 +1,945 @@
 package model.sequential;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.Set;
+import java.util.function.Function;
+import model.Manifiesto;
+import model.TareaEscala;
+import model.concurrent.ControlTowerConcurrent;
+import util.ClaseAvion;
+import util.ContextoSimulacion;
+import util.Escenario;
+import util.Escenario.Servicio;
 import util.EstadisticasVuelo;
+import util.EventSink;
 import util.Gate;
-import util.GestorJSON;
+import util.GeneradorLlegadas.Llegada;
+import util.IndiceRecursos;
+import util.Repeticion;
 import util.Runway;
-import util.Ventana;
+import util.Separacion;
+import util.TowerMetrics;
+import util.TrazaVuelo.Hito;
 
 /**
  * Torre de Control que implementa lógica SECUENCIAL.
  * <p>
- * Procesa las peticiones una a una en un único hilo (Single Threaded Executor
- * pattern). No utiliza semáforos, sino una lógica FIFO estricta.
+ * Es la referencia monohilo del modo concurrente: un bucle de eventos que se
+ * ejecuta en el hilo que llama a {@link #ejecutar}, sin hilo de torre ni
+ * hilos de avión. La agenda ordena por instante programado las llegadas, los
+ * fines de fase de cada avión y los fines de gestión de la torre; el bucle
+ * duerme hasta el siguiente evento y lo atiende.
+ * </p>
+ * <p>
+ * La torre atiende las peticiones de una en una y en orden FIFO, con el mismo
+ * tiempo de gestión por petición que cada operario concurrente, y asigna
+ * pistas y puertas reales, compatibles con la clase del avión y elegidas con
+ * un {@link IndiceRecursos}: si no hay recursos el avión espera en su cola,
+ * como en {@link ControlTowerConcurrent}, y respeta la misma {@link Separacion}
+ * por estela y secuenciación de las colas de espera. Así el modo secuencial equivale a
+ * una torre concurrente con un único operario y sirve de base para medir la
+ * aceleración y la eficiencia de los operarios.
+ * </p>
+ * <p>
+ * La escala en puerta recorre el grafo de {@link TareaEscala} con eventos de
+ * la agenda: cada servicio de tierra espera a sus previas y a una cuadrilla
+ * libre (colas FIFO por servicio, compartidas por todas las puertas) y el fin
+ * del embarque se pide al terminar la ruta crítica. El embarque (procesar el
+ * {@link Manifiesto}) se hace en el propio bucle, así que mientras dura no se
+ * atienden peticiones ni otros embarques.
+ * </p>
+ * <p>
+ * Los instantes de las trazas son los programados, no los medidos, por lo
+ * que con la misma semilla la ejecución es determinista; al reproducir una
+ * grabación basta con comparar las decisiones.
+ * </p>
+ * <p>
+ * La agenda guarda sucesos (no acciones), de modo que todo el estado del
+ * bucle se puede volcar entre dos eventos a un {@link Checkpoint} y
+ * reanudar desde él con {@link #reanudar}.
  * </p>
  */
 public class ControlTowerSequential {
 
+    private static final long NANOS_POR_MS = 1_000_000L;
+
     private final List<Runway> runways = new ArrayList<>();
     private final List<Gate> gates = new ArrayList<>();
-    private final Queue<Request> requestQueue = new LinkedList<>();
-    private final Ventana ventana;
+    private final IndiceRecursos<Runway> indicePistas;
+    private final IndiceRecursos<Gate> indicePuertas;
+    private final Queue<Request> requestQueue = new ArrayDeque<>();
+    private final Queue<Request> waitingForLanding = new ArrayDeque<>();
+    private final Queue<Request> waitingForTakeoff = new ArrayDeque<>();
+    private final PriorityQueue<Evento> agenda = new PriorityQueue<>();
+    private final EventSink ventana;
+    private final ContextoSimulacion contexto;
+    private final TowerMetrics metrics;
+    private final Repeticion repeticion;
+    private final StringBuilder decision = new StringBuilder();
+
+    // Tiempo de gestión simulado por petición (ms)
+    private long tiempoGestionMs = ControlTowerConcurrent.TIEMPO_GESTION_MS;
+
+    // Reloj del bucle: origen (nanoTime) e instante del evento en curso (ns desde el origen)
+    private long origen;
+    private long ahora;
+    private long eventos = 0;
+    private boolean ocupada = false;
+    // El bucle está embarcando hasta este instante (ns desde el origen)
+    private long cpuHasta = 0;
+
+    // Cuadrillas libres de cada servicio y tareas que esperan una
+    private final int[] cuadrillasLibres = new int[Servicio.values().length];
+    private final List<Queue<EsperaCuadrilla>> esperaCuadrilla = new ArrayList<>();
+
+    // Calendario pendiente y aviones lanzados que aún no han salido, por índice de llegada
+    private Iterator<Llegada> llegadas;
+    private Function<Llegada, PlaneSequential> crear;
+    private final Map<Integer, PlaneSequential> enCurso = new LinkedHashMap<>();
+
+    // Checkpoints periódicos (null = sin checkpoints)
+    private Checkpoint.Escritor checkpoint;
+
+    // Separación por estela y orden de reanudación en las colas de espera
+    private Separacion separacion = Separacion.NINGUNA;
+    private Escenario.Secuenciacion secuenciacion = Escenario.Secuenciacion.FIFO;
+
+    public ControlTowerSequential(int nRunways, int nGates, EventSink ventana, ContextoSimulacion contexto) {
+        this(capacidades(nRunways), capacidades(nGates), Escenario.Asignacion.MEJOR_AJUSTE, ventana, contexto);
+    }
 
-    public ControlTowerSequential(int nRunways, int nGates, Ventana ventana) {
+    /**
+     * @param clasesPistas Capacidad de cada pista.
+     * @param clasesPuertas Capacidad de cada puerta.
+     * @param asignacion Política de asignación de pistas y puertas.
+     */
+    public ControlTowerSequential(ClaseAvion[] clasesPistas, ClaseAvion[] clasesPuertas,
+            Escenario.Asignacion asignacion, EventSink ventana, ContextoSimulacion contexto) {
         this.ventana = ventana;
-        for (int i = 1; i <= nRunways; i++) {
-            runways.add(new Runway("P" + i));
+        this.contexto = contexto;
+        this.repeticion = contexto.getRepeticion();
+        for (int i = 1; i <= clasesPistas.length; i++) {
+            runways.add(new Runway("P" + i, clasesPistas[i - 1]));
+        }
+        for (int i = 1; i <= clasesPuertas.length; i++) {
+            gates.add(new Gate("G" + i, clasesPuertas[i - 1]));
+        }
+        this.indicePistas = new IndiceRecursos<>(runways, asignacion);
+        this.indicePuertas = new IndiceRecursos<>(gates, asignacion);
+
+        // Un único "operario": el propio bucle de eventos
+        this.metrics = new TowerMetrics("SEQUENTIAL", this::freeRunways,
+                () -> waitingForLanding.size(), () -> waitingForTakeoff.size(), runways, gates);
+        metrics.configurarOperarios(1);
+        metrics.registrar();
+
+        for (Servicio sv : Servicio.values()) {
+            esperaCuadrilla.add(new ArrayDeque<>());
+        }
+        configurarTierra(Servicio.cuadrillasPorDefecto());
+    }
+
+    /**
+     * Fija las cuadrillas de tierra compartidas por todas las puertas. Debe
+     * llamarse antes de {@link #ejecutar}.
+     *
+     * @param cuadrillas Cuadrillas de cada servicio, en el orden de
+     * {@link Servicio} (0 = sin límite).
+     */
+    public void configurarTierra(int[] cuadrillas) {
+        for (Servicio sv : Servicio.values()) {
+            int c = sv.ordinal() < cuadrillas.length ? cuadrillas[sv.ordinal()] : 0;
+            cuadrillasLibres[sv.ordinal()] = c > 0 ? c : Integer.MAX_VALUE;
         }
-        for (int i = 1; i <= nGates; i++) {
-            gates.add(new Gate("G" + i));
+    }
+
+    /**
+     * Fija la separación por estela entre operaciones de una misma pista y
+     * el orden en que se reanudan los aviones en espera. Debe llamarse antes
+     * de {@link #ejecutar}.
+     */
+    public void configurarPistas(Separacion separacion, Escenario.Secuenciacion secuenciacion) {
+        this.separacion = separacion;
+        this.secuenciacion = secuenciacion;
+    }
+
+    /**
+     * Vuelca el estado del bucle a un {@link Checkpoint} cada cierto tiempo
+     * simulado. Debe llamarse antes de {@link #ejecutar} o
+     * {@link #reanudar}.
+     *
+     * @param fichero Fichero del checkpoint (se sobrescribe cada vez).
+     * @param intervaloMs Tiempo simulado entre checkpoints.
+     * @param escenario Escenario de la ejecución, que se guarda con el
+     * estado.
+     */
+    public void configurarCheckpoint(File fichero, long intervaloMs, Escenario escenario) {
+        this.checkpoint = new Checkpoint.Escritor(fichero, intervaloMs, escenario);
+    }
+
+    /**
+     * Cambia el tiempo de gestión simulado de cada petición. Con 0 la torre
+     * atiende la cola sin pausa.
+     *
+     * @param ms Milisegundos por petición.
+     */
+    public void setTiempoGestion(long ms) {
+        this.tiempoGestionMs = ms;
+    }
+
+    /**
+     * Ejecuta el bucle de eventos hasta que despega el último avión. Anota
+     * cada llegada y cada salida en los vuelos en curso del contexto y cierra
+     * las llegadas al agotar el calendario.
+     *
+     * @param llegadas Calendario de llegadas, ordenado por instante.
+     * @param crear Construye el avión de una llegada.
+     * @throws InterruptedException Si se interrumpe la espera entre eventos.
+     */
+    public void ejecutar(Iterator<Llegada> llegadas, Function<Llegada, PlaneSequential> crear)
+            throws InterruptedException {
+        this.llegadas = llegadas;
+        this.crear = crear;
+        origen = System.nanoTime();
+        ahora = 0;
+        programarLlegada();
+        bucle();
+    }
+
+    /**
+     * Reanuda el bucle de eventos desde un checkpoint y lo ejecuta hasta que
+     * despega el último avión. El reloj continúa en el instante del
+     * checkpoint.
+     *
+     * @param checkpoint Estado guardado por una ejecución del mismo
+     * escenario.
+     * @param llegadas Calendario completo del escenario, desde el inicio.
+     * @param crear Construye el avión de una llegada.
+     * @throws InterruptedException Si se interrumpe la espera entre eventos.
+     * @throws UncheckedIOException Si el estado no corresponde al escenario.
+     */
+    public void reanudar(Checkpoint checkpoint, Iterator<Llegada> llegadas,
+            Function<Llegada, PlaneSequential> crear) throws InterruptedException {
+        this.llegadas = llegadas;
+        this.crear = crear;
+        origen = System.nanoTime() - checkpoint.getInstanteNanos();
+        try (DataInputStream in = checkpoint.abrirEstado()) {
+            restaurarEstado(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Checkpoint no válido: " + e.getMessage(), e);
+        }
+        ventana.updateResources();
+        bucle();
+    }
+
+    private void bucle() throws InterruptedException {
+        if (checkpoint != null) {
+            checkpoint.iniciar(ahora);
+        }
+        while (!agenda.isEmpty()) {
+            Evento e = agenda.poll();
+            ahora = e.instante;
+            long espera = origen + ahora - System.nanoTime();
+            if (espera > 0) {
+                Thread.sleep(espera / NANOS_POR_MS, (int) (espera % NANOS_POR_MS));
+            } else if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            despachar(e);
+            if (checkpoint != null) {
+                checkpoint.comprobar(ahora, this::guardarEstado);
+            }
+        }
+    }
+
+    private void despachar(Evento e) {
+        switch (e.suceso) {
+            case LLEGADA:
+                llegar(e.llegada);
+                break;
+            case ATENDER:
+                atender();
+                break;
+            case EMBARQUE:
+                embarqueEnBucle(e.avion, e.tarea);
+                break;
+            case FIN_SERVICIO:
+                liberarCuadrilla(e.tarea.getServicio().ordinal());
+                terminarTarea(e.avion, e.tarea);
+                break;
+            case FIN_EMBARQUE:
+                terminarTarea(e.avion, e.tarea);
+                break;
+            case ATERRIZADO:
+                solicitar(RequestType.LANDED, e.avion);
+                break;
+            case DESPEGADO:
+                e.avion.getTraza().marcar(Hito.DESPEGADO, reloj());
+                solicitar(RequestType.DEPARTED, e.avion);
+                break;
         }
+    }
 
-        //Monohilo
-        new Thread(this::processLoop, "Torre-Secuencial").start();
+    /**
+     * Escribe el último resumen de rechazos, espera al último checkpoint y
+     * retira las métricas de JMX. Debe llamarse cuando ha terminado
+     * {@link #ejecutar}.
+     */
+    public void apagar() {
+        metrics.resumirRechazos();
+        if (checkpoint != null) {
+            checkpoint.cerrar();
+        }
+        metrics.desregistrar();
     }
 
     /**
-     * Añade petición y actualiza el panel JSON inmediatamente.
+     * Añade petición y actualiza el panel JSON inmediatamente. Si la torre
+     * está libre, la atiende en el acto.
      */
-    public synchronized void addRequest(Request req) {
+    public void addRequest(Request req) {
         // Actualización JSON
-        GestorJSON.actualizarEstado(req.plane.getPlaneId(), req.type.toString());
+        contexto.getPanel().actualizarEstado(req.plane.getPlaneId(), req.type.toString());
         requestQueue.add(req);
-        notifyAll();
+        metrics.peticionRecibida();
+        if (!ocupada) {
+            atender();
+        }
     }
 
     /**
-     * Bucle de procesamiento infinito.
+     * Programa la siguiente llegada del calendario; cuando se agota, cierra
+     * las llegadas.
      */
-    private void processLoop() {
-        while (true) {
-            Request req = null;
-            // Extraer
-            synchronized (this) {
-                while (requestQueue.isEmpty()) {
-                    try {
-                        wait();
-                    } catch (InterruptedException e) {
-                    }
-                }
-                req = requestQueue.poll();
-            }
+    private void programarLlegada() {
+        if (!llegadas.hasNext()) {
+            contexto.getVuelos().cerrarLlegadas();
+            return;
+        }
+        Llegada ll = llegadas.next();
+        agenda.add(new Evento(Math.max(ahora, ll.instanteNanos), eventos++, Suceso.LLEGADA, null, null, ll));
+    }
 
-            //Procesar 
-            try {
-                Thread.sleep(50);
-            } catch (Exception e) {
-            }
+    private void llegar(Llegada ll) {
+        PlaneSequential avion = crear.apply(ll);
+        avion.llegada = ll.indice;
+        enCurso.put(ll.indice, avion);
+        contexto.getVuelos().lanzado();
+        ventana.logAvion(avion.getPlaneId() + ": LANDING_REQUEST (" + avion.getClase().getDescripcion() + ")");
+        avion.getTraza().marcar(Hito.SOLICITUD_ATERRIZAJE, reloj());
+        solicitar(RequestType.LANDING, avion);
+        programarLlegada();
+    }
+
+    /**
+     * Extrae la siguiente petición, la procesa y deja la torre ocupada
+     * durante el tiempo de gestión. Sin peticiones, la torre queda libre. Si
+     * el bucle está embarcando, la torre espera a que termine.
+     */
+    private void atender() {
+        if (ahora < cpuHasta) {
+            ocupada = true;
+            programar(cpuHasta, Suceso.ATENDER, null, null);
+            return;
+        }
+        Request req = requestQueue.poll();
+        if (req == null) {
+            ocupada = false;
+            return;
+        }
+        ocupada = true;
+        metrics.peticionExtraida();
+        contexto.getEstadisticas().registrarFase(EstadisticasVuelo.Fase.COLA_OPERARIO, ahora - req.creada);
 
-            process(req);
+        decision.setLength(0);
+        process(req);
+        if (repeticion.activa()) {
+            repeticion.registrar(req.clave(), decision.toString());
         }
+        metrics.peticionProcesada(0);
+        metrics.avisarRechazos();
+
+        programar(ahora + tiempoGestionMs * NANOS_POR_MS, Suceso.ATENDER, null, null);
     }
 
     /**
-     * Lógica secuencial. 
+     * Lógica secuencial: asigna o libera recursos y programa la siguiente
+     * fase del avión.
      */
     private void process(Request req) {
-        ventana.log("Secuencial: Procesando " + req.type + " de " + req.plane.getPlaneId());
+        PlaneSequential avion = req.plane;
+        ventana.log("Secuencial: Procesando " + req.type + " de " + avion.getPlaneId());
 
         switch (req.type) {
-            case LANDING:
-                // Asignamos siempre los primeros recursos disponibles 
-                // (asumimos disponibilidad al ser 1 a 1 en este modo simplificado)
-                req.plane.assignResources(runways.get(0), gates.get(0));
+            case LANDING: {
+                if (claimLanding(avion)) {
+                    Runway r = avion.getCurrentRunway();
+                    Gate g = avion.getCurrentGate();
+                    anotar("CONCEDIDA " + r.getId() + " " + g.getId());
+                    ventana.log("AUTORIZADO ATERRIZAJE: " + avion.getPlaneId());
+                    concederAterrizaje(avion, r, g);
+                } else {
+                    metrics.rechazo(indicePistas.hayLibre(avion.getClase())
+                            ? TowerMetrics.Rechazo.PUERTA : TowerMetrics.Rechazo.PISTA);
+                    anotar("ESPERA");
+                    ventana.log("ESPERA ATERRIZAJE: " + avion.getPlaneId());
+                    waitingForLanding.add(req);
+                }
                 break;
+            }
 
             case LANDED:
-                // Liberar lógica (simbólico en secuencial)
-                req.plane.proceed();
+                // Libera pista, mantiene puerta; el avión pide embarcar
+                avion.getCurrentRunway().dejarEstela(avion.getClase(), reloj());
+                indicePistas.liberar(avion.getCurrentRunway(), avion.getPlaneId(), reloj());
+                ventana.log("Pista liberada por " + avion.getPlaneId());
+                avion.getTraza().marcar(Hito.PISTA_LIBERADA, reloj());
+                solicitar(RequestType.BOARDING, avion);
+                checkPendingRequests();
                 break;
 
             case BOARDING:
-                req.plane.proceed();
+                // Escala en puerta; el avión pide BOARDED al acabar la ruta crítica
+                ventana.logAvion(avion.getPlaneId() + ": Servicios de tierra y " + avion.getManifiesto());
+                iniciarEscala(avion);
                 break;
 
             case BOARDED:
-                req.plane.proceed();
+                // Libera puerta; el avión pide despegar
+                indicePuertas.liberar(avion.getCurrentGate(), avion.getPlaneId(), reloj());
+                ventana.log("Puerta liberada por " + avion.getPlaneId());
+                avion.getTraza().marcar(Hito.PUERTA_LIBERADA, reloj());
+                avion.getTraza().marcar(Hito.SOLICITUD_DESPEGUE, reloj());
+                ventana.logAvion(avion.getPlaneId() + ": TAKEOFF_REQUEST");
+                solicitar(RequestType.TAKEOFF, avion);
+                checkPendingRequests();
                 break;
 
-            case TAKEOFF:
-                req.plane.assignRunway(runways.get(0));
+            case TAKEOFF: {
+                Runway r = claimRunway(avion);
+                if (r != null) {
+                    anotar("CONCEDIDA " + r.getId());
+                    ventana.log("AUTORIZADO DESPEGUE: " + avion.getPlaneId());
+                    concederDespegue(avion, r);
+                } else {
+                    metrics.rechazo(TowerMetrics.Rechazo.PISTA);
+                    anotar("ESPERA");
+                    ventana.log("ESPERA DESPEGUE: " + avion.getPlaneId());
+                    waitingForTakeoff.add(req);
+                }
                 break;
+            }
 
             case DEPARTED:
-                ventana.log(req.plane.getPlaneId() + " FIN DE OPERACIÓN.");
-                // Registro CSV con tiempo 0 o calculado si se desea
-                EstadisticasVuelo.registrarVuelo(req.plane.getPlaneId(), 0);
+                // Libera pista final
+                avion.getCurrentRunway().dejarEstela(avion.getClase(), reloj());
+                indicePistas.liberar(avion.getCurrentRunway(), avion.getPlaneId(), reloj());
+                ventana.log(avion.getPlaneId() + " FIN DE OPERACIÓN.");
+                // Registro CSV con las fases programadas del avión
+                contexto.getEstadisticas().registrarVuelo(avion.getPlaneId(), avion.getTraza());
+                enCurso.remove(avion.llegada);
+                contexto.getVuelos().completado();
+                checkPendingRequests();
                 break;
         }
         ventana.updateResources();
     }
 
+    /**
+     * Revisa las colas de espera cuando se liberan recursos. Los aterrizajes
+     * tienen prioridad y en cada cola se reanuda el primer avión que cabe
+     * (o, por separación, el de menor espera por estela), igual que en la
+     * torre concurrente.
+     */
+    private void checkPendingRequests() {
+        for (Request pending : candidatos(waitingForLanding, true)) {
+            if (claimLanding(pending.plane)) {
+                waitingForLanding.remove(pending);
+                Runway r = pending.plane.getCurrentRunway();
+                Gate g = pending.plane.getCurrentGate();
+                anotar("REANUDA " + pending.clave() + " " + r.getId() + " " + g.getId());
+                ventana.log("RESUMING ATERRIZAJE: " + pending.plane.getPlaneId());
+                concederAterrizaje(pending.plane, r, g);
+                break;
+            }
+        }
+        for (Request pending : candidatos(waitingForTakeoff, false)) {
+            Runway r = claimRunway(pending.plane);
+            if (r != null) {
+                waitingForTakeoff.remove(pending);
+                anotar("REANUDA " + pending.clave() + " " + r.getId());
+                ventana.log("RESUMING DESPEGUE: " + pending.plane.getPlaneId());
+                concederDespegue(pending.plane, r);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Peticiones de una cola de espera en el orden en que se intenta
+     * reanudarlas: la cola entera en FIFO o, por separación, la de menor
+     * espera por estela entre las {@link Separacion#VENTANA} primeras que
+     * caben, con el mismo límite de adelantos que la torre concurrente.
+     *
+     * @param conPuerta Si además de pista necesita puerta (aterrizajes).
+     */
+    private Collection<Request> candidatos(Queue<Request> cola, boolean conPuerta) {
+        if (secuenciacion == Escenario.Secuenciacion.FIFO || cola.isEmpty()) {
+            return cola;
+        }
+        Request mejor = null;
+        long menor = Long.MAX_VALUE;
+        int vistas = 0;
+        for (Request req : cola) {
+            ClaseAvion clase = req.plane.getClase();
+            Runway r = separacion.elegir(runways, clase, reloj());
+            if (r == null || (conPuerta && !indicePuertas.hayLibre(clase))) {
+                continue;
+            }
+            if (vistas == 0 && req.adelantos >= Separacion.MAX_ADELANTOS) {
+                return Collections.singletonList(req);
+            }
+            long espera = separacion.esperaNanos(r, clase, reloj());
+            if (espera < menor) {
+                mejor = req;
+                menor = espera;
+            }
+            if (++vistas == Separacion.VENTANA || espera == 0) {
+                break;
+            }
+        }
+        if (mejor == null) {
+            return Collections.emptyList();
+        }
+        for (Request req : cola) {
+            if (req == mejor) {
+                break;
+            }
+            req.adelantos++;
+        }
+        return Collections.singletonList(mejor);
+    }
+
+    /**
+     * Lanza las tareas de la escala sin previas. El último hueco de
+     * {@code pendientes} cuenta las tareas que quedan por terminar.
+     */
+    private void iniciarEscala(PlaneSequential avion) {
+        TareaEscala[] tareas = TareaEscala.values();
+        int[] pendientes = new int[tareas.length + 1];
+        for (TareaEscala t : tareas) {
+            pendientes[t.ordinal()] = t.getPrevias().size();
+        }
+        pendientes[tareas.length] = tareas.length;
+        avion.pendientes = pendientes;
+        for (TareaEscala t : tareas) {
+            if (pendientes[t.ordinal()] == 0) {
+                lanzarTarea(avion, t);
+            }
+        }
+    }
+
+    private void lanzarTarea(PlaneSequential avion, TareaEscala t) {
+        if (t.getServicio() == null) {
+            embarqueEnBucle(avion, t);
+            return;
+        }
+        int sv = t.getServicio().ordinal();
+        if (cuadrillasLibres[sv] > 0) {
+            cuadrillasLibres[sv]--;
+            servir(avion, t, ahora);
+        } else {
+            esperaCuadrilla.get(sv).add(new EsperaCuadrilla(avion, t, ahora));
+        }
+    }
+
+    // La tarea ya tiene cuadrilla: se programa su fin
+    private void servir(PlaneSequential avion, TareaEscala t, long pedida) {
+        contexto.getEstadisticas().registrarFase(EstadisticasVuelo.Fase.ESPERA_CUADRILLA, ahora - pedida);
+        long ms = avion.getEscala().getMs(t);
+        ventana.logAvion(avion.getPlaneId() + ": " + t + " (" + ms + " ms)");
+        programar(ahora + ms * NANOS_POR_MS, Suceso.FIN_SERVICIO, avion, t);
+    }
+
+    // La cuadrilla pasa a la primera tarea en espera, si la hay
+    private void liberarCuadrilla(int sv) {
+        EsperaCuadrilla siguiente = esperaCuadrilla.get(sv).poll();
+        if (siguiente != null) {
+            servir(siguiente.avion, siguiente.tarea, siguiente.pedida);
+        } else {
+            cuadrillasLibres[sv]++;
+        }
+    }
+
+    private void terminarTarea(PlaneSequential avion, TareaEscala t) {
+        int[] pendientes = avion.pendientes;
+        for (TareaEscala s : t.getSiguientes()) {
+            if (--pendientes[s.ordinal()] == 0) {
+                lanzarTarea(avion, s);
+            }
+        }
+        if (--pendientes[pendientes.length - 1] == 0) {
+            avion.pendientes = null;
+            solicitar(RequestType.BOARDED, avion);
+        }
+    }
+
+    /**
+     * Embarque en el propio bucle (duración nominal, para que la ejecución
+     * siga siendo determinista).
+     */
+    private void embarcar(PlaneSequential avion, TareaEscala t) {
+        Manifiesto m = avion.getManifiesto();
+        m.embarcar();
+        long nominal = m.getNanosNominales();
+        cpuHasta = ahora + nominal;
+        avion.getTraza().embarque(m.getPasajeros(), m.getEmbarcados(), m.getRechazados(), nominal);
+        programar(cpuHasta, Suceso.FIN_EMBARQUE, avion, t);
+    }
+
+    // Embarca cuando el bucle no está embarcando
+    private void embarqueEnBucle(PlaneSequential avion, TareaEscala t) {
+        if (ahora < cpuHasta) {
+            programar(cpuHasta, Suceso.EMBARQUE, avion, t);
+        } else {
+            embarcar(avion, t);
+        }
+    }
+
+    private void concederAterrizaje(PlaneSequential avion, Runway r, Gate g) {
+        avion.getTraza().marcar(Hito.ATERRIZAJE_AUTORIZADO, reloj());
+        avion.getTraza().recursosAterrizaje(r, g);
+        long inicio = ahora + esperaEstela(r, avion);
+        programar(inicio + avion.getMsAterrizaje() * NANOS_POR_MS, Suceso.ATERRIZADO, avion, null);
+    }
+
+    private void concederDespegue(PlaneSequential avion, Runway r) {
+        avion.assignRunway(r);
+        avion.getTraza().marcar(Hito.DESPEGUE_AUTORIZADO, reloj());
+        avion.getTraza().recursoDespegue(r);
+        long inicio = ahora + esperaEstela(r, avion);
+        programar(inicio + avion.getMsDespegue() * NANOS_POR_MS, Suceso.DESPEGADO, avion, null);
+    }
+
+    /**
+     * Espera por estela del avión en la pista que acaba de ocupar; la pista
+     * sigue ocupada mientras tanto.
+     *
+     * @return Nanosegundos hasta que puede empezar a operar.
+     */
+    private long esperaEstela(Runway r, PlaneSequential avion) {
+        if (!separacion.activa()) {
+            return 0;
+        }
+        long espera = separacion.esperaNanos(r, avion.getClase(), reloj());
+        contexto.getEstadisticas().registrarFase(EstadisticasVuelo.Fase.SEPARACION, espera);
+        if (espera > 0) {
+            ventana.logAvion(avion.getPlaneId() + ": Separación por estela en " + r + " ("
+                    + espera / NANOS_POR_MS + " ms)");
+        }
+        return espera;
+    }
+
+    private void solicitar(RequestType tipo, PlaneSequential avion) {
+        addRequest(new Request(tipo, avion, ahora));
+    }
+
+    private void programar(long instante, Suceso suceso, PlaneSequential avion, TareaEscala tarea) {
+        agenda.add(new Evento(instante, eventos++, suceso, avion, tarea, null));
+    }
+
+    // Instante del evento en curso en la escala de System.nanoTime()
+    private long reloj() {
+        return origen + ahora;
+    }
+
+    /**
+     * Añade un fragmento a la decisión de la petición en curso (solo si se
+     * graba o reproduce).
+     */
+    private void anotar(String texto) {
+        if (repeticion.activa()) {
+            if (decision.length() > 0) {
+                decision.append("; ");
+            }
+            decision.append(texto);
+        }
+    }
+
+    /**
+     * Ocupa una pista y una puerta para un aterrizaje, o ninguna, y las
+     * asigna al avión.
+     *
+     * @return false si falta alguno de los dos recursos.
+     */
+    private boolean claimLanding(PlaneSequential avion) {
+        Runway r = claimRunway(avion);
+        if (r == null) {
+            return false;
+        }
+        Gate g = indicePuertas.reservar(avion.getClase(), avion.getPlaneId(), reloj());
+        if (g == null) {
+            indicePistas.liberar(r, avion.getPlaneId(), reloj());
+            return false;
+        }
+        avion.assignResources(r, g);
+        return true;
+    }
+
+    /**
+     * Ocupa la pista libre compatible más pequeña o, con separación por
+     * estela, la de menor espera.
+     */
+    private Runway claimRunway(PlaneSequential avion) {
+        if (!separacion.activa()) {
+            return indicePistas.reservar(avion.getClase(), avion.getPlaneId(), reloj());
+        }
+        Runway r = separacion.elegir(runways, avion.getClase(), reloj());
+        return r != null && indicePistas.reservar(r, avion.getPlaneId(), reloj()) ? r : null;
+    }
+
+    /**
+     * Vuelca el estado del bucle entre dos eventos. Los instantes del bucle
+     * ya son relativos al origen; los de trazas y recursos se guardan
+     * relativos a él.
+     */
+    private void guardarEstado(DataOutputStream out) throws IOException {
+        out.writeLong(ahora);
+        out.writeLong(eventos);
+        out.writeBoolean(ocupada);
+        out.writeLong(cpuHasta);
+        for (int c : cuadrillasLibres) {
+            out.writeInt(c);
+        }
+
+        // Primero los índices de llegada, para recrear los aviones antes de leer el resto
+        out.writeInt(enCurso.size());
+        for (int indice : enCurso.keySet()) {
+            out.writeInt(indice);
+        }
+        int siguiente = 0;
+        for (Evento e : agenda) {
+            if (e.suceso == Suceso.LLEGADA) {
+                siguiente = e.llegada.indice;
+            }
+        }
+        out.writeInt(siguiente);
+        for (PlaneSequential avion : enCurso.values()) {
+            out.writeInt(runways.indexOf(avion.getCurrentRunway()));
+            out.writeInt(gates.indexOf(avion.getCurrentGate()));
+            avion.getTraza().guardarEstado(out, origen);
+            out.writeBoolean(avion.pendientes != null);
+            if (avion.pendientes != null) {
+                for (int p : avion.pendientes) {
+                    out.writeInt(p);
+                }
+            }
+        }
+
+        guardarCola(out, requestQueue);
+        guardarCola(out, waitingForLanding);
+        guardarCola(out, waitingForTakeoff);
+        out.writeInt(agenda.size());
+        for (Evento e : agenda) {
+            out.writeLong(e.instante);
+            out.writeLong(e.orden);
+            out.writeByte(e.suceso.ordinal());
+            out.writeInt(e.avion != null ? e.avion.llegada : 0);
+            out.writeByte(e.tarea != null ? e.tarea.ordinal() : -1);
+        }
+        for (Queue<EsperaCuadrilla> cola : esperaCuadrilla) {
+            out.writeInt(cola.size());
+            for (EsperaCuadrilla w : cola) {
+                out.writeInt(w.avion.llegada);
+                out.writeByte(w.tarea.ordinal());
+                out.writeLong(w.pedida);
+            }
+        }
+
+        out.writeInt(runways.size());
+        out.writeInt(gates.size());
+        for (Runway r : runways) {
+            r.guardarEstado(out, origen);
+        }
+        for (Gate g : gates) {
+            g.guardarEstado(out, origen);
+        }
+        contexto.getVuelos().guardarEstado(out);
+        contexto.getEstadisticas().guardarEstado(out);
+        contexto.getPanel().guardarEstado(out);
+        metrics.guardarEstado(out);
+    }
+
+    private static void guardarCola(DataOutputStream out, Queue<Request> cola) throws IOException {
+        out.writeInt(cola.size());
+        for (Request req : cola) {
+            out.writeByte(req.type.ordinal());
+            out.writeInt(req.plane.llegada);
+            out.writeLong(req.creada);
+            out.writeInt(req.adelantos);
+        }
+    }
+
+    /**
+     * Lee el estado escrito con {@link #guardarEstado}. El origen del reloj
+     * ya debe estar fijado.
+     */
+    private void restaurarEstado(DataInputStream in) throws IOException {
+        ahora = in.readLong();
+        eventos = in.readLong();
+        ocupada = in.readBoolean();
+        cpuHasta = in.readLong();
+        for (int i = 0; i < cuadrillasLibres.length; i++) {
+            cuadrillasLibres[i] = in.readInt();
+        }
+
+        int[] indices = new int[in.readInt()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = in.readInt();
+        }
+        Llegada pendiente = recrearAviones(indices, in.readInt());
+        TareaEscala[] tareas = TareaEscala.values();
+        for (int indice : indices) {
+            PlaneSequential avion = avion(indice);
+            int r = in.readInt();
+            int g = in.readInt();
+            avion.assignResources(r >= 0 ? runways.get(r) : null, g >= 0 ? gates.get(g) : null);
+            avion.getTraza().restaurarEstado(in, origen);
+            if (in.readBoolean()) {
+                avion.pendientes = new int[tareas.length + 1];
+                for (int i = 0; i < avion.pendientes.length; i++) {
+                    avion.pendientes[i] = in.readInt();
+                }
+            }
+        }
+
+        restaurarCola(in, requestQueue);
+        restaurarCola(in, waitingForLanding);
+        restaurarCola(in, waitingForTakeoff);
+        Suceso[] sucesos = Suceso.values();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            long instante = in.readLong();
+            long orden = in.readLong();
+            Suceso suceso = sucesos[in.readByte()];
+            int indice = in.readInt();
+            int tarea = in.readByte();
+            agenda.add(new Evento(instante, orden, suceso, indice > 0 ? avion(indice) : null,
+                    tarea >= 0 ? tareas[tarea] : null, suceso == Suceso.LLEGADA ? pendiente : null));
+        }
+        for (Queue<EsperaCuadrilla> cola : esperaCuadrilla) {
+            n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                cola.add(new EsperaCuadrilla(avion(in.readInt()), tareas[in.readByte()], in.readLong()));
+            }
+        }
+
+        if (in.readInt() != runways.size() || in.readInt() != gates.size()) {
+            throw new IOException("las pistas y puertas no coinciden con las del escenario");
+        }
+        for (Runway r : runways) {
+            r.restaurarEstado(in, origen);
+        }
+        for (Gate g : gates) {
+            g.restaurarEstado(in, origen);
+        }
+        indicePistas.reindexar();
+        indicePuertas.reindexar();
+        contexto.getVuelos().restaurarEstado(in);
+        contexto.getEstadisticas().restaurarEstado(in);
+        contexto.getPanel().restaurarEstado(in);
+        metrics.restaurarEstado(in);
+    }
+
+    private void restaurarCola(DataInputStream in, Queue<Request> cola) throws IOException {
+        RequestType[] tipos = RequestType.values();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            Request req = new Request(tipos[in.readByte()], avion(in.readInt()), in.readLong());
+            req.adelantos = in.readInt();
+            cola.add(req);
+        }
+    }
+
+    /**
+     * Recorre el calendario desde el inicio hasta la siguiente llegada
+     * pendiente y vuelve a crear los aviones en curso; el calendario queda
+     * justo detrás de esa llegada. Los aviones ya salidos no se crean.
+     *
+     * @param indices Índices de llegada de los aviones en curso.
+     * @param siguiente Índice de la siguiente llegada, o 0 si ya no quedan.
+     * @return Siguiente llegada, o null si ya no quedan.
+     */
+    private Llegada recrearAviones(int[] indices, int siguiente) throws IOException {
+        Set<Integer> faltan = new HashSet<>();
+        for (int indice : indices) {
+            faltan.add(indice);
+        }
+        while ((!faltan.isEmpty() || siguiente > 0) && llegadas.hasNext()) {
+            Llegada ll = llegadas.next();
+            if (faltan.remove(ll.indice)) {
+                PlaneSequential avion = crear.apply(ll);
+                avion.llegada = ll.indice;
+                enCurso.put(ll.indice, avion);
+            }
+            if (ll.indice == siguiente) {
+                return ll;
+            }
+        }
+        if (!faltan.isEmpty() || siguiente > 0) {
+            throw new IOException("el calendario del escenario no contiene las llegadas del checkpoint");
+        }
+        return null;
+    }
+
+    private PlaneSequential avion(int indice) throws IOException {
+        PlaneSequential avion = enCurso.get(indice);
+        if (avion == null) {
+            throw new IOException("avión de la llegada " + indice + " desconocido");
+        }
+        return avion;
+    }
+
+    private static ClaseAvion[] capacidades(int n) {
+        ClaseAvion[] c = new ClaseAvion[n];
+        Arrays.fill(c, ClaseAvion.JUMBO);
+        return c;
+    }
+
+    private int freeRunways() {
+        int n = 0;
+        for (Runway r : runways) {
+            if (r.isAvailable()) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public TowerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public ContextoSimulacion getContexto() {
+        return contexto;
+    }
+
     public List<Runway> getRunways() {
         return runways;
     }
@@ -129,10 +956,91 @@ public class ControlTowerSequential {
 
         RequestType type;
         PlaneSequential plane;
+        // Instante de creación (ns desde el origen del bucle) para medir la espera en cola
+        final long creada;
+        // Veces que otro avión le ha adelantado en su cola de espera
+        int adelantos = 0;
 
-        public Request(RequestType t, PlaneSequential p) {
+        public Request(RequestType t, PlaneSequential p, long creada) {
             type = t;
             plane = p;
+            this.creada = creada;
+        }
+
+        /**
+         * @return Clave de la petición en las grabaciones
+         * ({@code AVION TIPO}).
+         */
+        String clave() {
+            return plane.getPlaneId() + " " + type;
+        }
+    }
+
+    /**
+     * Sucesos de la agenda.
+     */
+    private enum Suceso {
+        // Llega el avión de la siguiente entrada del calendario
+        LLEGADA,
+        // La torre termina la gestión de una petición o espera a que acabe un embarque
+        ATENDER,
+        // Embarque a la espera de que el bucle termine el anterior
+        EMBARQUE,
+        // Fin de un servicio de tierra: se libera su cuadrilla
+        FIN_SERVICIO,
+        // Fin del embarque
+        FIN_EMBARQUE,
+        // Fin del aterrizaje: el avión pide LANDED
+        ATERRIZADO,
+        // Fin del despegue: el avión pide DEPARTED
+        DESPEGADO
+    }
+
+    /**
+     * Entrada de la agenda: suceso programado para un instante, con el avión
+     * y la tarea de escala a los que se refiere. A igual instante se respeta
+     * el orden en que se programaron.
+     */
+    private static final class Evento implements Comparable<Evento> {
+
+        final long instante;
+        final long orden;
+        final Suceso suceso;
+        final PlaneSequential avion;
+        final TareaEscala tarea;
+        // Solo en LLEGADA
+        final Llegada llegada;
+
+        Evento(long instante, long orden, Suceso suceso, PlaneSequential avion, TareaEscala tarea, Llegada llegada) {
+            this.instante = instante;
+            this.orden = orden;
+            this.suceso = suceso;
+            this.avion = avion;
+            this.tarea = tarea;
+            this.llegada = llegada;
+        }
+
+        @Override
+        public int compareTo(Evento o) {
+            int c = Long.compare(instante, o.instante);
+            return c != 0 ? c : Long.compare(orden, o.orden);
+        }
+    }
+
+    /**
+     * Tarea de escala a la espera de una cuadrilla.
+     */
+    private static final class EsperaCuadrilla {
+
+        final PlaneSequential avion;
+        final TareaEscala tarea;
+        // Instante en que la pidió (ns desde el origen)
+        final long pedida;
+
+        EsperaCuadrilla(PlaneSequential avion, TareaEscala tarea, long pedida) {
+            this.avion = avion;
+            this.tarea = tarea;
+            this.pedida = pedida;
         }
     }
 }
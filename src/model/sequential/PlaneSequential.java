@@ -1,97 +1,105 @@
 package model.sequential;
 
-import model.Passenger;
+import model.Escala;
+import model.Manifiesto;
+import util.ClaseAvion;
 import util.Gate;
 import util.Runway;
-import util.Ventana;
+import util.TrazaVuelo;
 
 /**
  * Representa un avión que opera en modo SECUENCIAL.
+ * <p>
+ * No es un hilo: es el estado de un vuelo (duraciones, recursos asignados y
+ * traza) que el bucle de eventos de {@link ControlTowerSequential} hace
+ * avanzar fase a fase.
+ * </p>
  */
-public class PlaneSequential extends Thread {
+public class PlaneSequential {
 
     private final String id;
-    private final ControlTowerSequential tower;
-    private final Ventana ventana;
-    private final Passenger passenger;
+    private final Escala escala;
+    private final ClaseAvion clase;
 
     private Runway currentRunway;
     private Gate currentGate;
-    private boolean waiting = true;
+    private final TrazaVuelo traza = new TrazaVuelo();
 
-    public PlaneSequential(String id, ControlTowerSequential tower, Ventana ventana) {
+    // Duración simulada de aterrizaje y despegue (ms); la estancia en puerta
+    // es la ruta crítica de la escala
+    private final long msAterrizaje;
+    private final long msDespegue;
+
+    // Índice de la llegada que lo creó (identifica al avión en los checkpoints)
+    int llegada = 0;
+    // Escala en curso: previas pendientes de cada tarea y, en el último
+    // hueco, tareas sin terminar (null fuera de la escala)
+    int[] pendientes;
+
+    public PlaneSequential(String id) {
+        this(id, 100, 300, 100);
+    }
+
+    public PlaneSequential(String id, long msAterrizaje, long msEmbarque, long msDespegue) {
+        this(id, msAterrizaje, Escala.soloEmbarque(
+                new Manifiesto(Manifiesto.PASAJEROS_POR_DEFECTO, msEmbarque, id.hashCode())), msDespegue);
+    }
+
+    public PlaneSequential(String id, long msAterrizaje, Escala escala, long msDespegue) {
+        this(id, msAterrizaje, escala, msDespegue, ClaseAvion.ESTRECHO);
+    }
+
+    public PlaneSequential(String id, long msAterrizaje, Escala escala, long msDespegue, ClaseAvion clase) {
         this.id = id;
-        this.tower = tower;
-        this.ventana = ventana;
-        this.passenger = new Passenger("PAX-" + id);
+        this.clase = clase;
+        this.msAterrizaje = msAterrizaje;
+        this.msDespegue = msDespegue;
+        this.escala = escala;
     }
 
     public String getPlaneId() {
         return id;
     }
 
-    @Override
-    public void run() {
-        try {
-            // Ciclo de vida secuencial
-            //Aterrizaje
-            ventana.logAvion(id + ": LANDING_REQUEST");
-            tower.addRequest(new ControlTowerSequential.Request(ControlTowerSequential.RequestType.LANDING, this));
-            waitForTower(); // Espera asignación
+    public ClaseAvion getClase() {
+        return clase;
+    }
 
-            Thread.sleep(100); // Aterrizando
+    public TrazaVuelo getTraza() {
+        return traza;
+    }
 
-            //Liberar pista
-            tower.addRequest(new ControlTowerSequential.Request(ControlTowerSequential.RequestType.LANDED, this));
-            waitForTower();
+    public Escala getEscala() {
+        return escala;
+    }
 
-            // Embarque
-            tower.addRequest(new ControlTowerSequential.Request(ControlTowerSequential.RequestType.BOARDING, this));
-            waitForTower();
-            ventana.logAvion(id + ": Subiendo " + passenger);
-            Thread.sleep(300);
+    public Manifiesto getManifiesto() {
+        return escala.getManifiesto();
+    }
 
-            //Fin Embarque
-            tower.addRequest(new ControlTowerSequential.Request(ControlTowerSequential.RequestType.BOARDED, this));
-            waitForTower();
+    public long getMsAterrizaje() {
+        return msAterrizaje;
+    }
 
-            // Despegue
-            tower.addRequest(new ControlTowerSequential.Request(ControlTowerSequential.RequestType.TAKEOFF, this));
-            waitForTower(); // Espera asignación pista nueva
+    public long getMsDespegue() {
+        return msDespegue;
+    }
 
-            Thread.sleep(100); // Despegando
+    public Runway getCurrentRunway() {
+        return currentRunway;
+    }
 
-            //Fin
-            tower.addRequest(new ControlTowerSequential.Request(ControlTowerSequential.RequestType.DEPARTED, this));
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+    public Gate getCurrentGate() {
+        return currentGate;
     }
 
-    // sincronización 
-    public synchronized void assignResources(Runway r, Gate g) {
+    void assignResources(Runway r, Gate g) {
         this.currentRunway = r;
         this.currentGate = g;
-        this.waiting = false;
-        notify();
     }
 
-    public synchronized void assignRunway(Runway r) {
+    void assignRunway(Runway r) {
         this.currentRunway = r;
-        this.waiting = false;
-        notify();
-    }
-
-    public synchronized void proceed() {
-        this.waiting = false;
-        notify();
-    }
-
-    private synchronized void waitForTower() throws InterruptedException {
-        while (waiting) {
-            wait();
-        }
-        waiting = true;
     }
 
     @Override
@@ -0,0 +1,30 @@
+package util;
+
+/**
+ * Tamaño del avión, de menor a mayor. Una pista o puerta de capacidad
+ * {@code C} admite aviones de clase {@code C} o menor.
+ */
+public enum ClaseAvion {
+
+    ESTRECHO("fuselaje estrecho"),
+    ANCHO("fuselaje ancho"),
+    JUMBO("jumbo");
+
+    private final String descripcion;
+
+    ClaseAvion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * @return true si un avión de esta clase cabe en un recurso de la
+     * capacidad indicada.
+     */
+    public boolean cabeEn(ClaseAvion capacidad) {
+        return ordinal() <= capacidad.ordinal();
+    }
+}
@@ -0,0 +1,267 @@
+package util;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Lector de ficheros de estadísticas por columnas ({@code .acol}) generados
+ * por {@link ColumnarStatsWriter}.
+ * <p>
+ * Al abrir solo se leen la cabecera y el índice de bloques. Las operaciones
+ * de recorrido leen únicamente los bytes de las columnas pedidas y entregan
+ * valores primitivos, sin construir un objeto por fila.
+ * </p>
+ */
+public class ColumnarStatsReader implements Closeable {
+
+    /**
+     * Consumidor de pares de valores de una misma fila.
+     */
+    public interface ConsumidorPar {
+
+        void aceptar(long a, long b);
+    }
+
+    private final FileChannel canal;
+    private final List<String> nombres = new ArrayList<>();
+    private final List<Integer> anchos = new ArrayList<>();
+    private final int anchoFila;
+
+    // Índice de bloques: posición de la primera columna y número de filas
+    private final List<long[]> bloques = new ArrayList<>();
+    private long filas;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(0);
+
+    /**
+     * Abre el fichero y construye el índice de bloques.
+     *
+     * @throws IOException Si el fichero no tiene el formato esperado.
+     */
+    public ColumnarStatsReader(File fichero) throws IOException {
+        this.canal = FileChannel.open(fichero.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer pre = leer(0, 12);
+            if (pre.getInt() != ColumnarStatsWriter.MAGIC || pre.getInt() != ColumnarStatsWriter.VERSION) {
+                throw new IOException("Formato de estadísticas no reconocido: " + fichero);
+            }
+            int bytesCabecera = pre.getInt();
+            byte[] cab = new byte[bytesCabecera];
+            leer(12, bytesCabecera).get(cab);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(cab));
+            int n = in.readInt();
+            int ancho = 0;
+            for (int i = 0; i < n; i++) {
+                nombres.add(in.readUTF());
+                int a = in.readByte();
+                if (a != 4 && a != 8) {
+                    throw new IOException("Ancho de columna no válido: " + a);
+                }
+                anchos.add(a);
+                ancho += a;
+            }
+            this.anchoFila = ancho;
+            indexar(12L + bytesCabecera);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private void indexar(long pos) throws IOException {
+        long tam = canal.size();
+        while (pos + 4 <= tam) {
+            int n = leer(pos, 4).getInt();
+            if (n <= 0) {
+                break;
+            }
+            bloques.add(new long[]{pos + 4, n});
+            filas += n;
+            pos += 4 + (long) n * anchoFila;
+        }
+        if (pos > tam) {
+            throw new EOFException("Bloque truncado al final del fichero");
+        }
+    }
+
+    public List<String> getColumnas() {
+        return Collections.unmodifiableList(nombres);
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    /**
+     * Recorre todos los valores de una columna.
+     */
+    public void recorrer(String columna, LongConsumer consumidor) throws IOException {
+        int c = indice(columna);
+        for (long[] b : bloques) {
+            int n = (int) b[1];
+            ByteBuffer buf = leerColumna(b, c);
+            if (anchos.get(c) == 8) {
+                for (int i = 0; i < n; i++) {
+                    consumidor.accept(buf.getLong());
+                }
+            } else {
+                for (int i = 0; i < n; i++) {
+                    consumidor.accept(buf.getInt());
+                }
+            }
+        }
+    }
+
+    /**
+     * Recorre dos columnas a la vez, fila a fila.
+     */
+    public void recorrer(String columnaA, String columnaB, ConsumidorPar consumidor) throws IOException {
+        int ca = indice(columnaA);
+        int cb = indice(columnaB);
+        long[] va = new long[ColumnarStatsWriter.FILAS_POR_BLOQUE];
+        for (long[] b : bloques) {
+            int n = (int) b[1];
+            if (va.length < n) {
+                va = new long[n];
+            }
+            ByteBuffer buf = leerColumna(b, ca);
+            for (int i = 0; i < n; i++) {
+                va[i] = anchos.get(ca) == 8 ? buf.getLong() : buf.getInt();
+            }
+            buf = leerColumna(b, cb);
+            boolean largo = anchos.get(cb) == 8;
+            for (int i = 0; i < n; i++) {
+                consumidor.aceptar(va[i], largo ? buf.getLong() : buf.getInt());
+            }
+        }
+    }
+
+    /**
+     * Suma de una columna (los valores negativos, "sin dato", se ignoran).
+     */
+    public long suma(String columna) throws IOException {
+        long[] acc = new long[1];
+        recorrer(columna, v -> {
+            if (v >= 0) {
+                acc[0] += v;
+            }
+        });
+        return acc[0];
+    }
+
+    /**
+     * Máximo de una columna, o -1 si no hay datos.
+     */
+    public long maximo(String columna) throws IOException {
+        long[] acc = {-1};
+        recorrer(columna, v -> acc[0] = Math.max(acc[0], v));
+        return acc[0];
+    }
+
+    /**
+     * Mínimo no negativo de una columna, o -1 si no hay datos.
+     */
+    public long minimo(String columna) throws IOException {
+        long[] acc = {Long.MAX_VALUE};
+        recorrer(columna, v -> {
+            if (v >= 0 && v < acc[0]) {
+                acc[0] = v;
+            }
+        });
+        return acc[0] == Long.MAX_VALUE ? -1 : acc[0];
+    }
+
+    /**
+     * Construye el histograma de la diferencia entre dos columnas de tiempo
+     * (por ejemplo, espera de aterrizaje = T_ATERRIZAJE_AUTORIZADO -
+     * T_SOLICITUD_ATERRIZAJE).
+     */
+    public LatencyHistogram histograma(String desde, String hasta) throws IOException {
+        LatencyHistogram h = new LatencyHistogram(hasta + "-" + desde);
+        recorrer(desde, hasta, (a, b) -> {
+            if (a >= 0 && b >= 0) {
+                h.registrar(b - a);
+            }
+        });
+        return h;
+    }
+
+    /**
+     * Exporta el fichero completo a CSV (una fila por vuelo).
+     */
+    public void exportarCsv(PrintWriter out) throws IOException {
+        out.println(String.join(",", nombres));
+        int nc = nombres.size();
+        long[][] valores = new long[nc][];
+        StringBuilder sb = new StringBuilder();
+        for (long[] b : bloques) {
+            int n = (int) b[1];
+            for (int c = 0; c < nc; c++) {
+                ByteBuffer buf = leerColumna(b, c);
+                long[] col = new long[n];
+                for (int i = 0; i < n; i++) {
+                    col[i] = anchos.get(c) == 8 ? buf.getLong() : buf.getInt();
+                }
+                valores[c] = col;
+            }
+            for (int i = 0; i < n; i++) {
+                sb.setLength(0);
+                for (int c = 0; c < nc; c++) {
+                    if (c > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(valores[c][i]);
+                }
+                out.println(sb);
+            }
+        }
+    }
+
+    private int indice(String columna) {
+        int c = nombres.indexOf(columna);
+        if (c < 0) {
+            throw new IllegalArgumentException("Columna inexistente: " + columna);
+        }
+        return c;
+    }
+
+    // Lee los bytes de la columna c del bloque b en el buffer reutilizable
+    private ByteBuffer leerColumna(long[] b, int c) throws IOException {
+        long pos = b[0];
+        int n = (int) b[1];
+        for (int i = 0; i < c; i++) {
+            pos += (long) anchos.get(i) * n;
+        }
+        return leer(pos, anchos.get(c) * n);
+    }
+
+    private ByteBuffer leer(long pos, int len) throws IOException {
+        if (buffer.capacity() < len) {
+            buffer = ByteBuffer.allocateDirect(Math.max(len, 4 * ColumnarStatsWriter.FILAS_POR_BLOQUE * 8));
+        }
+        buffer.clear().limit(len);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, pos + buffer.position()) < 0) {
+                throw new EOFException("Fin de fichero inesperado");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,274 @@
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import util.TrazaVuelo.Hito;
+
+/**
+ * Escritor de estadísticas en formato binario por columnas ({@code .acol}).
+ * <p>
+ * Los vuelos se acumulan en bloques de {@value #FILAS_POR_BLOQUE} filas
+ * almacenados columna a columna en arrays primitivos. Cada bloque lleno se
+ * entrega a un hilo de fondo que lo serializa y lo escribe de una sola vez,
+ * de modo que los aviones solo pagan unas pocas asignaciones en memoria.
+ * </p>
+ * <p>
+ * Formato del fichero (big-endian):
+ * </p>
+ * <pre>
+ * int MAGIC, int VERSION, int bytesCabecera
+ * int numColumnas, { UTF nombre, byte ancho (4 u 8) } x numColumnas
+ * { int filas, columna0[filas], columna1[filas], ... } x bloques
+ * int 0 (fin)
+ * </pre>
+ * <p>
+ * Se lee con {@link ColumnarStatsReader}.
+ * </p>
+ */
+public class ColumnarStatsWriter implements Closeable {
+
+    static final int MAGIC = 0x41434F4C; // "ACOL"
+    static final int VERSION = 1;
+    public static final int FILAS_POR_BLOQUE = 4096;
+
+    // Esquema: VUELO, ORDEN, T_<hito>..., PISTA_ATERRIZAJE, PUERTA, PISTA_DESPEGUE
+    private static final List<String> COLUMNAS_INT_INICIO = Collections.unmodifiableList(
+            Arrays.asList("VUELO", "ORDEN"));
+    private static final List<String> COLUMNAS_INT_FIN = Collections.unmodifiableList(
+            Arrays.asList("PISTA_ATERRIZAJE", "PUERTA", "PISTA_DESPEGUE"));
+    private static final Hito[] HITOS = Hito.values();
+    private static final int NUM_HITOS = HITOS.length;
+
+    // Marca de fin para el hilo escritor
+    private static final Bloque FIN = new Bloque(0);
+
+    private final File fichero;
+    private final FileChannel canal;
+    private final long origenNanos;
+    private final BlockingQueue<Bloque> pendientes = new ArrayBlockingQueue<>(8);
+    private final BlockingQueue<Bloque> libres = new ArrayBlockingQueue<>(8);
+    private final Thread escritor;
+    private volatile IOException error;
+
+    // Bloque en construcción (protegido por this)
+    private Bloque actual = new Bloque(FILAS_POR_BLOQUE);
+    private boolean cerrado = false;
+
+    /**
+     * Bloque de filas en formato columnar.
+     */
+    private static class Bloque {
+
+        final int[] vuelo;
+        final int[] orden;
+        final long[][] hitos;
+        final int[] pistaAterrizaje;
+        final int[] puerta;
+        final int[] pistaDespegue;
+        int filas;
+
+        Bloque(int capacidad) {
+            vuelo = new int[capacidad];
+            orden = new int[capacidad];
+            hitos = new long[NUM_HITOS][capacidad];
+            pistaAterrizaje = new int[capacidad];
+            puerta = new int[capacidad];
+            pistaDespegue = new int[capacidad];
+        }
+    }
+
+    /**
+     * Crea el fichero, escribe la cabecera y arranca el hilo escritor.
+     *
+     * @param fichero Fichero de salida.
+     * @throws IOException Si no se puede crear el fichero.
+     */
+    public ColumnarStatsWriter(File fichero) throws IOException {
+        this.fichero = fichero;
+        this.canal = FileChannel.open(fichero.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.origenNanos = System.nanoTime();
+        escribirCabecera();
+
+        this.escritor = new Thread(this::bucleEscritura, "Estadisticas-Escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * @return Nombres de las columnas en el orden del fichero.
+     */
+    public static List<String> columnas() {
+        List<String> cols = new ArrayList<>(COLUMNAS_INT_INICIO);
+        for (Hito h : Hito.values()) {
+            cols.add("T_" + h.name());
+        }
+        cols.addAll(COLUMNAS_INT_FIN);
+        return cols;
+    }
+
+    private void escribirCabecera() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bos);
+        List<String> cols = columnas();
+        out.writeInt(cols.size());
+        for (String c : cols) {
+            out.writeUTF(c);
+            out.writeByte(c.startsWith("T_") ? 8 : 4);
+        }
+        out.flush();
+        byte[] cuerpo = bos.toByteArray();
+
+        ByteBuffer buf = ByteBuffer.allocate(12 + cuerpo.length);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(cuerpo.length).put(cuerpo);
+        buf.flip();
+        escribirCompleto(buf);
+    }
+
+    /**
+     * Añade un vuelo al bloque actual. Si el bloque se llena se entrega al
+     * hilo escritor (si va retrasado, el productor espera: contrapresión).
+     *
+     * @param vuelo Índice numérico del vuelo.
+     * @param orden Orden de finalización.
+     * @param traza Marcas y recursos del vuelo.
+     */
+    public synchronized void registrar(int vuelo, int orden, TrazaVuelo traza) {
+        if (cerrado) {
+            return;
+        }
+        Bloque b = actual;
+        int f = b.filas;
+        b.vuelo[f] = vuelo;
+        b.orden[f] = orden;
+        for (Hito h : HITOS) {
+            long t = traza.get(h);
+            b.hitos[h.ordinal()][f] = t == 0 ? -1 : t - origenNanos;
+        }
+        b.pistaAterrizaje[f] = traza.getPistaAterrizaje();
+        b.puerta[f] = traza.getPuerta();
+        b.pistaDespegue[f] = traza.getPistaDespegue();
+        b.filas = f + 1;
+
+        if (b.filas == FILAS_POR_BLOQUE) {
+            entregar(b);
+            Bloque nuevo = libres.poll();
+            actual = nuevo != null ? nuevo : new Bloque(FILAS_POR_BLOQUE);
+        }
+    }
+
+    private void entregar(Bloque b) {
+        try {
+            pendientes.put(b);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: serializa cada bloque recibido.
+     */
+    private void bucleEscritura() {
+        int anchoFila = 4 * (COLUMNAS_INT_INICIO.size() + COLUMNAS_INT_FIN.size()) + 8 * NUM_HITOS;
+        ByteBuffer buf = ByteBuffer.allocateDirect(4 + anchoFila * FILAS_POR_BLOQUE);
+        try {
+            while (true) {
+                Bloque b = pendientes.take();
+                if (b == FIN) {
+                    break;
+                }
+                if (error == null) {
+                    try {
+                        serializar(b, buf);
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                }
+                b.filas = 0;
+                libres.offer(b);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serializar(Bloque b, ByteBuffer buf) throws IOException {
+        int n = b.filas;
+        buf.clear();
+        buf.putInt(n);
+        putInts(buf, b.vuelo, n);
+        putInts(buf, b.orden, n);
+        for (long[] col : b.hitos) {
+            for (int i = 0; i < n; i++) {
+                buf.putLong(col[i]);
+            }
+        }
+        putInts(buf, b.pistaAterrizaje, n);
+        putInts(buf, b.puerta, n);
+        putInts(buf, b.pistaDespegue, n);
+        buf.flip();
+        escribirCompleto(buf);
+    }
+
+    private static void putInts(ByteBuffer buf, int[] col, int n) {
+        for (int i = 0; i < n; i++) {
+            buf.putInt(col[i]);
+        }
+    }
+
+    private void escribirCompleto(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            canal.write(buf);
+        }
+    }
+
+    public File getFichero() {
+        return fichero;
+    }
+
+    /**
+     * Vacía el bloque parcial, espera al hilo escritor y cierra el fichero.
+     *
+     * @throws IOException Si alguna escritura ha fallado.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            if (actual.filas > 0) {
+                entregar(actual);
+            }
+            entregar(FIN);
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            ByteBuffer fin = ByteBuffer.allocate(4).putInt(0);
+            fin.flip();
+            escribirCompleto(fin);
+        } finally {
+            canal.close();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package util;
+
+import java.io.File;
+
+/**
+ * Servicios de soporte de una simulación: log de texto, estadísticas y panel
+ * JSON.
+ * <p>
+ * Torres y aviones los obtienen de aquí en lugar de clases estáticas, de modo
+ * que varias simulaciones pueden ejecutarse a la vez en la misma JVM sin
+ * compartir estado (ver {@code main.SweepRunner}).
+ * </p>
+ */
+public class ContextoSimulacion {
+
+    private final SimulationLogger logger;
+    private final EstadisticasVuelo estadisticas;
+    private final GestorJSON panel;
+    private final Repeticion repeticion;
+    private final VuelosEnCurso vuelos = new VuelosEnCurso();
+    private boolean cerrado = false;
+
+    /**
+     * @param logger Log de texto, o null para no escribir log.
+     * @param estadisticas Estadísticas de la ejecución.
+     * @param panel Panel JSON de estados.
+     */
+    public ContextoSimulacion(SimulationLogger logger, EstadisticasVuelo estadisticas, GestorJSON panel) {
+        this(logger, estadisticas, panel, Repeticion.libre());
+    }
+
+    /**
+     * @param repeticion Grabación o reproducción del orden de la torre.
+     */
+    public ContextoSimulacion(SimulationLogger logger, EstadisticasVuelo estadisticas, GestorJSON panel,
+            Repeticion repeticion) {
+        this.logger = logger;
+        this.estadisticas = estadisticas;
+        this.panel = panel;
+        this.repeticion = repeticion;
+    }
+
+    /**
+     * Contexto con todos los ficheros habituales dentro de un directorio.
+     */
+    public static ContextoSimulacion enDirectorio(File directorio, Escenario escenario,
+            EstadisticasVuelo.Formato formato) {
+        return enDirectorio(directorio, escenario, formato, Repeticion.libre());
+    }
+
+    /**
+     * Igual que {@link #enDirectorio(File, Escenario, EstadisticasVuelo.Formato)}
+     * pero grabando o reproduciendo el orden de la torre.
+     */
+    public static ContextoSimulacion enDirectorio(File directorio, Escenario escenario,
+            EstadisticasVuelo.Formato formato, Repeticion repeticion) {
+        SimulationLogger logger = new SimulationLogger(directorio, escenario.getModo(), escenario.getAviones(),
+                escenario.getPistas(), escenario.getPuertas(), escenario.getOperarios());
+        return new ContextoSimulacion(logger, new EstadisticasVuelo(directorio, formato),
+                new GestorJSON(new File(directorio, GestorJSON.FILE_NAME)), repeticion);
+    }
+
+    /**
+     * Contexto sin ficheros: las estadísticas solo quedan en memoria.
+     */
+    public static ContextoSimulacion enMemoria() {
+        return new ContextoSimulacion(null, new EstadisticasVuelo(), new GestorJSON(null));
+    }
+
+    /**
+     * @return Log de texto, o null si la ejecución no escribe log.
+     */
+    public SimulationLogger getLogger() {
+        return logger;
+    }
+
+    public EstadisticasVuelo getEstadisticas() {
+        return estadisticas;
+    }
+
+    public GestorJSON getPanel() {
+        return panel;
+    }
+
+    public Repeticion getRepeticion() {
+        return repeticion;
+    }
+
+    public VuelosEnCurso getVuelos() {
+        return vuelos;
+    }
+
+    public synchronized boolean isCerrado() {
+        return cerrado;
+    }
+
+    /**
+     * Cierra el log y los ficheros de estadísticas. Puede llamarse más de una
+     * vez (fin normal y gancho de cierre).
+     */
+    public synchronized void close() {
+        if (cerrado) {
+            return;
+        }
+        cerrado = true;
+        if (logger != null) {
+            logger.close();
+        }
+        estadisticas.close();
+    }
+}
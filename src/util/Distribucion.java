@@ -0,0 +1,145 @@
+package util;
+
+import exceptions.AeronConfigException;
+import java.util.SplittableRandom;
+
+/**
+ * Distribución de probabilidad de una duración, en milisegundos (o de una
+ * cantidad, como los pasajeros por avión).
+ * <p>
+ * Se escribe en los ficheros de escenario como {@code TIPO:param1,param2}:
+ * </p>
+ * <ul>
+ * <li>{@code CONSTANTE:v}</li>
+ * <li>{@code UNIFORME:min,max}</li>
+ * <li>{@code EXPONENCIAL:media}</li>
+ * <li>{@code NORMAL:media,desviacion} (truncada en 0)</li>
+ * </ul>
+ */
+public class Distribucion {
+
+    public enum Tipo {
+        CONSTANTE, UNIFORME, EXPONENCIAL, NORMAL
+    }
+
+    private final Tipo tipo;
+    private final double a;
+    private final double b;
+
+    private Distribucion(Tipo tipo, double a, double b) {
+        this.tipo = tipo;
+        this.a = a;
+        this.b = b;
+    }
+
+    public static Distribucion constante(double ms) {
+        return new Distribucion(Tipo.CONSTANTE, ms, 0);
+    }
+
+    public static Distribucion uniforme(double min, double max) {
+        return new Distribucion(Tipo.UNIFORME, min, max);
+    }
+
+    public static Distribucion exponencial(double media) {
+        return new Distribucion(Tipo.EXPONENCIAL, media, 0);
+    }
+
+    /**
+     * Interpreta una distribución con el formato {@code TIPO:parámetros}.
+     *
+     * @param texto Texto a interpretar.
+     * @throws AeronConfigException Si el tipo o los parámetros no son válidos.
+     */
+    public static Distribucion parse(String texto) throws AeronConfigException {
+        String t = texto.trim();
+        int sep = t.indexOf(':');
+        if (sep < 0) {
+            throw new AeronConfigException("Distribución sin parámetros: '" + texto + "' (TIPO:p1[,p2]).");
+        }
+        Tipo tipo;
+        try {
+            tipo = Tipo.valueOf(t.substring(0, sep).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new AeronConfigException("Distribución desconocida: '" + texto
+                    + "' (CONSTANTE, UNIFORME, EXPONENCIAL, NORMAL).");
+        }
+        String[] partes = t.substring(sep + 1).split(",");
+        int esperados = (tipo == Tipo.UNIFORME || tipo == Tipo.NORMAL) ? 2 : 1;
+        if (partes.length != esperados) {
+            throw new AeronConfigException("La distribución " + tipo + " necesita " + esperados
+                    + " parámetro(s): '" + texto + "'.");
+        }
+        double[] p = new double[2];
+        for (int i = 0; i < partes.length; i++) {
+            try {
+                p[i] = Double.parseDouble(partes[i].trim());
+            } catch (NumberFormatException e) {
+                throw new AeronConfigException("Parámetro no numérico en '" + texto + "'.");
+            }
+            if (p[i] < 0) {
+                throw new AeronConfigException("Parámetro negativo en '" + texto + "'.");
+            }
+        }
+        if (tipo == Tipo.UNIFORME && p[1] < p[0]) {
+            throw new AeronConfigException("UNIFORME con máximo menor que mínimo: '" + texto + "'.");
+        }
+        return new Distribucion(tipo, p[0], p[1]);
+    }
+
+    /**
+     * Extrae una muestra (nunca negativa).
+     *
+     * @param rnd Generador aleatorio del que se consume la muestra.
+     * @return Duración en milisegundos.
+     */
+    public double muestrear(SplittableRandom rnd) {
+        switch (tipo) {
+            case CONSTANTE:
+                return a;
+            case UNIFORME:
+                return a == b ? a : a + (b - a) * rnd.nextDouble();
+            case EXPONENCIAL:
+                return -a * Math.log(1.0 - rnd.nextDouble());
+            case NORMAL:
+                return Math.max(0.0, a + b * gaussiana(rnd));
+            default:
+                throw new IllegalStateException(tipo.toString());
+        }
+    }
+
+    // Método polar de Marsaglia (SplittableRandom no tiene nextGaussian en Java 8)
+    private static double gaussiana(SplittableRandom rnd) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = 2 * rnd.nextDouble() - 1;
+            v = 2 * rnd.nextDouble() - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        return u * Math.sqrt(-2 * Math.log(s) / s);
+    }
+
+    /**
+     * @return Valor esperado de la distribución en milisegundos.
+     */
+    public double media() {
+        switch (tipo) {
+            case UNIFORME:
+                return (a + b) / 2;
+            default:
+                return a;
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (tipo) {
+            case UNIFORME:
+            case NORMAL:
+                return tipo + ":" + a + "," + b;
+            default:
+                return tipo + ":" + a;
+        }
+    }
+}
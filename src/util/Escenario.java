@@ -0,0 +1,751 @@
+package util;
+
+import exceptions.AeronConfigException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Descripción completa de una simulación: recursos, operarios, proceso de
+ * llegadas, distribución de la duración de cada fase y semilla.
+ * <p>
+ * Se carga de un fichero {@code .properties}; las claves ausentes conservan el
+ * valor del escenario base (el definido por los argumentos posicionales):
+ * </p>
+ * <pre>
+ * modo=CONCURRENT
+ * aviones=1000
+ * pistas=3
+ * puertas=5
+ * operarios=5
+ * semilla=42
+ * llegadas=POISSON              # REGULAR, POISSON, RAFAGAS, HORARIO
+ * llegadas.intervalo=100        # REGULAR: ms entre llegadas
+ * llegadas.tasa=20              # POISSON: llegadas por segundo
+ * llegadas.rafaga.tamano=10     # RAFAGAS: aviones por ráfaga
+ * llegadas.rafaga.intervalo=2000  # RAFAGAS: ms entre inicios de ráfaga
+ * llegadas.rafaga.dispersion=200  # RAFAGAS: duración media de la ráfaga (ms)
+ * llegadas.horario=0,150,400    # HORARIO: instantes en ms
+ * llegadas.horario.periodo=1000 # HORARIO: repetición (0 = sin repetir)
+ * fase.aterrizaje=UNIFORME:80,120
+ * fase.embarque=NORMAL:300,50
+ * fase.despegue=CONSTANTE:100
+ * pasajeros=UNIFORME:150,400    # pasajeros por avión
+ * fase.desembarque=CONSTANTE:50 # servicios de escala en puerta
+ * fase.limpieza=UNIFORME:40,80
+ * fase.catering=CONSTANTE:40
+ * fase.combustible=NORMAL:80,15
+ * tierra.limpieza=2             # cuadrillas compartidas por todas las puertas
+ * tierra.catering=2             # (0 = sin límite)
+ * tierra.combustible=2
+ * clases=ESTRECHO:70,ANCHO:25,JUMBO:5   # mezcla de aviones (pesos)
+ * puertas.clases=ESTRECHO,ESTRECHO,ANCHO,JUMBO  # capacidad, cíclica por puerta
+ * pistas.clases=JUMBO           # capacidad, cíclica por pista
+ * asignacion=MEJOR_AJUSTE       # MEJOR_AJUSTE, PRIMER_HUECO
+ * separacion.estrecho=40,40,40  # ms tras un líder ESTRECHO, por seguidor
+ * separacion.ancho=100,60,60    # (ESTRECHO, ANCHO, JUMBO); 0 = sin estela
+ * separacion.jumbo=160,120,80
+ * secuenciacion=FIFO            # FIFO, SEPARACION
+ * </pre>
+ * <p>
+ * Las distribuciones siguen el formato de {@link Distribucion}. Las llegadas
+ * se generan con {@link GeneradorLlegadas}. El embarque es el tiempo de
+ * procesar a todo el pasaje en un núcleo.
+ * </p>
+ */
+public class Escenario {
+
+    /**
+     * Proceso de llegada de los aviones.
+     */
+    public enum Llegadas {
+        REGULAR, POISSON, RAFAGAS, HORARIO
+    }
+
+    /**
+     * Política de asignación de pistas y puertas (ver
+     * {@link IndiceRecursos}).
+     */
+    public enum Asignacion {
+        MEJOR_AJUSTE, PRIMER_HUECO
+    }
+
+    /**
+     * Orden en que se reanudan los aviones que esperan pista: por llegada, o
+     * el que menos separación por estela necesita (ver {@link Separacion}).
+     */
+    public enum Secuenciacion {
+        FIFO, SEPARACION
+    }
+
+    /**
+     * Servicios de tierra de la escala en puerta, con su duración por
+     * defecto (ms) y sus cuadrillas por defecto (0 = sin límite).
+     */
+    public enum Servicio {
+        DESEMBARQUE(50, 0), LIMPIEZA(60, 2), CATERING(40, 2), COMBUSTIBLE(80, 2);
+
+        private final double msPorDefecto;
+        private final int cuadrillasPorDefecto;
+
+        Servicio(double msPorDefecto, int cuadrillasPorDefecto) {
+            this.msPorDefecto = msPorDefecto;
+            this.cuadrillasPorDefecto = cuadrillasPorDefecto;
+        }
+
+        /**
+         * @return Nombre en las claves del escenario ({@code fase.x},
+         * {@code tierra.x}).
+         */
+        public String clave() {
+            return name().toLowerCase();
+        }
+
+        /**
+         * @return Cuadrillas por defecto de cada servicio, en orden.
+         */
+        public static int[] cuadrillasPorDefecto() {
+            int[] c = new int[values().length];
+            for (Servicio s : values()) {
+                c[s.ordinal()] = s.cuadrillasPorDefecto;
+            }
+            return c;
+        }
+    }
+
+    private String modo;
+    private int aviones;
+    private int pistas;
+    private int puertas;
+    private int operarios;
+    private long semilla;
+
+    private Llegadas llegadas = Llegadas.REGULAR;
+    private double intervaloMs = 100;
+    private double tasa = 10;
+    private int rafagaTamano = 10;
+    private double rafagaIntervaloMs = 2000;
+    private double rafagaDispersionMs = 200;
+    private double[] horarioMs = new double[0];
+    private double periodoMs = 0;
+
+    // Duraciones históricas del simulador: 100 ms aterrizaje, 300 embarque, 100 despegue
+    private Distribucion aterrizaje = Distribucion.constante(100);
+    private Distribucion embarque = Distribucion.constante(300);
+    private Distribucion despegue = Distribucion.constante(100);
+    private Distribucion pasajeros = Distribucion.uniforme(150, 400);
+    private Distribucion[] servicios = new Distribucion[Servicio.values().length];
+    private int[] cuadrillas = new int[Servicio.values().length];
+
+    // Peso de cada clase de avión y capacidades (cíclicas) de pistas y puertas
+    private double[] pesosClase = {1, 0, 0};
+    private ClaseAvion[] clasesPistas = {ClaseAvion.JUMBO};
+    private ClaseAvion[] clasesPuertas = {ClaseAvion.JUMBO};
+    private Asignacion asignacion = Asignacion.MEJOR_AJUSTE;
+    private Separacion separacion = Separacion.NINGUNA;
+    private Secuenciacion secuenciacion = Secuenciacion.FIFO;
+
+    {
+        for (Servicio s : Servicio.values()) {
+            servicios[s.ordinal()] = Distribucion.constante(s.msPorDefecto);
+            cuadrillas[s.ordinal()] = s.cuadrillasPorDefecto;
+        }
+    }
+
+    private Escenario() {
+    }
+
+    /**
+     * Escenario equivalente a la ejecución clásica: un avión cada 100 ms y
+     * fases de duración fija.
+     */
+    public static Escenario porDefecto(String modo, int aviones, int pistas, int puertas, int operarios) {
+        Escenario e = new Escenario();
+        e.modo = modo;
+        e.aviones = aviones;
+        e.pistas = pistas;
+        e.puertas = puertas;
+        e.operarios = operarios;
+        return e;
+    }
+
+    /**
+     * Carga un fichero de escenario sobre un escenario base.
+     *
+     * @param fichero Fichero {@code .properties}.
+     * @param base Valores para las claves no presentes.
+     * @throws AeronConfigException Si el fichero no existe o algún valor no es
+     * válido.
+     */
+    public static Escenario cargar(File fichero, Escenario base) throws AeronConfigException {
+        Properties p = new Properties();
+        try (Reader in = new InputStreamReader(new FileInputStream(fichero), StandardCharsets.UTF_8)) {
+            p.load(in);
+        } catch (IOException e) {
+            throw new AeronConfigException("No se puede leer el escenario '" + fichero + "': " + e.getMessage());
+        }
+        return desde(p, base);
+    }
+
+    /**
+     * Construye un escenario a partir de propiedades ya cargadas.
+     */
+    public static Escenario desde(Properties p, Escenario base) throws AeronConfigException {
+        Escenario e = base.copia();
+        e.modo = p.getProperty("modo", e.modo).trim().toUpperCase();
+        if (!e.modo.equals("CONCURRENT") && !e.modo.equals("SEQUENTIAL")) {
+            throw new AeronConfigException("Modo de escenario desconocido: '" + e.modo + "'.");
+        }
+        e.aviones = entero(p, "aviones", e.aviones);
+        e.pistas = entero(p, "pistas", e.pistas);
+        e.puertas = entero(p, "puertas", e.puertas);
+        e.operarios = entero(p, "operarios", e.operarios);
+        String semilla = p.getProperty("semilla");
+        if (semilla != null) {
+            try {
+                e.semilla = Long.parseLong(semilla.trim());
+            } catch (NumberFormatException ex) {
+                throw new AeronConfigException("Semilla no numérica: '" + semilla + "'.");
+            }
+        }
+
+        String tipo = p.getProperty("llegadas");
+        if (tipo != null) {
+            try {
+                e.llegadas = Llegadas.valueOf(tipo.trim().toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new AeronConfigException("Proceso de llegadas desconocido: '" + tipo
+                        + "' (REGULAR, POISSON, RAFAGAS, HORARIO).");
+            }
+        }
+        e.intervaloMs = positivo(p, "llegadas.intervalo", e.intervaloMs);
+        e.tasa = positivo(p, "llegadas.tasa", e.tasa);
+        e.rafagaTamano = entero(p, "llegadas.rafaga.tamano", e.rafagaTamano);
+        e.rafagaIntervaloMs = positivo(p, "llegadas.rafaga.intervalo", e.rafagaIntervaloMs);
+        e.rafagaDispersionMs = positivo(p, "llegadas.rafaga.dispersion", e.rafagaDispersionMs);
+        e.periodoMs = positivo(p, "llegadas.horario.periodo", e.periodoMs);
+        String horario = p.getProperty("llegadas.horario");
+        if (horario != null) {
+            e.horarioMs = horario(horario);
+        }
+        if (e.llegadas == Llegadas.POISSON && e.tasa <= 0) {
+            throw new AeronConfigException("La tasa de llegadas Poisson debe ser mayor que 0.");
+        }
+        if (e.llegadas == Llegadas.RAFAGAS && e.rafagaTamano < 1) {
+            throw new AeronConfigException("Las ráfagas deben tener al menos 1 avión.");
+        }
+        if (e.llegadas == Llegadas.HORARIO) {
+            if (e.horarioMs.length == 0) {
+                throw new AeronConfigException("Llegadas HORARIO sin 'llegadas.horario'.");
+            }
+            if (e.periodoMs > 0 && e.periodoMs <= e.horarioMs[e.horarioMs.length - 1]) {
+                throw new AeronConfigException("El periodo del horario debe ser mayor que su último instante.");
+            }
+        }
+
+        e.aterrizaje = distribucion(p, "fase.aterrizaje", e.aterrizaje);
+        e.embarque = distribucion(p, "fase.embarque", e.embarque);
+        e.despegue = distribucion(p, "fase.despegue", e.despegue);
+        e.pasajeros = distribucion(p, "pasajeros", e.pasajeros);
+        for (Servicio s : Servicio.values()) {
+            e.servicios[s.ordinal()] = distribucion(p, "fase." + s.clave(), e.servicios[s.ordinal()]);
+            e.cuadrillas[s.ordinal()] = entero(p, "tierra." + s.clave(), e.cuadrillas[s.ordinal()]);
+            if (e.cuadrillas[s.ordinal()] < 0) {
+                throw new AeronConfigException("Cuadrillas negativas para 'tierra." + s.clave() + "'.");
+            }
+        }
+
+        String clases = p.getProperty("clases");
+        if (clases != null) {
+            e.pesosClase = pesosClase(clases);
+        }
+        e.clasesPistas = capacidades(p, "pistas.clases", e.clasesPistas);
+        e.clasesPuertas = capacidades(p, "puertas.clases", e.clasesPuertas);
+        String asignacion = p.getProperty("asignacion");
+        if (asignacion != null) {
+            try {
+                e.asignacion = Asignacion.valueOf(asignacion.trim().toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new AeronConfigException("Asignación desconocida: '" + asignacion
+                        + "' (MEJOR_AJUSTE, PRIMER_HUECO).");
+            }
+        }
+        e.separacion = separacion(p, e.separacion);
+        String secuenciacion = p.getProperty("secuenciacion");
+        if (secuenciacion != null) {
+            try {
+                e.secuenciacion = Secuenciacion.valueOf(secuenciacion.trim().toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new AeronConfigException("Secuenciación desconocida: '" + secuenciacion
+                        + "' (FIFO, SEPARACION).");
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Copia del escenario con otros recursos y el mismo proceso de llegadas,
+     * duraciones y semilla (barridos de parámetros).
+     */
+    public Escenario conRecursos(String modo, int aviones, int pistas, int puertas, int operarios) {
+        Escenario e = copia();
+        e.modo = modo;
+        e.aviones = aviones;
+        e.pistas = pistas;
+        e.puertas = puertas;
+        e.operarios = operarios;
+        return e;
+    }
+
+    /**
+     * Copia del escenario con otra política de asignación (barridos).
+     */
+    public Escenario conAsignacion(Asignacion asignacion) {
+        Escenario e = copia();
+        e.asignacion = asignacion;
+        return e;
+    }
+
+    /**
+     * Copia del escenario con otra secuenciación de pistas (barridos).
+     */
+    public Escenario conSecuenciacion(Secuenciacion secuenciacion) {
+        Escenario e = copia();
+        e.secuenciacion = secuenciacion;
+        return e;
+    }
+
+    /**
+     * Comprueba las reglas de negocio sobre los recursos.
+     *
+     * @throws AeronConfigException Si alguna regla es violada.
+     */
+    public void validar() throws AeronConfigException {
+        if (new GeneradorLlegadas(this).getTotal() < 1) {
+            throw new AeronConfigException("Debe haber al menos 1 avión.");
+        }
+        if (pistas < 1) {
+            throw new AeronConfigException("Debe haber al menos 1 pista.");
+        }
+        if (puertas < 1) {
+            throw new AeronConfigException("Debe haber al menos 1 puerta.");
+        }
+        if (modo.equalsIgnoreCase("CONCURRENT") && operarios < 1) {
+            throw new AeronConfigException("En modo concurrente debe haber al menos 1 operario.");
+        }
+        if (pistas > puertas) {
+            throw new AeronConfigException("Configuración ilógica: Más pistas (" + pistas + ") que puertas (" + puertas + ").");
+        }
+        // El avión más grande de la mezcla debe tener pista y puerta
+        ClaseAvion mayor = null;
+        for (ClaseAvion c : ClaseAvion.values()) {
+            if (pesosClase[c.ordinal()] > 0) {
+                mayor = c;
+            }
+        }
+        if (!admite(getClasesPistas(), mayor) || !admite(getClasesPuertas(), mayor)) {
+            throw new AeronConfigException("Configuración ilógica: ninguna pista o puerta admite aviones " + mayor + ".");
+        }
+    }
+
+    private static boolean admite(ClaseAvion[] capacidades, ClaseAvion clase) {
+        for (ClaseAvion c : capacidades) {
+            if (clase.cabeEn(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Propiedades equivalentes al escenario, legibles con
+     * {@link #desde(Properties, Escenario)}.
+     */
+    public Properties aProperties() {
+        Properties p = new Properties();
+        p.setProperty("modo", modo);
+        p.setProperty("aviones", String.valueOf(aviones));
+        p.setProperty("pistas", String.valueOf(pistas));
+        p.setProperty("puertas", String.valueOf(puertas));
+        p.setProperty("operarios", String.valueOf(operarios));
+        p.setProperty("semilla", String.valueOf(semilla));
+        p.setProperty("llegadas", llegadas.name());
+        p.setProperty("llegadas.intervalo", String.valueOf(intervaloMs));
+        p.setProperty("llegadas.tasa", String.valueOf(tasa));
+        p.setProperty("llegadas.rafaga.tamano", String.valueOf(rafagaTamano));
+        p.setProperty("llegadas.rafaga.intervalo", String.valueOf(rafagaIntervaloMs));
+        p.setProperty("llegadas.rafaga.dispersion", String.valueOf(rafagaDispersionMs));
+        if (horarioMs.length > 0) {
+            StringBuilder sb = new StringBuilder();
+            for (double ms : horarioMs) {
+                sb.append(sb.length() > 0 ? "," : "").append(ms);
+            }
+            p.setProperty("llegadas.horario", sb.toString());
+        }
+        p.setProperty("llegadas.horario.periodo", String.valueOf(periodoMs));
+        p.setProperty("fase.aterrizaje", aterrizaje.toString());
+        p.setProperty("fase.embarque", embarque.toString());
+        p.setProperty("fase.despegue", despegue.toString());
+        p.setProperty("pasajeros", pasajeros.toString());
+        for (Servicio s : Servicio.values()) {
+            p.setProperty("fase." + s.clave(), servicios[s.ordinal()].toString());
+            p.setProperty("tierra." + s.clave(), String.valueOf(cuadrillas[s.ordinal()]));
+        }
+        p.setProperty("clases", textoPesos());
+        p.setProperty("pistas.clases", textoCapacidades(clasesPistas));
+        p.setProperty("puertas.clases", textoCapacidades(clasesPuertas));
+        p.setProperty("asignacion", asignacion.name());
+        for (ClaseAvion c : ClaseAvion.values()) {
+            p.setProperty("separacion." + c.name().toLowerCase(), separacion.fila(c));
+        }
+        p.setProperty("secuenciacion", secuenciacion.name());
+        return p;
+    }
+
+    private Escenario copia() {
+        Escenario e = porDefecto(modo, aviones, pistas, puertas, operarios);
+        e.semilla = semilla;
+        e.llegadas = llegadas;
+        e.intervaloMs = intervaloMs;
+        e.tasa = tasa;
+        e.rafagaTamano = rafagaTamano;
+        e.rafagaIntervaloMs = rafagaIntervaloMs;
+        e.rafagaDispersionMs = rafagaDispersionMs;
+        e.horarioMs = horarioMs;
+        e.periodoMs = periodoMs;
+        e.aterrizaje = aterrizaje;
+        e.embarque = embarque;
+        e.despegue = despegue;
+        e.pasajeros = pasajeros;
+        e.servicios = servicios.clone();
+        e.cuadrillas = cuadrillas.clone();
+        e.pesosClase = pesosClase.clone();
+        e.clasesPistas = clasesPistas.clone();
+        e.clasesPuertas = clasesPuertas.clone();
+        e.asignacion = asignacion;
+        e.separacion = separacion;
+        e.secuenciacion = secuenciacion;
+        return e;
+    }
+
+    /**
+     * Lee las filas {@code separacion.lider=ms,ms,ms} (una por clase del
+     * líder, ms por clase del seguidor); las filas ausentes se conservan.
+     */
+    private static Separacion separacion(Properties p, Separacion base) throws AeronConfigException {
+        ClaseAvion[] clases = ClaseAvion.values();
+        long[][] ms = new long[clases.length][clases.length];
+        boolean cambia = false;
+        for (ClaseAvion lider : clases) {
+            String clave = "separacion." + lider.name().toLowerCase();
+            String v = p.getProperty(clave);
+            String[] partes = v != null ? v.split(",") : null;
+            if (partes != null && partes.length != clases.length) {
+                throw new AeronConfigException("'" + clave + "' debe tener " + clases.length
+                        + " valores (ms por seguidor ESTRECHO, ANCHO, JUMBO).");
+            }
+            cambia |= partes != null;
+            for (ClaseAvion seguidor : clases) {
+                if (partes == null) {
+                    ms[lider.ordinal()][seguidor.ordinal()] = base.getMs(lider, seguidor);
+                    continue;
+                }
+                try {
+                    ms[lider.ordinal()][seguidor.ordinal()] = Long.parseLong(partes[seguidor.ordinal()].trim());
+                } catch (NumberFormatException ex) {
+                    throw new AeronConfigException("Valor no numérico en '" + clave + "': '"
+                            + partes[seguidor.ordinal()] + "'.");
+                }
+                if (ms[lider.ordinal()][seguidor.ordinal()] < 0) {
+                    throw new AeronConfigException("Separación negativa en '" + clave + "'.");
+                }
+            }
+        }
+        return cambia ? new Separacion(ms) : base;
+    }
+
+    /**
+     * Interpreta la mezcla de clases: {@code CLASE:peso,...}; las clases
+     * ausentes pesan 0.
+     */
+    private static double[] pesosClase(String texto) throws AeronConfigException {
+        double[] pesos = new double[ClaseAvion.values().length];
+        double total = 0;
+        for (String parte : texto.split(",")) {
+            String[] cp = parte.split(":");
+            if (cp.length != 2) {
+                throw new AeronConfigException("Clase no válida en 'clases': '" + parte + "' (CLASE:peso).");
+            }
+            double peso;
+            try {
+                peso = Double.parseDouble(cp[1].trim());
+            } catch (NumberFormatException ex) {
+                throw new AeronConfigException("Peso no numérico en 'clases': '" + parte + "'.");
+            }
+            if (peso < 0) {
+                throw new AeronConfigException("Peso negativo en 'clases': '" + parte + "'.");
+            }
+            pesos[clase(cp[0], "clases").ordinal()] = peso;
+            total += peso;
+        }
+        if (total <= 0) {
+            throw new AeronConfigException("La mezcla de 'clases' debe tener algún peso mayor que 0.");
+        }
+        return pesos;
+    }
+
+    private static ClaseAvion[] capacidades(Properties p, String clave, ClaseAvion[] porDefecto)
+            throws AeronConfigException {
+        String v = p.getProperty(clave);
+        if (v == null) {
+            return porDefecto;
+        }
+        String[] partes = v.split(",");
+        ClaseAvion[] res = new ClaseAvion[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            res[i] = clase(partes[i], clave);
+        }
+        return res;
+    }
+
+    private static ClaseAvion clase(String texto, String clave) throws AeronConfigException {
+        try {
+            return ClaseAvion.valueOf(texto.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new AeronConfigException("Clase de avión desconocida en '" + clave + "': '" + texto
+                    + "' (ESTRECHO, ANCHO, JUMBO).");
+        }
+    }
+
+    private String textoPesos() {
+        StringBuilder sb = new StringBuilder();
+        for (ClaseAvion c : ClaseAvion.values()) {
+            if (pesosClase[c.ordinal()] > 0) {
+                sb.append(sb.length() > 0 ? "," : "").append(c).append(':').append(pesosClase[c.ordinal()]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String textoCapacidades(ClaseAvion[] capacidades) {
+        StringBuilder sb = new StringBuilder();
+        for (ClaseAvion c : capacidades) {
+            sb.append(sb.length() > 0 ? "," : "").append(c);
+        }
+        return sb.toString();
+    }
+
+    private static int entero(Properties p, String clave, int porDefecto) throws AeronConfigException {
+        String v = p.getProperty(clave);
+        if (v == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            throw new AeronConfigException("Valor no numérico para '" + clave + "': '" + v + "'.");
+        }
+    }
+
+    private static double positivo(Properties p, String clave, double porDefecto) throws AeronConfigException {
+        String v = p.getProperty(clave);
+        if (v == null) {
+            return porDefecto;
+        }
+        double d;
+        try {
+            d = Double.parseDouble(v.trim());
+        } catch (NumberFormatException e) {
+            throw new AeronConfigException("Valor no numérico para '" + clave + "': '" + v + "'.");
+        }
+        if (d < 0) {
+            throw new AeronConfigException("Valor negativo para '" + clave + "'.");
+        }
+        return d;
+    }
+
+    private static double[] horario(String texto) throws AeronConfigException {
+        String[] partes = texto.split(",");
+        double[] ms = new double[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            try {
+                ms[i] = Double.parseDouble(partes[i].trim());
+            } catch (NumberFormatException e) {
+                throw new AeronConfigException("Instante no numérico en el horario: '" + partes[i] + "'.");
+            }
+            if (ms[i] < 0 || (i > 0 && ms[i] < ms[i - 1])) {
+                throw new AeronConfigException("El horario debe estar ordenado y sin valores negativos.");
+            }
+        }
+        return ms;
+    }
+
+    private static Distribucion distribucion(Properties p, String clave, Distribucion porDefecto)
+            throws AeronConfigException {
+        String v = p.getProperty(clave);
+        return v == null ? porDefecto : Distribucion.parse(v);
+    }
+
+    public String getModo() {
+        return modo;
+    }
+
+    public int getAviones() {
+        return aviones;
+    }
+
+    public int getPistas() {
+        return pistas;
+    }
+
+    public int getPuertas() {
+        return puertas;
+    }
+
+    public int getOperarios() {
+        return operarios;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public Llegadas getLlegadas() {
+        return llegadas;
+    }
+
+    public double getIntervaloMs() {
+        return intervaloMs;
+    }
+
+    public double getTasa() {
+        return tasa;
+    }
+
+    public int getRafagaTamano() {
+        return rafagaTamano;
+    }
+
+    public double getRafagaIntervaloMs() {
+        return rafagaIntervaloMs;
+    }
+
+    public double getRafagaDispersionMs() {
+        return rafagaDispersionMs;
+    }
+
+    public double[] getHorarioMs() {
+        return horarioMs.clone();
+    }
+
+    public double getPeriodoMs() {
+        return periodoMs;
+    }
+
+    public Distribucion getAterrizaje() {
+        return aterrizaje;
+    }
+
+    public Distribucion getEmbarque() {
+        return embarque;
+    }
+
+    public Distribucion getDespegue() {
+        return despegue;
+    }
+
+    /**
+     * @return Distribución del número de pasajeros por avión.
+     */
+    public Distribucion getPasajeros() {
+        return pasajeros;
+    }
+
+    /**
+     * @return Peso de cada clase de avión, en el orden de {@link ClaseAvion}.
+     */
+    public double[] getPesosClase() {
+        return pesosClase.clone();
+    }
+
+    /**
+     * @return Capacidad de cada pista (el patrón se repite cíclicamente).
+     */
+    public ClaseAvion[] getClasesPistas() {
+        return ciclo(clasesPistas, pistas);
+    }
+
+    /**
+     * @return Capacidad de cada puerta (el patrón se repite cíclicamente).
+     */
+    public ClaseAvion[] getClasesPuertas() {
+        return ciclo(clasesPuertas, puertas);
+    }
+
+    private static ClaseAvion[] ciclo(ClaseAvion[] patron, int n) {
+        ClaseAvion[] res = new ClaseAvion[Math.max(0, n)];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = patron[i % patron.length];
+        }
+        return res;
+    }
+
+    public Asignacion getAsignacion() {
+        return asignacion;
+    }
+
+    public Separacion getSeparacion() {
+        return separacion;
+    }
+
+    public Secuenciacion getSecuenciacion() {
+        return secuenciacion;
+    }
+
+    public Distribucion getServicio(Servicio s) {
+        return servicios[s.ordinal()];
+    }
+
+    /**
+     * @return Cuadrillas de cada servicio, en el orden de {@link Servicio}
+     * (0 = sin límite).
+     */
+    public int[] getCuadrillas() {
+        return cuadrillas.clone();
+    }
+
+    /**
+     * @return Resumen de una línea del proceso de llegadas y las fases.
+     */
+    public String describir() {
+        String proceso;
+        switch (llegadas) {
+            case POISSON:
+                proceso = "POISSON " + tasa + "/s";
+                break;
+            case RAFAGAS:
+                proceso = "RAFAGAS " + rafagaTamano + " cada " + rafagaIntervaloMs + " ms";
+                break;
+            case HORARIO:
+                proceso = "HORARIO " + horarioMs.length + " vuelos" + (periodoMs > 0 ? " cada " + periodoMs + " ms" : "");
+                break;
+            default:
+                proceso = "REGULAR cada " + intervaloMs + " ms";
+        }
+        StringBuilder tierra = new StringBuilder();
+        for (Servicio s : Servicio.values()) {
+            int c = cuadrillas[s.ordinal()];
+            tierra.append(tierra.length() > 0 ? " " : "").append(s.clave()).append('=')
+                    .append(c > 0 ? String.valueOf(c) : "sin límite");
+        }
+        return String.format("LLEGADAS: %s | ATERRIZAJE: %s | EMBARQUE: %s | DESPEGUE: %s | PASAJEROS: %s | SEMILLA: %d"
+                + " | CUADRILLAS: %s | CLASES: %s | PISTAS: %s | PUERTAS: %s | ASIGNACIÓN: %s"
+                + " | SEPARACIÓN: %s | SECUENCIACIÓN: %s", proceso, aterrizaje,
+                embarque, despegue, pasajeros, semilla, tierra, textoPesos(), textoCapacidades(clasesPistas),
+                textoCapacidades(clasesPuertas), asignacion, separacion.describir(), secuenciacion);
+    }
+}
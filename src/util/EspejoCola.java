@@ -0,0 +1,178 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToIntFunction;
+
+/**
+ * Copia de una cola para observadores (GUI, JMX) que se lee sin cerrojo.
+ * <p>
+ * Los escritores actualizan el espejo a la vez que la cola original, con el
+ * cerrojo de la cola ya tomado, así que nunca hay dos escritores a la vez. El
+ * espejo es un anillo de huecos con un número de versión (seqlock): el
+ * escritor la deja impar mientras modifica el anillo y par al terminar. El
+ * lector copia los huecos y repite la lectura si la versión ha cambiado, de
+ * modo que obtiene un estado que existió de verdad sin frenar a productores
+ * ni consumidores.
+ * </p>
+ * <p>
+ * Además cuenta los elementos de cada tipo, así que la profundidad y la
+ * composición de la cola se leen en O(1) sin copiar el anillo.
+ * </p>
+ *
+ * @param <T> Tipo de los elementos de la cola.
+ */
+public class EspejoCola<T> {
+
+    // Lecturas fallidas antes de ceder el procesador al escritor
+    private static final int REINTENTOS_ACTIVOS = 64;
+
+    private final ToIntFunction<T> tipo;
+
+    // Impar mientras un escritor modifica el espejo
+    private final AtomicLong version = new AtomicLong();
+    private volatile AtomicReferenceArray<T> huecos;
+    private volatile int cabeza = 0;
+    private volatile int tamano = 0;
+    private final AtomicIntegerArray porTipo;
+
+    /**
+     * @param capacidad Capacidad inicial del anillo (crece si la cola la
+     * supera).
+     * @param tipos Número de tipos de elemento.
+     * @param tipo Tipo de cada elemento, en {@code [0, tipos)}.
+     */
+    public EspejoCola(int capacidad, int tipos, ToIntFunction<T> tipo) {
+        this.huecos = new AtomicReferenceArray<>(Math.max(1, capacidad));
+        this.porTipo = new AtomicIntegerArray(tipos);
+        this.tipo = tipo;
+    }
+
+    /**
+     * Anota un elemento añadido al final de la cola. Debe llamarse con el
+     * cerrojo de la cola tomado.
+     */
+    public void anadir(T elemento) {
+        version.incrementAndGet();
+        AtomicReferenceArray<T> h = huecos;
+        int n = tamano;
+        if (n == h.length()) {
+            h = crecer(h, n);
+        }
+        h.set((cabeza + n) % h.length(), elemento);
+        tamano = n + 1;
+        porTipo.incrementAndGet(tipo.applyAsInt(elemento));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Anota un elemento extraído de la cola: normalmente la cabeza, aunque
+     * puede estar en cualquier posición (reproducción de una grabación).
+     * Debe llamarse con el cerrojo de la cola tomado.
+     */
+    public void quitar(T elemento) {
+        AtomicReferenceArray<T> h = huecos;
+        int len = h.length();
+        int c = cabeza;
+        int n = tamano;
+        int i = 0;
+        while (i < n && h.get((c + i) % len) != elemento) {
+            i++;
+        }
+        if (i == n) {
+            return;
+        }
+        version.incrementAndGet();
+        if (i == 0) {
+            h.set(c, null);
+            cabeza = (c + 1) % len;
+        } else {
+            // Los siguientes avanzan un hueco para no dejar un agujero
+            for (; i < n - 1; i++) {
+                h.set((c + i) % len, h.get((c + i + 1) % len));
+            }
+            h.set((c + n - 1) % len, null);
+        }
+        tamano = n - 1;
+        porTipo.decrementAndGet(tipo.applyAsInt(elemento));
+        version.incrementAndGet();
+    }
+
+    // Duplica el anillo con los elementos en orden desde el hueco 0
+    private AtomicReferenceArray<T> crecer(AtomicReferenceArray<T> h, int n) {
+        AtomicReferenceArray<T> nuevo = new AtomicReferenceArray<>(h.length() * 2);
+        for (int i = 0; i < n; i++) {
+            nuevo.set(i, h.get((cabeza + i) % h.length()));
+        }
+        huecos = nuevo;
+        cabeza = 0;
+        return nuevo;
+    }
+
+    /**
+     * Copia coherente de la cola, de la cabeza al final, sin cerrojo.
+     */
+    public List<T> instantanea() {
+        for (int intento = 1;; intento++) {
+            long v = version.get();
+            if ((v & 1) == 0) {
+                AtomicReferenceArray<T> h = huecos;
+                int c = cabeza;
+                int n = Math.min(tamano, h.length());
+                List<T> copia = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    copia.add(h.get((c + i) % h.length()));
+                }
+                if (version.get() == v) {
+                    return copia;
+                }
+            }
+            esperar(intento);
+        }
+    }
+
+    /**
+     * @return Elementos en la cola (lectura O(1)).
+     */
+    public int getProfundidad() {
+        return tamano;
+    }
+
+    /**
+     * @return Elementos de cada tipo en un mismo instante (lectura O(tipos),
+     * sin copiar la cola).
+     */
+    public int[] getComposicion() {
+        int[] cuentas = new int[porTipo.length()];
+        for (int intento = 1;; intento++) {
+            long v = version.get();
+            if ((v & 1) == 0) {
+                for (int i = 0; i < cuentas.length; i++) {
+                    cuentas[i] = porTipo.get(i);
+                }
+                if (version.get() == v) {
+                    return cuentas;
+                }
+            }
+            esperar(intento);
+        }
+    }
+
+    /**
+     * @return Número de modificaciones del espejo (dos por cada cambio).
+     * Si no ha variado entre dos consultas, la cola no ha cambiado.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    // Un escritor está a mitad de cambio: tras unos intentos, cede el procesador
+    private static void esperar(int intento) {
+        if (intento >= REINTENTOS_ACTIVOS) {
+            Thread.yield();
+        }
+    }
+}
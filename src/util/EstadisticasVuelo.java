@@ -1,53 +1,181 @@
 package util;
 
 import exceptions.CSVException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.atomic.AtomicInteger;
+import util.TrazaVuelo.Hito;
 
 /**
- * Gestor de estadísticas finales en formato CSV.
+ * Gestor de estadísticas finales en formato CSV y/o binario por columnas.
  * <p>
- * Registra el tiempo total de operación de cada avión y su orden de llegada.
+ * Registra el tiempo total de operación de cada avión, su orden de llegada y
+ * el resultado de su embarque (pasaje, embarcados, rechazados y duración).
+ * Para ejecuciones grandes puede escribir además (o en su lugar) un fichero
+ * {@code .acol} con las marcas de cada fase y los recursos asignados
+ * ({@link ColumnarStatsWriter}).
+ * Además, acumula la duración de cada fase del vuelo en histogramas de
+ * latencia ({@link LatencyHistogram}) que se resumen al cerrar y se exportan a
+ * un fichero {@code histogramas_*.hst} fusionable entre ejecuciones.
+ * </p>
+ * <p>
+ * Cada simulación usa su propia instancia; la instancia creada con
+ * {@link #EstadisticasVuelo()} solo acumula en memoria (barridos de
+ * parámetros).
  * </p>
  */
 public class EstadisticasVuelo {
 
-    private static PrintWriter csvWriter;
-    private static final AtomicInteger ordenLlegada = new AtomicInteger(0);
-    private static String currentFileName;
+    /**
+     * Fases del vuelo con histograma propio.
+     */
+    public enum Fase {
+        ESPERA_ATERRIZAJE("Espera aterrizaje"),
+        OCUPACION_PISTA("Ocupación pista"),
+        ESTANCIA_PUERTA("Estancia puerta"),
+        ESPERA_DESPEGUE("Espera despegue"),
+        COLA_OPERARIO("Cola operario"),
+        EMBARQUE("Embarque"),
+        ESPERA_CUADRILLA("Espera cuadrilla"),
+        SEPARACION("Separación estela"),
+        TOTAL("Tiempo total");
+
+        private final String descripcion;
+
+        Fase(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    /**
+     * Formatos de salida de las estadísticas por vuelo.
+     */
+    public enum Formato {
+        CSV, BINARIO, AMBOS
+    }
+
+    private static final int HST_MAGIC = 0x41485354; // "AHST"
+    private static final int HST_VERSION = 1;
+
+    private PrintWriter csvWriter;
+    private final AtomicInteger ordenLlegada = new AtomicInteger(0);
+    private String currentFileName;
+    private String histogramFileName;
+    private ColumnarStatsWriter binWriter;
+
+    private final LatencyHistogram[] histogramas = new LatencyHistogram[Fase.values().length];
+
+    /**
+     * Estadísticas solo en memoria: histogramas y contador de vuelos, sin
+     * ficheros.
+     */
+    public EstadisticasVuelo() {
+        for (Fase f : Fase.values()) {
+            histogramas[f.ordinal()] = new LatencyHistogram(f.name());
+        }
+    }
 
     /**
-     * Inicializa el fichero CSV.
+     * Inicializa los ficheros de estadísticas del formato indicado.
+     *
+     * @param directorio Directorio de salida.
+     * @param formato CSV, BINARIO (.acol) o AMBOS.
      */
-    public static void setup() {
+    public EstadisticasVuelo(File directorio, Formato formato) {
+        this();
         String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        currentFileName = "estadisticas_" + timeStamp + ".csv";
+        currentFileName = new File(directorio, "estadisticas_" + timeStamp + ".csv").getPath();
+        histogramFileName = new File(directorio, "histogramas_" + timeStamp + ".hst").getPath();
 
-        try {
-            csvWriter = new PrintWriter(new FileWriter(currentFileName));
-            csvWriter.println("Avión,Tiempo total (ms),Observaciones");
-            System.out.println("--> CSV de estadísticas generado: " + currentFileName);
-        } catch (IOException e) {
-            // Excepción Error escritura CSV
-            System.err.println(new CSVException(currentFileName).getMessage());
+        if (formato != Formato.BINARIO) {
+            try {
+                csvWriter = new PrintWriter(new FileWriter(currentFileName));
+                csvWriter.println("Avión,Tiempo total (ms),Observaciones,Pasajeros,Embarcados,Rechazados,Embarque (ms)");
+                System.out.println("--> CSV de estadísticas generado: " + currentFileName);
+            } catch (IOException e) {
+                // Excepción Error escritura CSV
+                System.err.println(new CSVException(currentFileName).getMessage());
+            }
+        }
+
+        if (formato != Formato.CSV) {
+            String binFileName = new File(directorio, "estadisticas_" + timeStamp + ".acol").getPath();
+            try {
+                binWriter = new ColumnarStatsWriter(new File(binFileName));
+                System.out.println("--> Estadísticas binarias por columnas: " + binFileName);
+            } catch (IOException e) {
+                System.err.println(new CSVException(binFileName).getMessage());
+            }
         }
     }
 
+    /**
+     * Registra la duración de una fase. Sin bloqueos: puede llamarse desde
+     * cualquier hilo.
+     *
+     * @param fase Fase medida.
+     * @param nanos Duración en nanosegundos ({@link System#nanoTime()}).
+     */
+    public void registrarFase(Fase fase, long nanos) {
+        histogramas[fase.ordinal()].registrar(nanos);
+    }
+
+    /**
+     * Registra un vuelo finalizado: deriva las fases de su traza y escribe la
+     * entrada en el CSV.
+     *
+     * @param avionId ID del avión.
+     * @param traza Marcas temporales del ciclo de vida del avión.
+     */
+    public void registrarVuelo(String avionId, TrazaVuelo traza) {
+        registrarFase(Fase.ESPERA_ATERRIZAJE, traza.entre(Hito.SOLICITUD_ATERRIZAJE, Hito.ATERRIZAJE_AUTORIZADO));
+        registrarFase(Fase.OCUPACION_PISTA, traza.entre(Hito.ATERRIZAJE_AUTORIZADO, Hito.PISTA_LIBERADA));
+        registrarFase(Fase.ESTANCIA_PUERTA, traza.entre(Hito.PISTA_LIBERADA, Hito.PUERTA_LIBERADA));
+        registrarFase(Fase.ESPERA_DESPEGUE, traza.entre(Hito.SOLICITUD_DESPEGUE, Hito.DESPEGUE_AUTORIZADO));
+        registrarFase(Fase.OCUPACION_PISTA, traza.entre(Hito.DESPEGUE_AUTORIZADO, Hito.DESPEGADO));
+        long total = traza.entre(Hito.SOLICITUD_ATERRIZAJE, Hito.DESPEGADO);
+        registrarFase(Fase.TOTAL, total);
+        registrarFase(Fase.EMBARQUE, traza.getNanosEmbarque());
+
+        int posicion = ordenLlegada.incrementAndGet();
+        if (binWriter != null) {
+            binWriter.registrar(TrazaVuelo.indice(avionId), posicion, traza);
+        }
+        escribirCsv(avionId, total >= 0 ? total / 1_000_000 : 0, posicion, traza);
+    }
+
     /**
      * Registra una entrada en el CSV de forma thread-safe.
      *
      * @param avionId ID del avión.
      * @param tiempoTotal Tiempo en milisegundos desde solicitud hasta despegue.
+     * @param posicion Orden de finalización del vuelo.
+     * @param traza Traza con el resultado del embarque.
      */
-    public static synchronized void registrarVuelo(String avionId, long tiempoTotal) {
+    private synchronized void escribirCsv(String avionId, long tiempoTotal, int posicion, TrazaVuelo traza) {
         if (csvWriter != null) {
-            int posicion = ordenLlegada.incrementAndGet();
             String observacion = posicion + "º";
-            csvWriter.printf("%s,%d,%s%n", avionId, tiempoTotal, observacion);
+            long embarque = traza.getNanosEmbarque();
+            csvWriter.printf(Locale.ROOT, "%s,%d,%s,%d,%d,%d,%s%n", avionId, tiempoTotal, observacion,
+                    traza.getPasajeros(), traza.getEmbarcados(), traza.getRechazados(),
+                    embarque >= 0 ? String.format(Locale.ROOT, "%.3f", embarque / 1e6) : "");
 
             // Verificación de errores de escritura
             if (csvWriter.checkError()) {
@@ -57,11 +185,138 @@ public class EstadisticasVuelo {
     }
 
     /**
-     * Cierra el fichero CSV.
+     * @return Histograma de la fase indicada (vista en vivo).
+     */
+    public LatencyHistogram getHistograma(Fase fase) {
+        return histogramas[fase.ordinal()];
+    }
+
+    /**
+     * @return Número de vuelos registrados.
      */
-    public static void close() {
+    public int getVuelos() {
+        return ordenLlegada.get();
+    }
+
+    /**
+     * Escribe el contador de vuelos y los histogramas para un checkpoint.
+     * Los ficheros CSV y {@code .acol} no se incluyen: ya contienen los
+     * vuelos registrados.
+     */
+    public void guardarEstado(DataOutputStream out) throws IOException {
+        out.writeInt(ordenLlegada.get());
+        out.writeInt(histogramas.length);
+        for (LatencyHistogram h : histogramas) {
+            h.escribir(out);
+        }
+    }
+
+    /**
+     * Suma a estas estadísticas las escritas con {@link #guardarEstado}. El
+     * orden de los vuelos registrados a partir de aquí continúa el del
+     * checkpoint.
+     */
+    public void restaurarEstado(DataInputStream in) throws IOException {
+        ordenLlegada.addAndGet(in.readInt());
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            LatencyHistogram h = LatencyHistogram.leer(in);
+            try {
+                histogramas[Fase.valueOf(h.getNombre()).ordinal()].fusionar(h);
+            } catch (IllegalArgumentException e) {
+                // Fase que ya no existe: se descarta
+            }
+        }
+    }
+
+    /**
+     * Formatea la tabla de percentiles por fase (en milisegundos).
+     */
+    public static String resumenLatencias(List<LatencyHistogram> hs) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-20s %8s %10s %10s %10s %10s %10s%n",
+                "FASE (ms)", "N", "p50", "p90", "p99", "p99.9", "max"));
+        for (LatencyHistogram h : hs) {
+            sb.append(String.format(Locale.ROOT, "%-20s %8d %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                    descripcion(h.getNombre()), h.getTotal(),
+                    h.percentil(50) / 1e6, h.percentil(90) / 1e6, h.percentil(99) / 1e6,
+                    h.percentil(99.9) / 1e6, h.getMaximo() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    private static String descripcion(String nombre) {
+        try {
+            return Fase.valueOf(nombre).getDescripcion();
+        } catch (IllegalArgumentException e) {
+            return nombre;
+        }
+    }
+
+    /**
+     * Exporta todos los histogramas a un fichero binario.
+     */
+    public static void exportarHistogramas(File fichero, List<LatencyHistogram> hs) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fichero)))) {
+            out.writeInt(HST_MAGIC);
+            out.writeInt(HST_VERSION);
+            out.writeInt(hs.size());
+            for (LatencyHistogram h : hs) {
+                h.escribir(out);
+            }
+        }
+    }
+
+    /**
+     * Importa los histogramas de un fichero generado por
+     * {@link #exportarHistogramas(File, List)}.
+     */
+    public static List<LatencyHistogram> importarHistogramas(File fichero) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fichero)))) {
+            if (in.readInt() != HST_MAGIC || in.readInt() != HST_VERSION) {
+                throw new IOException("Formato de histogramas no reconocido: " + fichero);
+            }
+            int n = in.readInt();
+            List<LatencyHistogram> hs = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                hs.add(LatencyHistogram.leer(in));
+            }
+            return hs;
+        }
+    }
+
+    /**
+     * Cierra el fichero CSV, imprime los percentiles por fase y exporta los
+     * histogramas. Sin ficheros (solo memoria) no hace nada.
+     */
+    public void close() {
+        if (histogramFileName == null) {
+            return;
+        }
         if (csvWriter != null) {
             csvWriter.close();
         }
+        if (binWriter != null) {
+            try {
+                binWriter.close();
+            } catch (IOException e) {
+                System.err.println(new CSVException(binWriter.getFichero().getName()).getMessage());
+            }
+        }
+
+        List<LatencyHistogram> hs = new ArrayList<>();
+        for (LatencyHistogram h : histogramas) {
+            hs.add(h);
+        }
+        System.out.println("--------------------------------------------------");
+        System.out.println("LATENCIAS POR FASE");
+        System.out.print(resumenLatencias(hs));
+
+        try {
+            exportarHistogramas(new File(histogramFileName), hs);
+            System.out.println("--> Histogramas exportados: " + histogramFileName);
+        } catch (IOException e) {
+            System.err.println(new CSVException(histogramFileName).getMessage());
+        }
     }
 }
@@ -0,0 +1,43 @@
+package util;
+
+/**
+ * Destino de los eventos de la simulación.
+ * <p>
+ * Torres y aviones solo dependen de esta interfaz, de modo que la misma
+ * lógica puede ejecutarse con la GUI ({@link Ventana}) o sin ella
+ * ({@link HeadlessSink}).
+ * </p>
+ */
+public interface EventSink {
+
+    /**
+     * Registra un mensaje de la torre de control.
+     */
+    void log(String msg);
+
+    /**
+     * Registra un mensaje de un avión (formato {@code ID: Mensaje}).
+     */
+    void logAvion(String msg);
+
+    /**
+     * Avisa de que el estado de pistas, puertas o cola ha cambiado.
+     */
+    void updateResources();
+
+    /**
+     * Asocia la torre cuyo estado se quiere mostrar. Por defecto no hace nada.
+     *
+     * @param tower Torre de control (concurrente o secuencial).
+     */
+    default void setTower(Object tower) {
+    }
+
+    /**
+     * Avisa de que la simulación ha terminado. Por defecto no hace nada.
+     *
+     * @param resumen Línea de resumen (vuelos, makespan, rendimiento).
+     */
+    default void finalizar(String resumen) {
+    }
+}
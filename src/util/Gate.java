@@ -4,43 +4,35 @@ package util;
  * Representa una puerta de embarque.
  * <p>
  * Recurso compartido donde los aviones estacionan para la carga de pasajeros.
+ * Se ocupa y libera con {@link #tryClaim} y {@link #release}.
  * </p>
  */
-public class Gate {
-
-    private final String id;
-    private boolean occupied = false;
+public class Gate extends Recurso {
 
     /**
      * @param id Identificador de la puerta
      */
     public Gate(String id) {
-        if (id == null || id.isEmpty()) {
-            throw new IllegalArgumentException("ID de puerta inválido");
-        }
-        this.id = id;
-    }
-
-    public String getId() {
-        return id;
+        this(id, ClaseAvion.JUMBO);
     }
 
     /**
-     * Comprueba si la puerta está ocupada de forma sincronizada.
+     * @param id Identificador de la puerta.
+     * @param capacidad Mayor clase de avión que admite.
      */
-    public synchronized boolean isOccupied() {
-        return occupied;
+    public Gate(String id, ClaseAvion capacidad) {
+        super(id, "puerta", capacidad);
     }
 
     /**
-     * Ocupa o libera la puerta de forma sincronizada.
+     * Comprueba si la puerta está ocupada (lectura sin cerrojo).
      */
-    public synchronized void setOccupied(boolean occupied) {
-        this.occupied = occupied;
+    public boolean isOccupied() {
+        return reservado();
     }
 
     @Override
     public String toString() {
-        return "Puerta " + id;
+        return "Puerta " + getId();
     }
 }
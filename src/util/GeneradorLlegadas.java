@@ -0,0 +1,201 @@
+package util;
+
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Generador perezoso de llegadas a partir de un {@link Escenario}.
+ * <p>
+ * Las llegadas se calculan bajo demanda a medida que se consume el
+ * {@link Stream}, de modo que se pueden recorrer millones sin guardar el
+ * calendario en memoria. Con la misma semilla la secuencia es idéntica: los
+ * instantes de llegada y las duraciones de las fases salen de generadores
+ * {@link SplittableRandom} independientes, así que cambiar la distribución de
+ * una fase no altera los instantes de llegada. El pasaje, los servicios de
+ * escala y la clase del avión usan generadores propios, por lo que tampoco
+ * alteran las duraciones.
+ * </p>
+ */
+public class GeneradorLlegadas {
+
+    private static final double NANOS_POR_MS = 1_000_000.0;
+
+    /**
+     * Un avión del calendario: instante de llegada relativo al inicio,
+     * duración de cada fase, pasaje, duración de cada servicio de escala y
+     * clase del avión.
+     */
+    public static final class Llegada {
+
+        public final int indice;
+        public final long instanteNanos;
+        public final long aterrizajeMs;
+        public final long embarqueMs;
+        public final long despegueMs;
+        public final int pasajeros;
+        // Semilla de los billetes y grupos del pasaje
+        public final long semillaPasaje;
+        // Duración (ms) de cada servicio de escala, en el orden de Escenario.Servicio
+        private final long[] servicioMs;
+        public final ClaseAvion clase;
+
+        Llegada(int indice, long instanteNanos, long aterrizajeMs, long embarqueMs, long despegueMs,
+                int pasajeros, long semillaPasaje, long[] servicioMs, ClaseAvion clase) {
+            this.indice = indice;
+            this.instanteNanos = instanteNanos;
+            this.aterrizajeMs = aterrizajeMs;
+            this.embarqueMs = embarqueMs;
+            this.despegueMs = despegueMs;
+            this.pasajeros = pasajeros;
+            this.semillaPasaje = semillaPasaje;
+            this.servicioMs = servicioMs;
+            this.clase = clase;
+        }
+
+        public long getServicioMs(Escenario.Servicio s) {
+            return servicioMs[s.ordinal()];
+        }
+
+        /**
+         * @return Duraciones de los servicios de escala, en el orden de
+         * {@link Escenario.Servicio}.
+         */
+        public long[] getServiciosMs() {
+            return servicioMs.clone();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%d @%.3f ms (%d/%d/%d) %d pax %s", indice, instanteNanos / NANOS_POR_MS,
+                    aterrizajeMs, embarqueMs, despegueMs, pasajeros, clase);
+        }
+    }
+
+    private final Escenario escenario;
+    private final int total;
+
+    public GeneradorLlegadas(Escenario escenario) {
+        this.escenario = escenario;
+        int n = escenario.getAviones();
+        // Un horario sin periodo no se repite: como mucho tantos vuelos como instantes
+        if (escenario.getLlegadas() == Escenario.Llegadas.HORARIO && escenario.getPeriodoMs() == 0) {
+            n = Math.min(n, escenario.getHorarioMs().length);
+        }
+        this.total = Math.max(0, n);
+    }
+
+    /**
+     * @return Número de llegadas que producirá el flujo.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Crea un flujo nuevo, ordenado por instante de llegada, desde el inicio
+     * del calendario.
+     */
+    public Stream<Llegada> flujo() {
+        return StreamSupport.stream(new Recorrido(), false);
+    }
+
+    /**
+     * Estado del recorrido del calendario.
+     */
+    private final class Recorrido extends Spliterators.AbstractSpliterator<Llegada> {
+
+        private final SplittableRandom rndLlegadas;
+        private final SplittableRandom rndFases;
+        private final SplittableRandom rndPasaje;
+        private final SplittableRandom rndTierra;
+        private final SplittableRandom rndClase;
+        private final double[] pesosClase = escenario.getPesosClase();
+        private final double[] horario = escenario.getHorarioMs();
+        private final Distribucion huecoPoisson = Distribucion.exponencial(1000.0 / Math.max(escenario.getTasa(), 1e-9));
+        private final Distribucion huecoRafaga = Distribucion.exponencial(
+                escenario.getRafagaDispersionMs() / Math.max(1, escenario.getRafagaTamano()));
+
+        private int emitidas = 0;
+        private double instanteMs = 0;
+
+        Recorrido() {
+            super(total, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE | Spliterator.SIZED);
+            SplittableRandom raiz = new SplittableRandom(escenario.getSemilla());
+            this.rndLlegadas = raiz.split();
+            this.rndFases = raiz.split();
+            this.rndPasaje = raiz.split();
+            this.rndTierra = raiz.split();
+            this.rndClase = raiz.split();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Llegada> accion) {
+            if (emitidas >= total) {
+                return false;
+            }
+            instanteMs = siguienteInstante(emitidas);
+            emitidas++;
+            Escenario.Servicio[] servicios = Escenario.Servicio.values();
+            long[] servicioMs = new long[servicios.length];
+            for (Escenario.Servicio s : servicios) {
+                servicioMs[s.ordinal()] = Math.round(escenario.getServicio(s).muestrear(rndTierra));
+            }
+            accion.accept(new Llegada(emitidas, Math.round(instanteMs * NANOS_POR_MS),
+                    Math.round(escenario.getAterrizaje().muestrear(rndFases)),
+                    Math.round(escenario.getEmbarque().muestrear(rndFases)),
+                    Math.round(escenario.getDespegue().muestrear(rndFases)),
+                    (int) Math.max(1, Math.round(escenario.getPasajeros().muestrear(rndPasaje))),
+                    rndPasaje.nextLong(), servicioMs, clase()));
+            return true;
+        }
+
+        // Instante (ms) de la llegada i-ésima (empezando en 0)
+        private double siguienteInstante(int i) {
+            switch (escenario.getLlegadas()) {
+                case POISSON:
+                    return i == 0 ? 0 : instanteMs + huecoPoisson.muestrear(rndLlegadas);
+                case RAFAGAS: {
+                    int tam = escenario.getRafagaTamano();
+                    double inicioRafaga = (i / tam) * escenario.getRafagaIntervaloMs();
+                    if (i % tam == 0) {
+                        return Math.max(inicioRafaga, instanteMs);
+                    }
+                    return instanteMs + huecoRafaga.muestrear(rndLlegadas);
+                }
+                case HORARIO: {
+                    int vuelta = i / horario.length;
+                    return vuelta * escenario.getPeriodoMs() + horario[i % horario.length];
+                }
+                default:
+                    return i * escenario.getIntervaloMs();
+            }
+        }
+
+        // Clase según los pesos de la mezcla
+        private ClaseAvion clase() {
+            double pesoTotal = 0;
+            for (double p : pesosClase) {
+                pesoTotal += p;
+            }
+            double x = rndClase.nextDouble() * pesoTotal;
+            ClaseAvion[] clases = ClaseAvion.values();
+            for (ClaseAvion c : clases) {
+                x -= pesosClase[c.ordinal()];
+                if (x < 0) {
+                    return c;
+                }
+            }
+            // Redondeo: la última clase con peso
+            for (int i = clases.length - 1; i > 0; i--) {
+                if (pesosClase[i] > 0) {
+                    return clases[i];
+                }
+            }
+            return clases[0];
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package util;
 
 import exceptions.PanelException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -17,16 +20,31 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * consistencia de los datos al ser accedidos por múltiples hilos
  * (aviones/torre).
  * </p>
+ * <p>
+ * Cada simulación tiene su propio panel; sin fichero el estado solo se
+ * mantiene en memoria.
+ * </p>
  */
 public class GestorJSON {
 
+    public static final String FILE_NAME = "estado_vuelos.json";
+
+    private static final LockProfiler.Estadisticas WRITE_LOCK_STATS = LockProfiler.cerrojo("GestorJSON (escritura)");
+
     // TreeMap por el orden alfabetico de los aviones
-    private static final Map<String, String> estadosAviones = new TreeMap<>();
+    private final Map<String, String> estadosAviones = new TreeMap<>();
 
     // ReadWriteLock para concurrencia eficiente
-    private static final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final File fichero;
 
-    private static final String FILE_NAME = "estado_vuelos.json";
+    /**
+     * @param fichero Fichero JSON del panel, o null para no persistirlo.
+     */
+    public GestorJSON(File fichero) {
+        this.fichero = fichero;
+    }
 
     /**
      * Actualiza el estado de un avión y persiste los cambios en disco.
@@ -35,11 +53,66 @@ public class GestorJSON {
      * @param idAvion ID del avión.
      * @param nuevoEstado Nuevo estado (ej. "LANDING", "DEPARTED").
      */
-    public static void actualizarEstado(String idAvion, String nuevoEstado) {
+    public void actualizarEstado(String idAvion, String nuevoEstado) {
+        long t0 = WRITE_LOCK_STATS.antes();
         lock.writeLock().lock();
+        WRITE_LOCK_STATS.adquirido(t0);
         try {
             estadosAviones.put(idAvion, nuevoEstado);
-            escribirJSON();
+            if (fichero != null) {
+                escribirJSON();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Estado actual de un avión. Operación de LECTURA (compartida).
+     *
+     * @return Último estado registrado, o null si no se conoce el avión.
+     */
+    public String getEstado(String idAvion) {
+        lock.readLock().lock();
+        try {
+            return estadosAviones.get(idAvion);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Escribe el estado de todos los aviones para un checkpoint. Operación de
+     * LECTURA (compartida).
+     */
+    public void guardarEstado(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(estadosAviones.size());
+            for (Map.Entry<String, String> entry : estadosAviones.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye el panel por el escrito con {@link #guardarEstado} y lo
+     * persiste. Operación de ESCRITURA (Exclusiva).
+     */
+    public void restaurarEstado(DataInputStream in) throws IOException {
+        lock.writeLock().lock();
+        try {
+            estadosAviones.clear();
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                estadosAviones.put(in.readUTF(), in.readUTF());
+            }
+            if (fichero != null) {
+                escribirJSON();
+            }
         } finally {
             lock.writeLock().unlock();
         }
@@ -48,8 +121,8 @@ public class GestorJSON {
     /**
      * Escribe el contenido del mapa en el fichero JSON.
      */
-    private static void escribirJSON() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(FILE_NAME))) {
+    private void escribirJSON() {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(fichero))) {
             writer.println("{");
             int size = estadosAviones.size();
             int i = 0;
@@ -0,0 +1,54 @@
+package util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Destino de eventos sin interfaz gráfica, para pruebas de rendimiento y
+ * ejecuciones en servidores sin pantalla.
+ * <p>
+ * Los mensajes solo se escriben en el log de disco ({@link SimulationLogger})
+ * o, si no hay log, se descartan. No se inicializa AWT ni se usa el EDT.
+ * </p>
+ */
+public class HeadlessSink implements EventSink {
+
+    private final SimulationLogger logger;
+    private final LongAdder eventos = new LongAdder();
+
+    /**
+     * @param logger Log de disco donde volcar los mensajes, o null para
+     * descartarlos (solo se cuentan).
+     */
+    public HeadlessSink(SimulationLogger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void log(String msg) {
+        eventos.increment();
+        if (logger != null) {
+            logger.log("TORRE", msg);
+        }
+    }
+
+    @Override
+    public void logAvion(String msg) {
+        eventos.increment();
+        if (logger != null) {
+            int sep = msg.indexOf(':');
+            logger.log(sep >= 0 ? msg.substring(0, sep) : "AVION", msg);
+        }
+    }
+
+    @Override
+    public void updateResources() {
+        // Sin panel de recursos que refrescar
+    }
+
+    /**
+     * @return Número de mensajes recibidos.
+     */
+    public long getEventos() {
+        return eventos.sum();
+    }
+}
@@ -0,0 +1,180 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import util.Escenario.Asignacion;
+
+/**
+ * Índice de los recursos libres de un tipo (pistas o puertas) para
+ * asignarlos según la clase del avión.
+ * <p>
+ * Con {@link Asignacion#MEJOR_AJUSTE} los recursos libres están en un
+ * {@link ConcurrentSkipListSet} ordenado por capacidad y posición, así que
+ * el recurso libre compatible más pequeño es el {@code ceiling} de la clase
+ * del avión: O(log n) y sin cerrojo. Sacarlo del conjunto es lo que lo
+ * reserva (solo un hilo consigue eliminar cada entrada), de modo que un avión
+ * pequeño no ocupa una puerta grande mientras quede una a su medida.
+ * </p>
+ * <p>
+ * Con {@link Asignacion#PRIMER_HUECO} se recorre la lista en orden y se
+ * ocupa el primer recurso compatible que acepte {@link Recurso#tryClaim}
+ * (O(n)), como hacía la torre antes de distinguir clases; sirve de
+ * referencia para comparar la utilización.
+ * </p>
+ *
+ * @param <R> Tipo de recurso.
+ */
+public class IndiceRecursos<R extends Recurso> {
+
+    private final List<R> recursos;
+    private final Asignacion asignacion;
+    // Solo se escribe en el constructor
+    private final Map<R, Entrada<R>> entradas = new IdentityHashMap<>();
+    private final ConcurrentSkipListSet<Entrada<R>> libres = new ConcurrentSkipListSet<>();
+
+    /**
+     * @param recursos Recursos, en el orden del primer hueco. Deben estar
+     * libres.
+     * @param asignacion Política de asignación.
+     */
+    public IndiceRecursos(List<R> recursos, Asignacion asignacion) {
+        this.recursos = Collections.unmodifiableList(new ArrayList<>(recursos));
+        this.asignacion = asignacion;
+        for (int i = 0; i < recursos.size(); i++) {
+            Entrada<R> e = new Entrada<>(recursos.get(i).getCapacidad().ordinal(), i, recursos.get(i));
+            entradas.put(recursos.get(i), e);
+            libres.add(e);
+        }
+    }
+
+    /**
+     * Ocupa un recurso libre que admita la clase indicada.
+     *
+     * @param clase Clase del avión.
+     * @param owner Avión que lo ocupa.
+     * @param nanos Instante de ocupación ({@link System#nanoTime()}).
+     * @return Recurso ocupado, o null si no hay ninguno libre compatible.
+     */
+    public R reservar(ClaseAvion clase, String owner, long nanos) {
+        if (asignacion == Asignacion.PRIMER_HUECO) {
+            for (R r : recursos) {
+                if (r.admite(clase) && r.tryClaim(owner, nanos)) {
+                    return r;
+                }
+            }
+            return null;
+        }
+        Entrada<R> e = libres.ceiling(new Entrada<R>(clase.ordinal(), -1, null));
+        while (e != null) {
+            // Si el recurso ya estaba ocupado (el índice no lo sabía), queda
+            // fuera de libres: volverá al liberarlo su dueño
+            if (libres.remove(e) && e.recurso.tryClaim(owner, nanos)) {
+                return e.recurso;
+            }
+            // Otro hilo se la ha llevado: la siguiente en orden
+            e = libres.higher(e);
+        }
+        return null;
+    }
+
+    public R reservar(ClaseAvion clase, String owner) {
+        return reservar(clase, owner, System.nanoTime());
+    }
+
+    /**
+     * Ocupa un recurso concreto elegido por el llamante (por ejemplo, la
+     * pista con menor espera por estela).
+     *
+     * @return false si el recurso ya estaba ocupado.
+     */
+    public boolean reservar(R recurso, String owner, long nanos) {
+        if (asignacion == Asignacion.MEJOR_AJUSTE && !libres.remove(entradas.get(recurso))) {
+            return false;
+        }
+        return recurso.tryClaim(owner, nanos);
+    }
+
+    /**
+     * @return true si hay algún recurso libre que admita la clase indicada
+     * (consulta sin ocuparlo).
+     */
+    public boolean hayLibre(ClaseAvion clase) {
+        if (asignacion == Asignacion.MEJOR_AJUSTE) {
+            return libres.ceiling(new Entrada<R>(clase.ordinal(), -1, null)) != null;
+        }
+        for (R r : recursos) {
+            if (r.admite(clase) && !r.reservado()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Libera un recurso ocupado por {@code owner} y lo devuelve al índice.
+     *
+     * @return false si el recurso no era de {@code owner} (ya liberado o de
+     * otro avión); en ese caso no cambia nada.
+     */
+    public boolean liberar(R recurso, String owner, long nanos) {
+        if (!recurso.release(owner, nanos)) {
+            return false;
+        }
+        if (asignacion == Asignacion.MEJOR_AJUSTE) {
+            libres.add(entradas.get(recurso));
+        }
+        return true;
+    }
+
+    public boolean liberar(R recurso, String owner) {
+        return liberar(recurso, owner, System.nanoTime());
+    }
+
+    /**
+     * Rehace el conjunto de libres a partir del estado de los recursos (tras
+     * restaurarlos de un checkpoint). No debe haber reservas en curso.
+     */
+    public void reindexar() {
+        libres.clear();
+        for (R r : recursos) {
+            if (!r.reservado()) {
+                libres.add(entradas.get(r));
+            }
+        }
+    }
+
+    public List<R> getRecursos() {
+        return recursos;
+    }
+
+    public Asignacion getAsignacion() {
+        return asignacion;
+    }
+
+    /**
+     * Recurso libre en el índice: orden por capacidad y, a igual capacidad,
+     * por posición en la lista.
+     */
+    private static final class Entrada<R> implements Comparable<Entrada<R>> {
+
+        final int capacidad;
+        final int posicion;
+        final R recurso;
+
+        Entrada(int capacidad, int posicion, R recurso) {
+            this.capacidad = capacidad;
+            this.posicion = posicion;
+            this.recurso = recurso;
+        }
+
+        @Override
+        public int compareTo(Entrada<R> o) {
+            int c = Integer.compare(capacidad, o.capacidad);
+            return c != 0 ? c : Integer.compare(posicion, o.posicion);
+        }
+    }
+}
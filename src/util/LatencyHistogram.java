@@ -0,0 +1,181 @@
+package util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias sin bloqueos y de memoria constante.
+ * <p>
+ * Utiliza cubetas log-lineales: cada potencia de dos se divide en
+ * {@value #SUB_CUBETAS} sub-cubetas, lo que da un error relativo máximo de
+ * ~3% en cualquier rango. Los valores (nanosegundos) se acotan a
+ * {@link #MAX_VALOR} (~4,9 horas), por lo que el histograma ocupa siempre
+ * {@value #NUM_CUBETAS} contadores independientemente del número de muestras.
+ * </p>
+ * <p>
+ * El registro es seguro desde cualquier hilo ({@link AtomicLongArray}) y los
+ * histogramas pueden serializarse y fusionarse entre ejecuciones.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    public static final int SUB_CUBETAS = 1 << SUB_BITS;
+    public static final long MAX_VALOR = (1L << 44) - 1;
+    public static final int NUM_CUBETAS = indice(MAX_VALOR) + 1;
+
+    private final String nombre;
+    private final AtomicLongArray cubetas = new AtomicLongArray(NUM_CUBETAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong(0);
+
+    /**
+     * @param nombre Nombre descriptivo (fase medida).
+     */
+    public LatencyHistogram(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Registra una muestra. Los valores negativos se ignoran.
+     *
+     * @param nanos Latencia en nanosegundos.
+     */
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        long v = Math.min(nanos, MAX_VALOR);
+        cubetas.incrementAndGet(indice(v));
+        total.increment();
+        suma.add(v);
+        long max;
+        while (v > (max = maximo.get()) && !maximo.compareAndSet(max, v)) {
+            // Reintento del CAS
+        }
+    }
+
+    /**
+     * Suma al histograma las muestras de otro (fusión entre ejecuciones).
+     */
+    public void fusionar(LatencyHistogram otro) {
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            long c = otro.cubetas.get(i);
+            if (c != 0) {
+                cubetas.addAndGet(i, c);
+            }
+        }
+        total.add(otro.total.sum());
+        suma.add(otro.suma.sum());
+        long v = otro.maximo.get();
+        long max;
+        while (v > (max = maximo.get()) && !maximo.compareAndSet(max, v)) {
+            // Reintento del CAS
+        }
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long n = total.sum();
+        return n > 0 ? (double) suma.sum() / n : 0;
+    }
+
+    /**
+     * Calcula un percentil.
+     *
+     * @param p Percentil en el rango [0, 100].
+     * @return Límite superior (en nanosegundos) de la cubeta que contiene el
+     * percentil, acotado por el máximo observado.
+     */
+    public long percentil(double p) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long acumulado = 0;
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Serializa el histograma (solo cubetas no vacías).
+     */
+    public void escribir(DataOutputStream out) throws IOException {
+        out.writeUTF(nombre);
+        out.writeLong(total.sum());
+        out.writeLong(suma.sum());
+        out.writeLong(maximo.get());
+        int noVacias = 0;
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            if (cubetas.get(i) != 0) {
+                noVacias++;
+            }
+        }
+        out.writeInt(noVacias);
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            long c = cubetas.get(i);
+            if (c != 0) {
+                out.writeShort(i);
+                out.writeLong(c);
+            }
+        }
+    }
+
+    /**
+     * Lee un histograma escrito con {@link #escribir(DataOutputStream)}.
+     */
+    public static LatencyHistogram leer(DataInputStream in) throws IOException {
+        LatencyHistogram h = new LatencyHistogram(in.readUTF());
+        h.total.add(in.readLong());
+        h.suma.add(in.readLong());
+        h.maximo.set(in.readLong());
+        int noVacias = in.readInt();
+        for (int k = 0; k < noVacias; k++) {
+            int i = in.readShort();
+            if (i < 0 || i >= NUM_CUBETAS) {
+                throw new IOException("Cubeta fuera de rango: " + i);
+            }
+            h.cubetas.set(i, in.readLong());
+        }
+        return h;
+    }
+
+    // Índice de cubeta: los 64 primeros valores son exactos; a partir de ahí
+    // cada potencia de dos se reparte en SUB_CUBETAS cubetas.
+    private static int indice(long v) {
+        int msb = 63 - Long.numberOfLeadingZeros(v | 1);
+        int shift = Math.max(0, msb - SUB_BITS);
+        return (shift << SUB_BITS) + (int) (v >>> shift);
+    }
+
+    private static long limiteSuperior(int i) {
+        if (i < 2 * SUB_CUBETAS) {
+            return i;
+        }
+        int shift = (i >>> SUB_BITS) - 1;
+        long mantisa = i - ((long) shift << SUB_BITS);
+        return ((mantisa + 1) << shift) - 1;
+    }
+}
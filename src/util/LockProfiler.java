@@ -0,0 +1,244 @@
+package util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Perfilador de contención de los monitores de la simulación.
+ * <p>
+ * Cada cerrojo con nombre tiene unas {@link Estadisticas} que miden el número
+ * de adquisiciones, el tiempo total y máximo bloqueado esperando el monitor y
+ * el número de hilos en espera. El patrón de uso es:
+ * </p>
+ * <pre>
+ * long t0 = STATS.antes();
+ * synchronized (cerrojo) {
+ *     STATS.adquirido(t0);
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * Se activa con {@code -Daeron.lockprofiling=true}. Al estar desactivado,
+ * {@link #ACTIVO} es una constante {@code false} y el JIT elimina la
+ * instrumentación, por lo que el coste es nulo.
+ * </p>
+ * <p>
+ * El informe es de toda la JVM. Los cerrojos de una torre se registran con
+ * su nombre ({@link #cerrojo(String, String)}), así que las ejecuciones
+ * simultáneas de un barrido no mezclan sus cifras; el de
+ * {@code GestorJSON} sí agrega los paneles de todas las ejecuciones.
+ * </p>
+ */
+public class LockProfiler implements LockProfilerMXBean {
+
+    public static final boolean ACTIVO = Boolean.getBoolean("aeron.lockprofiling");
+
+    // Ordenado por nombre para un informe estable
+    private static final Map<String, Estadisticas> registro = new ConcurrentSkipListMap<>();
+    private static final AtomicBoolean registradoJmx = new AtomicBoolean(false);
+
+    /**
+     * Contadores de contención de un cerrojo.
+     */
+    public static class Estadisticas {
+
+        private final String nombre;
+        private final LongAdder adquisiciones = new LongAdder();
+        private final LongAdder bloqueadoNanos = new LongAdder();
+        private final AtomicLong maxBloqueoNanos = new AtomicLong();
+        private final AtomicInteger esperando = new AtomicInteger();
+        private final AtomicInteger maxEsperando = new AtomicInteger();
+
+        Estadisticas(String nombre) {
+            this.nombre = nombre;
+        }
+
+        /**
+         * Llamar justo antes de intentar adquirir el monitor.
+         *
+         * @return Marca temporal a pasar a {@link #adquirido(long)}.
+         */
+        public long antes() {
+            if (!ACTIVO) {
+                return 0L;
+            }
+            int n = esperando.incrementAndGet();
+            int max;
+            while (n > (max = maxEsperando.get()) && !maxEsperando.compareAndSet(max, n)) {
+                // Reintento del CAS
+            }
+            return System.nanoTime();
+        }
+
+        /**
+         * Llamar como primera instrucción dentro del bloque sincronizado.
+         *
+         * @param t0 Valor devuelto por {@link #antes()}.
+         */
+        public void adquirido(long t0) {
+            if (!ACTIVO) {
+                return;
+            }
+            long espera = System.nanoTime() - t0;
+            esperando.decrementAndGet();
+            adquisiciones.increment();
+            bloqueadoNanos.add(espera);
+            long max;
+            while (espera > (max = maxBloqueoNanos.get()) && !maxBloqueoNanos.compareAndSet(max, espera)) {
+                // Reintento del CAS
+            }
+        }
+
+        void reset() {
+            adquisiciones.reset();
+            bloqueadoNanos.reset();
+            maxBloqueoNanos.set(0);
+            maxEsperando.set(esperando.get());
+        }
+    }
+
+    /**
+     * Obtiene (o crea) las estadísticas de un cerrojo con nombre.
+     */
+    public static Estadisticas cerrojo(String nombre) {
+        Estadisticas e = registro.get(nombre);
+        if (e == null) {
+            Estadisticas nueva = new Estadisticas(nombre);
+            e = registro.putIfAbsent(nombre, nueva);
+            if (e == null) {
+                e = nueva;
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Estadísticas de un cerrojo que pertenece a una torre concreta.
+     *
+     * @param torre Nombre de la torre (el de sus métricas JMX).
+     */
+    public static Estadisticas cerrojo(String nombre, String torre) {
+        return cerrojo(nombre + " [" + torre + "]");
+    }
+
+    /**
+     * Registra el perfilador en JMX (una sola vez por JVM).
+     */
+    public static void registrarJmx() {
+        if (!registradoJmx.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new LockProfiler(),
+                    new ObjectName("aeron:type=LockProfiler"));
+        } catch (JMException e) {
+            System.err.println("No se ha podido registrar el perfilador de cerrojos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Formatea la tabla de contención de todos los cerrojos.
+     */
+    public static String informe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-32s %12s %14s %12s %10s %10s%n",
+                "CERROJO", "ADQUISIC.", "BLOQUEO (ms)", "MAX (ms)", "ESPERAN", "MAX ESP."));
+        for (Estadisticas e : registro.values()) {
+            sb.append(String.format(Locale.ROOT, "%-32s %12d %14.3f %12.3f %10d %10d%n",
+                    e.nombre, e.adquisiciones.sum(), e.bloqueadoNanos.sum() / 1e6,
+                    e.maxBloqueoNanos.get() / 1e6, e.esperando.get(), e.maxEsperando.get()));
+        }
+        return sb.toString();
+    }
+
+    private static List<Estadisticas> todas() {
+        return new ArrayList<>(registro.values());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ACTIVO;
+    }
+
+    @Override
+    public String[] getLockNames() {
+        List<Estadisticas> es = todas();
+        String[] res = new String[es.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = es.get(i).nombre;
+        }
+        return res;
+    }
+
+    @Override
+    public long[] getAcquisitions() {
+        List<Estadisticas> es = todas();
+        long[] res = new long[es.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = es.get(i).adquisiciones.sum();
+        }
+        return res;
+    }
+
+    @Override
+    public double[] getTotalBlockedMillis() {
+        List<Estadisticas> es = todas();
+        double[] res = new double[es.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = es.get(i).bloqueadoNanos.sum() / 1e6;
+        }
+        return res;
+    }
+
+    @Override
+    public double[] getMaxBlockedMillis() {
+        List<Estadisticas> es = todas();
+        double[] res = new double[es.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = es.get(i).maxBloqueoNanos.get() / 1e6;
+        }
+        return res;
+    }
+
+    @Override
+    public int[] getWaiters() {
+        List<Estadisticas> es = todas();
+        int[] res = new int[es.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = es.get(i).esperando.get();
+        }
+        return res;
+    }
+
+    @Override
+    public int[] getMaxWaiters() {
+        List<Estadisticas> es = todas();
+        int[] res = new int[es.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = es.get(i).maxEsperando.get();
+        }
+        return res;
+    }
+
+    @Override
+    public String getReport() {
+        return informe();
+    }
+
+    @Override
+    public void reset() {
+        for (Estadisticas e : registro.values()) {
+            e.reset();
+        }
+    }
+}
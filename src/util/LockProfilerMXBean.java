@@ -0,0 +1,41 @@
+package util;
+
+/**
+ * Interfaz de gestión JMX del perfilador de contención de cerrojos.
+ * <p>
+ * Registrada bajo {@code aeron:type=LockProfiler}. Los arrays devueltos están
+ * alineados con {@link #getLockNames()}.
+ * </p>
+ */
+public interface LockProfilerMXBean {
+
+    boolean isEnabled();
+
+    String[] getLockNames();
+
+    long[] getAcquisitions();
+
+    double[] getTotalBlockedMillis();
+
+    double[] getMaxBlockedMillis();
+
+    /**
+     * @return Hilos esperando ahora mismo por cada cerrojo.
+     */
+    int[] getWaiters();
+
+    /**
+     * @return Máximo de hilos esperando simultáneamente por cada cerrojo.
+     */
+    int[] getMaxWaiters();
+
+    /**
+     * @return Tabla de contención formateada.
+     */
+    String getReport();
+
+    /**
+     * Pone a cero todos los contadores.
+     */
+    void reset();
+}
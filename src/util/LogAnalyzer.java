@@ -0,0 +1,697 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Analizador offline de los logs acumulados de la simulación.
+ * <p>
+ * Recorre un directorio en busca de ficheros {@code aeron-*.log}, los procesa
+ * en paralelo (Fork/Join, una tarea por fichero) y reconstruye la línea
+ * temporal de cada vuelo a partir de las líneas
+ * {@code [HH:mm:ss.SSS] [ORIGEN] mensaje}. Cada fichero se lee mediante
+ * {@link MappedByteBuffer} y se analiza byte a byte, sin decodificar las
+ * líneas completas a {@link String}.
+ * </p>
+ * <p>
+ * La configuración (modo, aviones, pistas, puertas, operarios) se obtiene del
+ * nombre del fichero generado por {@link SimulationLogger}.
+ * </p>
+ */
+public class LogAnalyzer {
+
+    // Nombre generado por el constructor de SimulationLogger
+    private static final Pattern NOMBRE_LOG = Pattern.compile(
+            "aeron-(CONCURRENT|SEQUENTIAL)-(\\d+)AV-(\\d+)PIS-(\\d+)PUE(?:-(\\d+)OPE)?-(\\d{8}_\\d{6})\\.log");
+
+    // Tamaño máximo de cada ventana mapeada en memoria (1 GB)
+    private static final long MAX_VENTANA = 1L << 30;
+    private static final long MS_DIA = 24L * 60 * 60 * 1000;
+
+    // Hitos de la línea temporal de un vuelo
+    static final int H_SOLICITUD_ATERRIZAJE = 0;
+    static final int H_ATERRIZAJE_AUTORIZADO = 1;
+    static final int H_PISTA_LIBERADA = 2;
+    static final int H_PUERTA_LIBERADA = 3;
+    static final int H_SOLICITUD_DESPEGUE = 4;
+    static final int H_DESPEGUE_AUTORIZADO = 5;
+    static final int H_DESPEGADO = 6;
+    private static final int NUM_HITOS = 7;
+
+    // Prefijos de los mensajes de los aviones (tras "ID: ")
+    private static final byte[] AV_SOLICITUD = ascii("Solicitando pista y puerta");
+    private static final byte[] AV_SOLICITUD_SEC = ascii("LANDING_REQUEST");
+    private static final byte[] AV_ATERRIZANDO = ascii("Aterrizando en");
+    private static final byte[] AV_ATERRIZADO = ascii("Aterrizado.");
+    private static final byte[] AV_EMBARCADO = ascii("Embarque finalizado");
+    private static final byte[] AV_SOLICITUD_DESPEGUE = ascii("Solicitando pista para despegue");
+    private static final byte[] AV_SOLICITUD_DESPEGUE_SEC = ascii("TAKEOFF_REQUEST");
+    private static final byte[] AV_DESPEGANDO = ascii("Despegando por");
+    private static final byte[] AV_DESPEGADO = ascii("DEPARTED");
+
+    // Prefijos de los mensajes de la torre
+    private static final byte[] TO_ORIGEN = ascii("TORRE");
+    private static final byte[] TO_AUT_ATERRIZAJE = ascii("AUTORIZADO ATERRIZAJE: ");
+    private static final byte[] TO_REA_ATERRIZAJE = ascii("RESUMING ATERRIZAJE: ");
+    private static final byte[] TO_AUT_DESPEGUE = ascii("AUTORIZADO DESPEGUE: ");
+    private static final byte[] TO_REA_DESPEGUE = ascii("RESUMING DESPEGUE: ");
+    private static final byte[] TO_PISTA_LIBERADA = ascii("Pista liberada por ");
+    private static final byte[] TO_PUERTA_LIBERADA = ascii("Puerta liberada por ");
+    private static final byte[] TO_DESPEGADO = ascii(" DEPARTED.");
+    private static final byte[] TO_SECUENCIAL = ascii("Secuencial: Procesando ");
+    private static final byte[] TO_DE = ascii(" de ");
+    private static final byte[] SEC_LANDED = ascii("LANDED");
+    private static final byte[] SEC_BOARDED = ascii("BOARDED");
+    private static final byte[] SEC_DEPARTED = ascii("DEPARTED");
+
+    /**
+     * Resultado del análisis de un único fichero de log.
+     */
+    public static class Informe {
+
+        public final String fichero;
+        public final String modo;
+        public final int aviones;
+        public final int pistas;
+        public final int puertas;
+        public final int operarios;
+        public final String timestamp;
+
+        long lineas;
+        long bytes;
+        int vuelosCompletados;
+        long makespanMs;
+        // NaN: la fase no tiene muestras o el valor no es posible
+        double esperaAterrizajeMs = Double.NaN;
+        double estanciaPuertaMs = Double.NaN;
+        double esperaDespegueMs = Double.NaN;
+        double utilizacionPistas = Double.NaN;
+        double utilizacionPuertas = Double.NaN;
+        double tiempoMedioCsvMs = Double.NaN;
+        // Intervalos descartados por tener los hitos fuera de orden
+        int incoherencias;
+
+        Informe(String fichero, String modo, int aviones, int pistas, int puertas, int operarios, String timestamp) {
+            this.fichero = fichero;
+            this.modo = modo;
+            this.aviones = aviones;
+            this.pistas = pistas;
+            this.puertas = puertas;
+            this.operarios = operarios;
+            this.timestamp = timestamp;
+        }
+
+        public long getMakespanMs() {
+            return makespanMs;
+        }
+
+        public int getVuelosCompletados() {
+            return vuelosCompletados;
+        }
+
+        /**
+         * @return Vuelos completados por segundo de makespan.
+         */
+        public double getThroughput() {
+            return makespanMs > 0 ? vuelosCompletados * 1000.0 / makespanMs : 0;
+        }
+    }
+
+    /**
+     * Analiza en paralelo todos los logs encontrados (recursivamente) en el
+     * directorio indicado.
+     *
+     * @param directorio Directorio raíz de búsqueda.
+     * @param paralelismo Número de hilos del pool Fork/Join.
+     * @return Informes ordenados por modo y configuración.
+     */
+    public static List<Informe> analizarDirectorio(File directorio, int paralelismo) {
+        List<File> logs = new ArrayList<>();
+        Map<String, File> csvs = new HashMap<>();
+        buscarFicheros(directorio, logs, csvs);
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            List<Informe> informes = pool.invoke(new TareaAnalisis(logs, csvs, 0, logs.size()));
+            Collections.sort(informes, (a, b) -> {
+                int c = a.modo.compareTo(b.modo);
+                if (c == 0) {
+                    c = Integer.compare(a.aviones, b.aviones);
+                }
+                if (c == 0) {
+                    c = Integer.compare(a.operarios, b.operarios);
+                }
+                return c != 0 ? c : a.timestamp.compareTo(b.timestamp);
+            });
+            return informes;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void buscarFicheros(File dir, List<File> logs, Map<String, File> csvs) {
+        File[] entradas = dir.listFiles();
+        if (entradas == null) {
+            return;
+        }
+        for (File f : entradas) {
+            if (f.isDirectory()) {
+                buscarFicheros(f, logs, csvs);
+            } else if (NOMBRE_LOG.matcher(f.getName()).matches()) {
+                logs.add(f);
+            } else if (f.getName().startsWith("estadisticas_") && f.getName().endsWith(".csv")) {
+                // estadisticas_yyyyMMdd_HHmmss.csv -> clave yyyyMMdd_HHmmss
+                String ts = f.getName().substring("estadisticas_".length(), f.getName().length() - 4);
+                csvs.put(ts, f);
+            }
+        }
+    }
+
+    /**
+     * Tarea Fork/Join que divide la lista de ficheros hasta llegar a uno solo.
+     */
+    private static class TareaAnalisis extends RecursiveTask<List<Informe>> {
+
+        private final List<File> logs;
+        private final Map<String, File> csvs;
+        private final int desde;
+        private final int hasta;
+
+        TareaAnalisis(List<File> logs, Map<String, File> csvs, int desde, int hasta) {
+            this.logs = logs;
+            this.csvs = csvs;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected List<Informe> compute() {
+            if (hasta - desde <= 1) {
+                List<Informe> res = new ArrayList<>(1);
+                if (hasta > desde) {
+                    try {
+                        res.add(analizarFichero(logs.get(desde), csvs));
+                    } catch (IOException e) {
+                        System.err.println("No se ha podido analizar " + logs.get(desde) + ": " + e.getMessage());
+                    }
+                }
+                return res;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            TareaAnalisis izq = new TareaAnalisis(logs, csvs, desde, mitad);
+            TareaAnalisis der = new TareaAnalisis(logs, csvs, mitad, hasta);
+            invokeAll(izq, der);
+            List<Informe> res = new ArrayList<>(izq.join());
+            res.addAll(der.join());
+            return res;
+        }
+    }
+
+    /**
+     * Analiza un fichero de log completo.
+     *
+     * @param log Fichero {@code aeron-*.log}.
+     * @param csvs Estadísticas CSV disponibles indexadas por timestamp.
+     * @return Informe del fichero.
+     * @throws IOException Si el fichero no se puede mapear.
+     */
+    static Informe analizarFichero(File log, Map<String, File> csvs) throws IOException {
+        Matcher m = NOMBRE_LOG.matcher(log.getName());
+        if (!m.matches()) {
+            throw new IOException("Nombre de log no reconocido: " + log.getName());
+        }
+        Informe inf = new Informe(log.getPath(), m.group(1),
+                Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3)), Integer.parseInt(m.group(4)),
+                m.group(5) != null ? Integer.parseInt(m.group(5)) : 1, m.group(6));
+
+        Parser parser = new Parser();
+        try (FileChannel ch = FileChannel.open(log.toPath(), StandardOpenOption.READ)) {
+            long tam = ch.size();
+            long pos = 0;
+            while (pos < tam) {
+                long len = Math.min(MAX_VENTANA, tam - pos);
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, len);
+                int consumido = parser.procesar(buf, (int) len, pos + len >= tam);
+                if (consumido == 0) {
+                    throw new IOException("Línea mayor que la ventana de mapeo en " + log.getName());
+                }
+                pos += consumido;
+            }
+            inf.bytes = tam;
+        }
+        inf.lineas = parser.lineas;
+        calcularMetricas(inf, parser.vuelos);
+        comprobar(inf);
+
+        File csv = csvs.get(inf.timestamp);
+        if (csv != null) {
+            inf.tiempoMedioCsvMs = mediaCsv(csv);
+        }
+        return inf;
+    }
+
+    /**
+     * Agrega las líneas temporales de los vuelos en las métricas del informe.
+     */
+    private static void calcularMetricas(Informe inf, Map<String, long[]> vuelos) {
+        long inicio = Long.MAX_VALUE;
+        long fin = Long.MIN_VALUE;
+        long sumEsperaAt = 0, nEsperaAt = 0;
+        long sumPuerta = 0, nPuerta = 0;
+        long sumEsperaDes = 0, nEsperaDes = 0;
+        long ocupacionPistas = 0, nPistas = 0;
+        long ocupacionPuertas = 0, nPuertas = 0;
+
+        for (long[] h : vuelos.values()) {
+            for (long t : h) {
+                if (t >= 0) {
+                    inicio = Math.min(inicio, t);
+                    fin = Math.max(fin, t);
+                }
+            }
+            if (h[H_DESPEGADO] >= 0) {
+                inf.vuelosCompletados++;
+            }
+            long d = intervalo(inf, h, H_SOLICITUD_ATERRIZAJE, H_ATERRIZAJE_AUTORIZADO);
+            if (d >= 0) {
+                sumEsperaAt += d;
+                nEsperaAt++;
+            }
+            d = intervalo(inf, h, H_PISTA_LIBERADA, H_PUERTA_LIBERADA);
+            if (d >= 0) {
+                sumPuerta += d;
+                nPuerta++;
+            }
+            d = intervalo(inf, h, H_SOLICITUD_DESPEGUE, H_DESPEGUE_AUTORIZADO);
+            if (d >= 0) {
+                sumEsperaDes += d;
+                nEsperaDes++;
+            }
+            d = intervalo(inf, h, H_ATERRIZAJE_AUTORIZADO, H_PISTA_LIBERADA);
+            if (d >= 0) {
+                ocupacionPistas += d;
+                nPistas++;
+            }
+            d = intervalo(inf, h, H_DESPEGUE_AUTORIZADO, H_DESPEGADO);
+            if (d >= 0) {
+                ocupacionPistas += d;
+                nPistas++;
+            }
+            d = intervalo(inf, h, H_ATERRIZAJE_AUTORIZADO, H_PUERTA_LIBERADA);
+            if (d >= 0) {
+                ocupacionPuertas += d;
+                nPuertas++;
+            }
+        }
+
+        inf.makespanMs = fin >= inicio ? fin - inicio : 0;
+        if (nEsperaAt > 0) {
+            inf.esperaAterrizajeMs = (double) sumEsperaAt / nEsperaAt;
+        }
+        if (nPuerta > 0) {
+            inf.estanciaPuertaMs = (double) sumPuerta / nPuerta;
+        }
+        if (nEsperaDes > 0) {
+            inf.esperaDespegueMs = (double) sumEsperaDes / nEsperaDes;
+        }
+        // Sin ningún intervalo de ocupación la utilización no se conoce (no es 0)
+        if (inf.makespanMs > 0 && nPistas > 0) {
+            inf.utilizacionPistas = (double) ocupacionPistas / (inf.makespanMs * (double) inf.pistas);
+        }
+        if (inf.makespanMs > 0 && nPuertas > 0) {
+            inf.utilizacionPuertas = (double) ocupacionPuertas / (inf.makespanMs * (double) inf.puertas);
+        }
+    }
+
+    /**
+     * Duración entre dos hitos de un vuelo.
+     *
+     * @return ms entre ambos, o -1 si falta alguno o el final es anterior al
+     * inicio (se cuenta como incoherencia).
+     */
+    private static long intervalo(Informe inf, long[] h, int desde, int hasta) {
+        if (h[desde] < 0 || h[hasta] < 0) {
+            return -1;
+        }
+        if (h[hasta] < h[desde]) {
+            inf.incoherencias++;
+            return -1;
+        }
+        return h[hasta] - h[desde];
+    }
+
+    /**
+     * Descarta las utilizaciones imposibles (más del 100% de los recursos
+     * durante el makespan) y avisa de los intervalos incoherentes: ambos
+     * indican que el log no sigue la línea temporal que espera el parser.
+     */
+    private static void comprobar(Informe inf) {
+        if (inf.utilizacionPistas > 1 || inf.utilizacionPuertas > 1) {
+            System.err.printf(Locale.ROOT, "%s: utilización imposible (pistas %.1f%%, puertas %.1f%%); se omite%n",
+                    inf.fichero, inf.utilizacionPistas * 100, inf.utilizacionPuertas * 100);
+            if (inf.utilizacionPistas > 1) {
+                inf.utilizacionPistas = Double.NaN;
+            }
+            if (inf.utilizacionPuertas > 1) {
+                inf.utilizacionPuertas = Double.NaN;
+            }
+        }
+        if (inf.incoherencias > 0) {
+            System.err.println(inf.fichero + ": " + inf.incoherencias
+                    + " intervalos con los hitos fuera de orden descartados");
+        }
+    }
+
+    /**
+     * Media de la columna "Tiempo total (ms)" de un fichero de estadísticas.
+     */
+    private static double mediaCsv(File csv) {
+        long suma = 0;
+        int n = 0;
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                Files.newInputStream(csv.toPath()), StandardCharsets.UTF_8))) {
+            br.readLine(); // Cabecera
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                String[] campos = linea.split(",");
+                if (campos.length >= 2) {
+                    try {
+                        suma += Long.parseLong(campos[1].trim());
+                        n++;
+                    } catch (NumberFormatException e) {
+                        // Línea no numérica: se ignora
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("No se ha podido leer " + csv + ": " + e.getMessage());
+        }
+        return n > 0 ? (double) suma / n : Double.NaN;
+    }
+
+    /**
+     * Formatea la tabla comparativa de informes.
+     */
+    public static String formatearInforme(List<Informe> informes) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-10s %5s %4s %4s %4s %-15s %6s %10s %9s %9s %9s %7s %7s %8s %9s%n",
+                "MODO", "AV", "PIS", "PUE", "OPE", "TIMESTAMP", "VUELOS", "MAKESPAN", "ESP.ATE", "PUERTA",
+                "ESP.DES", "%PIS", "%PUE", "VUELOS/s", "CSV(ms)"));
+        for (Informe i : informes) {
+            sb.append(String.format(Locale.ROOT, "%-10s %5d %4d %4d %4s %-15s %6d %10d %9s %9s %9s %7s %7s %8.2f %9s%n",
+                    i.modo, i.aviones, i.pistas, i.puertas,
+                    i.modo.equals("CONCURRENT") ? String.valueOf(i.operarios) : "-",
+                    i.timestamp, i.vuelosCompletados, i.makespanMs,
+                    celda(i.esperaAterrizajeMs, "%.1f"), celda(i.estanciaPuertaMs, "%.1f"),
+                    celda(i.esperaDespegueMs, "%.1f"), celda(i.utilizacionPistas * 100, "%.1f%%"),
+                    celda(i.utilizacionPuertas * 100, "%.1f%%"), i.getThroughput(),
+                    celda(i.tiempoMedioCsvMs, "%.1f")));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Exporta los informes en formato CSV.
+     */
+    public static String formatearCsv(List<Informe> informes) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("fichero,modo,aviones,pistas,puertas,operarios,timestamp,vuelos,makespan_ms,")
+                .append("espera_aterrizaje_ms,estancia_puerta_ms,espera_despegue_ms,")
+                .append("utilizacion_pistas,utilizacion_puertas,vuelos_por_s,tiempo_medio_csv_ms\n");
+        for (Informe i : informes) {
+            sb.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%s,%d,%d,%s,%s,%s,%s,%s,%.4f,%s%n",
+                    i.fichero, i.modo, i.aviones, i.pistas, i.puertas, i.operarios, i.timestamp,
+                    i.vuelosCompletados, i.makespanMs, campo(i.esperaAterrizajeMs, "%.3f"),
+                    campo(i.estanciaPuertaMs, "%.3f"), campo(i.esperaDespegueMs, "%.3f"),
+                    campo(i.utilizacionPistas, "%.4f"), campo(i.utilizacionPuertas, "%.4f"), i.getThroughput(),
+                    campo(i.tiempoMedioCsvMs, "%.3f")));
+        }
+        return sb.toString();
+    }
+
+    // Valor de la tabla, o "-" si no hay muestras
+    private static String celda(double v, String formato) {
+        return Double.isNaN(v) ? "-" : String.format(Locale.ROOT, formato, v);
+    }
+
+    // Valor del CSV, o vacío si no hay muestras
+    private static String campo(double v, String formato) {
+        return Double.isNaN(v) ? "" : String.format(Locale.ROOT, formato, v);
+    }
+
+    /**
+     * Analizador incremental de líneas sobre buffers mapeados. Mantiene el
+     * estado entre ventanas consecutivas del mismo fichero.
+     */
+    private static class Parser {
+
+        final Map<String, long[]> vuelos = new HashMap<>();
+        long lineas;
+        private long ultimoMs = -1;
+        private long desfaseDia = 0;
+
+        /**
+         * Procesa las líneas completas del buffer.
+         *
+         * @param b Buffer mapeado.
+         * @param lim Número de bytes válidos.
+         * @param ultimo Si es la última ventana del fichero.
+         * @return Bytes consumidos (hasta el final de la última línea
+         * completa).
+         */
+        int procesar(MappedByteBuffer b, int lim, boolean ultimo) {
+            int inicio = 0;
+            for (int i = 0; i < lim; i++) {
+                if (b.get(i) == '\n') {
+                    linea(b, inicio, i);
+                    inicio = i + 1;
+                }
+            }
+            if (ultimo && inicio < lim) {
+                linea(b, inicio, lim);
+                inicio = lim;
+            }
+            return inicio;
+        }
+
+        private void linea(MappedByteBuffer b, int ini, int fin) {
+            if (fin > ini && b.get(fin - 1) == '\r') {
+                fin--;
+            }
+            // [HH:mm:ss.SSS] [ORIGEN      ] mensaje
+            if (fin - ini < 18 || b.get(ini) != '[' || b.get(ini + 13) != ']' || b.get(ini + 15) != '[') {
+                return;
+            }
+            long ms = hora(b, ini + 1);
+            if (ms < 0) {
+                return;
+            }
+            lineas++;
+
+            // Cambio de día durante la ejecución
+            if (ultimoMs >= 0 && ms + desfaseDia < ultimoMs - MS_DIA / 2) {
+                desfaseDia += MS_DIA;
+            }
+            ms += desfaseDia;
+            ultimoMs = ms;
+
+            int oIni = ini + 16;
+            int oFin = indexOf(b, (byte) ']', oIni, fin);
+            if (oFin < 0 || oFin + 2 > fin) {
+                return;
+            }
+            int mIni = oFin + 2;
+            int oFinTrim = oFin;
+            while (oFinTrim > oIni && b.get(oFinTrim - 1) == ' ') {
+                oFinTrim--;
+            }
+
+            if (igual(b, oIni, oFinTrim, TO_ORIGEN)) {
+                lineaTorre(b, mIni, fin, ms);
+            } else {
+                lineaAvion(b, oIni, oFinTrim, mIni, fin, ms);
+            }
+        }
+
+        private void lineaAvion(MappedByteBuffer b, int oIni, int oFin, int mIni, int fin, long ms) {
+            // Mensaje "ID: texto"
+            int p = mIni + (oFin - oIni);
+            if (p + 2 > fin || b.get(p) != ':') {
+                return;
+            }
+            p += 2;
+            if (empieza(b, p, fin, AV_SOLICITUD) || empieza(b, p, fin, AV_SOLICITUD_SEC)) {
+                marcar(b, oIni, oFin, H_SOLICITUD_ATERRIZAJE, ms);
+            } else if (empieza(b, p, fin, AV_ATERRIZANDO)) {
+                // Si la torre no registró la autorización se usa la reacción del avión
+                marcar(b, oIni, oFin, H_ATERRIZAJE_AUTORIZADO, ms);
+            } else if (empieza(b, p, fin, AV_ATERRIZADO)) {
+                marcar(b, oIni, oFin, H_PISTA_LIBERADA, ms);
+            } else if (empieza(b, p, fin, AV_EMBARCADO)) {
+                marcar(b, oIni, oFin, H_PUERTA_LIBERADA, ms);
+            } else if (empieza(b, p, fin, AV_SOLICITUD_DESPEGUE) || empieza(b, p, fin, AV_SOLICITUD_DESPEGUE_SEC)) {
+                marcar(b, oIni, oFin, H_SOLICITUD_DESPEGUE, ms);
+            } else if (empieza(b, p, fin, AV_DESPEGANDO)) {
+                marcar(b, oIni, oFin, H_DESPEGUE_AUTORIZADO, ms);
+            } else if (empieza(b, p, fin, AV_DESPEGADO)) {
+                marcar(b, oIni, oFin, H_DESPEGADO, ms);
+            } else {
+                // Mensaje desconocido: al menos se registra el vuelo
+                vuelo(b, oIni, oFin);
+            }
+        }
+
+        private void lineaTorre(MappedByteBuffer b, int mIni, int fin, long ms) {
+            if (empieza(b, mIni, fin, TO_AUT_ATERRIZAJE)) {
+                marcarTorre(b, mIni + TO_AUT_ATERRIZAJE.length, fin, H_ATERRIZAJE_AUTORIZADO, ms);
+            } else if (empieza(b, mIni, fin, TO_REA_ATERRIZAJE)) {
+                marcarTorre(b, mIni + TO_REA_ATERRIZAJE.length, fin, H_ATERRIZAJE_AUTORIZADO, ms);
+            } else if (empieza(b, mIni, fin, TO_AUT_DESPEGUE)) {
+                marcarTorre(b, mIni + TO_AUT_DESPEGUE.length, fin, H_DESPEGUE_AUTORIZADO, ms);
+            } else if (empieza(b, mIni, fin, TO_REA_DESPEGUE)) {
+                marcarTorre(b, mIni + TO_REA_DESPEGUE.length, fin, H_DESPEGUE_AUTORIZADO, ms);
+            } else if (empieza(b, mIni, fin, TO_PISTA_LIBERADA)) {
+                marcarTorre(b, mIni + TO_PISTA_LIBERADA.length, fin, H_PISTA_LIBERADA, ms);
+            } else if (empieza(b, mIni, fin, TO_PUERTA_LIBERADA)) {
+                marcarTorre(b, mIni + TO_PUERTA_LIBERADA.length, fin, H_PUERTA_LIBERADA, ms);
+            } else if (empieza(b, mIni, fin, TO_SECUENCIAL)) {
+                // "Secuencial: Procesando TIPO de ID". Las autorizaciones no
+                // salen de aquí: la petición puede quedar en ESPERA y
+                // concederse después (AUTORIZADO / RESUMING)
+                int tIni = mIni + TO_SECUENCIAL.length;
+                int de = indexOf(b, TO_DE, tIni, fin);
+                if (de < 0) {
+                    return;
+                }
+                int hito = hitoSecuencial(b, tIni, de);
+                if (hito >= 0) {
+                    marcarTorre(b, de + TO_DE.length, fin, hito, ms);
+                }
+            } else if (termina(b, mIni, fin, TO_DESPEGADO)) {
+                marcarTorre(b, mIni, fin - TO_DESPEGADO.length, H_DESPEGADO, ms);
+            }
+        }
+
+        private int hitoSecuencial(MappedByteBuffer b, int ini, int fin) {
+            if (igual(b, ini, fin, SEC_LANDED)) {
+                return H_PISTA_LIBERADA;
+            } else if (igual(b, ini, fin, SEC_BOARDED)) {
+                return H_PUERTA_LIBERADA;
+            } else if (igual(b, ini, fin, SEC_DEPARTED)) {
+                return H_DESPEGADO;
+            }
+            return -1;
+        }
+
+        private void marcarTorre(MappedByteBuffer b, int ini, int fin, int hito, long ms) {
+            while (fin > ini && b.get(fin - 1) == ' ') {
+                fin--;
+            }
+            marcar(b, ini, fin, hito, ms);
+        }
+
+        /**
+         * Registra un hito en la línea temporal. Solo se conserva la primera
+         * aparición: la torre escribe antes que la reacción del avión.
+         */
+        private void marcar(MappedByteBuffer b, int ini, int fin, int hito, long ms) {
+            long[] h = vuelo(b, ini, fin);
+            if (h != null && h[hito] < 0) {
+                h[hito] = ms;
+            }
+        }
+
+        private long[] vuelo(MappedByteBuffer b, int ini, int fin) {
+            if (fin <= ini) {
+                return null;
+            }
+            byte[] id = new byte[fin - ini];
+            for (int i = 0; i < id.length; i++) {
+                id[i] = b.get(ini + i);
+            }
+            String clave = new String(id, StandardCharsets.ISO_8859_1);
+            long[] h = vuelos.get(clave);
+            if (h == null) {
+                h = new long[NUM_HITOS];
+                Arrays.fill(h, -1);
+                vuelos.put(clave, h);
+            }
+            return h;
+        }
+    }
+
+    // --- Utilidades de comparación de bytes ---
+    private static long hora(MappedByteBuffer b, int p) {
+        int hh = dos(b, p), mm = dos(b, p + 3), ss = dos(b, p + 6);
+        int d0 = b.get(p + 9) - '0', d1 = b.get(p + 10) - '0', d2 = b.get(p + 11) - '0';
+        if (hh < 0 || mm < 0 || ss < 0 || d0 < 0 || d0 > 9 || d1 < 0 || d1 > 9 || d2 < 0 || d2 > 9) {
+            return -1;
+        }
+        return ((hh * 60L + mm) * 60 + ss) * 1000 + d0 * 100 + d1 * 10 + d2;
+    }
+
+    private static int dos(MappedByteBuffer b, int p) {
+        int a = b.get(p) - '0', c = b.get(p + 1) - '0';
+        return (a < 0 || a > 9 || c < 0 || c > 9) ? -1 : a * 10 + c;
+    }
+
+    private static boolean empieza(MappedByteBuffer b, int p, int fin, byte[] pref) {
+        if (fin - p < pref.length) {
+            return false;
+        }
+        for (int i = 0; i < pref.length; i++) {
+            if (b.get(p + i) != pref[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean termina(MappedByteBuffer b, int ini, int fin, byte[] suf) {
+        return fin - ini >= suf.length && empieza(b, fin - suf.length, fin, suf);
+    }
+
+    private static boolean igual(MappedByteBuffer b, int ini, int fin, byte[] s) {
+        return fin - ini == s.length && empieza(b, ini, fin, s);
+    }
+
+    private static int indexOf(MappedByteBuffer b, byte c, int ini, int fin) {
+        for (int i = ini; i < fin; i++) {
+            if (b.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(MappedByteBuffer b, byte[] s, int ini, int fin) {
+        for (int i = ini; i <= fin - s.length; i++) {
+            if (empieza(b, i, fin, s)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
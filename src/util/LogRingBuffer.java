@@ -0,0 +1,60 @@
+package util;
+
+/**
+ * Buffer circular acotado de líneas de log para los paneles de la GUI.
+ * <p>
+ * Los hilos de la simulación añaden líneas y el EDT las drena en cada
+ * fotograma. Si entre dos fotogramas llegan más líneas que la capacidad, las
+ * más antiguas se descartan (siguen estando en el log de disco), por lo que la
+ * memoria ocupada no depende de la duración de la ejecución.
+ * </p>
+ */
+public class LogRingBuffer {
+
+    private final String[] lineas;
+    // Contadores monótonos de líneas escritas y drenadas (protegidos por this)
+    private long escritas = 0;
+    private long drenadas = 0;
+
+    /**
+     * @param capacidad Número máximo de líneas retenidas.
+     */
+    public LogRingBuffer(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("Capacidad del buffer de log inválida: " + capacidad);
+        }
+        this.lineas = new String[capacidad];
+    }
+
+    public int getCapacidad() {
+        return lineas.length;
+    }
+
+    /**
+     * Añade una línea, sobrescribiendo la más antigua si está lleno.
+     */
+    public synchronized void add(String linea) {
+        lineas[(int) (escritas % lineas.length)] = linea;
+        escritas++;
+    }
+
+    /**
+     * Vuelca las líneas pendientes (las más recientes, como mucho la
+     * capacidad) al final del destino, separadas por salto de línea.
+     *
+     * @param destino Constructor donde se añade el texto.
+     * @return Número de líneas descartadas por desbordamiento desde el último
+     * drenado.
+     */
+    public synchronized long drenar(StringBuilder destino) {
+        long desde = Math.max(drenadas, escritas - lineas.length);
+        long descartadas = desde - drenadas;
+        for (long i = desde; i < escritas; i++) {
+            int slot = (int) (i % lineas.length);
+            destino.append(lineas[slot]).append('\n');
+            lineas[slot] = null; // Liberar la referencia
+        }
+        drenadas = escritas;
+        return descartadas;
+    }
+}
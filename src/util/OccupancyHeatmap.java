@@ -0,0 +1,251 @@
+package util;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import javax.swing.JComponent;
+
+/**
+ * Mapa de ocupación del aeropuerto dibujado a mano, pensado para cientos o
+ * miles de recursos.
+ * <p>
+ * Cada pista y cada puerta es una celda de color: verde si está libre y, si
+ * está ocupada, de naranja a rojo oscuro según el tiempo que lleva ocupada.
+ * Una franja superior muestra la longitud de las colas de la torre.
+ * </p>
+ * <p>
+ * El dibujo se hace sobre una imagen propia (doble buffer). En cada
+ * actualización solo se repintan en la imagen las celdas cuyo color ha
+ * cambiado y se pide a Swing que repinte únicamente el rectángulo que las
+ * engloba. Todos los métodos deben llamarse desde el EDT.
+ * </p>
+ */
+public class OccupancyHeatmap extends JComponent {
+
+    private static final int CELDA = 12;
+    private static final int HUECO = 2;
+    private static final int CABECERA = 22;
+    private static final int TITULO = 16;
+
+    // Tiempo de ocupación al que se alcanza el color más oscuro
+    private static final long PERMANENCIA_MAX_NANOS = 3_000_000_000L;
+    private static final int NIVELES = 16;
+    private static final int NIVEL_LIBRE = -1;
+
+    private static final Color FONDO = new Color(30, 30, 30);
+    private static final Color TEXTO = new Color(220, 220, 220);
+    private static final Color LIBRE = new Color(46, 160, 67);
+    private static final Color[] OCUPADO = new Color[NIVELES];
+
+    static {
+        // Degradado naranja -> rojo oscuro
+        for (int i = 0; i < NIVELES; i++) {
+            float t = i / (float) (NIVELES - 1);
+            OCUPADO[i] = new Color(240 - (int) (110 * t), 150 - (int) (140 * t), 20);
+        }
+    }
+
+    private BufferedImage imagen;
+    private int columnas = 1;
+
+    // Estado por celda: pistas primero y después puertas
+    private int numPistas;
+    private int numPuertas;
+    private long[] ocupadoDesde = new long[0];
+    private int[] nivel = new int[0];
+    private boolean[] pintada = new boolean[0];
+
+    private int colaPeticiones = -1;
+    private int esperaAterrizaje = -1;
+    private int esperaDespegue = -1;
+    private int ocupadas;
+
+    public OccupancyHeatmap() {
+        setOpaque(true);
+        setFont(new Font("Monospaced", Font.PLAIN, 12));
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                reconstruir();
+            }
+        });
+    }
+
+    /**
+     * Toma el estado actual de la torre y repinta lo que haya cambiado.
+     *
+     * @param runways Pistas de la torre.
+     * @param gates Puertas de la torre.
+     * @param metrics Métricas de la torre, de donde se leen las colas (puede
+     * ser null).
+     */
+    public void actualizar(List<Runway> runways, List<Gate> gates, TowerMetrics metrics) {
+        if (runways.size() != numPistas || gates.size() != numPuertas) {
+            numPistas = runways.size();
+            numPuertas = gates.size();
+            int n = numPistas + numPuertas;
+            ocupadoDesde = new long[n];
+            nivel = new int[n];
+            pintada = new boolean[n];
+            reconstruir();
+            revalidate();
+        }
+        if (imagen == null) {
+            return;
+        }
+
+        long ahora = System.nanoTime();
+        Rectangle sucio = null;
+        int total = 0;
+        Graphics2D g = imagen.createGraphics();
+        try {
+            for (int i = 0; i < numPistas + numPuertas; i++) {
+                boolean ocupada = i < numPistas
+                        ? !runways.get(i).isAvailable()
+                        : gates.get(i - numPistas).isOccupied();
+                int nuevo = NIVEL_LIBRE;
+                if (ocupada) {
+                    total++;
+                    if (ocupadoDesde[i] == 0) {
+                        ocupadoDesde[i] = ahora;
+                    }
+                    long permanencia = Math.min(ahora - ocupadoDesde[i], PERMANENCIA_MAX_NANOS);
+                    nuevo = (int) (permanencia * (NIVELES - 1) / PERMANENCIA_MAX_NANOS);
+                } else {
+                    ocupadoDesde[i] = 0;
+                }
+                if (!pintada[i] || nuevo != nivel[i]) {
+                    nivel[i] = nuevo;
+                    pintada[i] = true;
+                    Rectangle r = pintarCelda(g, i);
+                    sucio = sucio == null ? r : sucio.union(r);
+                }
+            }
+
+            int cola = metrics != null ? (int) metrics.getQueueDepth() : 0;
+            int espAt = metrics != null ? metrics.getWaitingForLanding() : 0;
+            int espDe = metrics != null ? metrics.getWaitingForTakeoff() : 0;
+            if (cola != colaPeticiones || espAt != esperaAterrizaje || espDe != esperaDespegue || total != ocupadas) {
+                colaPeticiones = cola;
+                esperaAterrizaje = espAt;
+                esperaDespegue = espDe;
+                ocupadas = total;
+                Rectangle r = pintarCabecera(g);
+                sucio = sucio == null ? r : sucio.union(r);
+            }
+        } finally {
+            g.dispose();
+        }
+
+        if (sucio != null) {
+            repaint(sucio);
+        }
+    }
+
+    /**
+     * Rehace la imagen completa (cambio de tamaño o de configuración).
+     */
+    private void reconstruir() {
+        int ancho = Math.max(getWidth(), CELDA + 2 * HUECO);
+        columnas = Math.max(1, (ancho - HUECO) / (CELDA + HUECO));
+        int alto = Math.max(getHeight(), alturaNecesaria());
+        imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = imagen.createGraphics();
+        try {
+            g.setColor(FONDO);
+            g.fillRect(0, 0, ancho, alto);
+            g.setFont(getFont());
+            g.setColor(TEXTO);
+            g.drawString("Pistas (" + numPistas + ")", HUECO, yTituloPistas() + TITULO - 4);
+            g.drawString("Puertas (" + numPuertas + ")", HUECO, yTituloPuertas() + TITULO - 4);
+            // Se vuelve a pintar el último estado conocido de cada celda
+            for (int i = 0; i < pintada.length; i++) {
+                if (pintada[i]) {
+                    pintarCelda(g, i);
+                }
+            }
+            if (colaPeticiones >= 0) {
+                pintarCabecera(g);
+            }
+        } finally {
+            g.dispose();
+        }
+        repaint();
+    }
+
+    private Rectangle pintarCelda(Graphics2D g, int i) {
+        Rectangle r = celda(i);
+        g.setColor(nivel[i] == NIVEL_LIBRE ? LIBRE : OCUPADO[nivel[i]]);
+        g.fillRect(r.x, r.y, r.width, r.height);
+        return r;
+    }
+
+    private Rectangle pintarCabecera(Graphics2D g) {
+        Rectangle r = new Rectangle(0, 0, imagen.getWidth(), CABECERA);
+        g.setColor(FONDO);
+        g.fillRect(r.x, r.y, r.width, r.height);
+        g.setFont(getFont());
+        FontMetrics fm = g.getFontMetrics();
+        g.setColor(TEXTO);
+        String texto = String.format("Cola: %d | Esp. aterrizaje: %d | Esp. despegue: %d | Ocupados: %d/%d",
+                colaPeticiones, esperaAterrizaje, esperaDespegue, ocupadas, numPistas + numPuertas);
+        g.drawString(texto, HUECO, (CABECERA + fm.getAscent() - fm.getDescent()) / 2);
+        return r;
+    }
+
+    // Geometría: cabecera, título de pistas, rejilla de pistas, título de
+    // puertas y rejilla de puertas
+    private int filas(int n) {
+        return (n + columnas - 1) / columnas;
+    }
+
+    private int yTituloPistas() {
+        return CABECERA;
+    }
+
+    private int yTituloPuertas() {
+        return yTituloPistas() + TITULO + filas(numPistas) * (CELDA + HUECO) + HUECO;
+    }
+
+    private int alturaNecesaria() {
+        return yTituloPuertas() + TITULO + filas(numPuertas) * (CELDA + HUECO) + HUECO;
+    }
+
+    private Rectangle celda(int i) {
+        int y0;
+        int k;
+        if (i < numPistas) {
+            y0 = yTituloPistas() + TITULO;
+            k = i;
+        } else {
+            y0 = yTituloPuertas() + TITULO;
+            k = i - numPistas;
+        }
+        int x = HUECO + (k % columnas) * (CELDA + HUECO);
+        int y = y0 + (k / columnas) * (CELDA + HUECO);
+        return new Rectangle(x, y, CELDA, CELDA);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(400, alturaNecesaria());
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (imagen == null || imagen.getWidth() < getWidth() || imagen.getHeight() < getHeight()) {
+            reconstruir();
+        }
+        // Swing recorta al rectángulo sucio: solo se copia esa zona de la imagen
+        g.drawImage(imagen, 0, 0, null);
+    }
+}
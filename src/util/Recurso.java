@@ -0,0 +1,180 @@
+package util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recurso del aeropuerto que ocupa un único avión a la vez (pista o puerta).
+ * <p>
+ * El estado es una referencia atómica a la reserva en curso (avión e instante
+ * de ocupación), sin monitores: {@link #tryClaim} la toma con una única CAS y
+ * {@link #release} solo la suelta su dueño, así que varios hilos pueden
+ * repartirse los recursos sin un cerrojo exterior. El tiempo ocupado se
+ * acumula al liberar, para calcular la utilización de cada recurso. La
+ * capacidad indica la mayor {@link ClaseAvion} que admite.
+ * </p>
+ */
+public abstract class Recurso {
+
+    private final String id;
+    private final ClaseAvion capacidad;
+    private final AtomicReference<Reserva> reserva = new AtomicReference<>();
+    // Tiempo ocupado por las reservas ya cerradas (ns)
+    private final AtomicLong nanosOcupado = new AtomicLong();
+
+    /**
+     * @param id Identificador del recurso.
+     * @param tipo Nombre del tipo para el mensaje de error.
+     * @param capacidad Mayor clase de avión que admite.
+     */
+    protected Recurso(String id, String tipo, ClaseAvion capacidad) {
+        if (id == null || id.isEmpty()) {
+            throw new IllegalArgumentException("ID de " + tipo + " inválido");
+        }
+        this.id = id;
+        this.capacidad = capacidad;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ClaseAvion getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * @return true si el recurso admite aviones de la clase indicada.
+     */
+    public boolean admite(ClaseAvion clase) {
+        return clase.cabeEn(capacidad);
+    }
+
+    /**
+     * Ocupa el recurso si está libre.
+     *
+     * @param owner Avión que lo ocupa.
+     * @return true si el recurso era libre y ahora es de {@code owner}.
+     */
+    public boolean tryClaim(String owner) {
+        return tryClaim(owner, System.nanoTime());
+    }
+
+    /**
+     * Ocupa el recurso si está libre, con el instante indicado (relojes
+     * simulados).
+     *
+     * @param owner Avión que lo ocupa.
+     * @param nanos Instante de ocupación en la escala de
+     * {@link System#nanoTime()}.
+     * @return true si el recurso era libre y ahora es de {@code owner}.
+     */
+    public boolean tryClaim(String owner, long nanos) {
+        return reserva.get() == null && reserva.compareAndSet(null, new Reserva(owner, nanos));
+    }
+
+    /**
+     * Libera el recurso si lo ocupa {@code owner}.
+     *
+     * @return false si el recurso no era de {@code owner}.
+     */
+    public boolean release(String owner) {
+        return release(owner, System.nanoTime());
+    }
+
+    /**
+     * Libera el recurso si lo ocupa {@code owner}, con el instante indicado.
+     *
+     * @return false si el recurso no era de {@code owner}.
+     */
+    public boolean release(String owner, long nanos) {
+        Reserva r = reserva.get();
+        if (r == null || !r.owner.equals(owner) || !reserva.compareAndSet(r, null)) {
+            return false;
+        }
+        nanosOcupado.addAndGet(Math.max(0, nanos - r.desde));
+        return true;
+    }
+
+    /**
+     * @return true si algún avión ocupa el recurso (lectura sin cerrojo).
+     */
+    protected boolean reservado() {
+        return reserva.get() != null;
+    }
+
+    /**
+     * @return Avión que ocupa el recurso, o null si está libre.
+     */
+    public String getOwner() {
+        Reserva r = reserva.get();
+        return r != null ? r.owner : null;
+    }
+
+    /**
+     * @return Instante de ocupación ({@link System#nanoTime()}), o -1 si está
+     * libre.
+     */
+    public long getClaimedAt() {
+        Reserva r = reserva.get();
+        return r != null ? r.desde : -1;
+    }
+
+    /**
+     * Tiempo ocupado acumulado, incluida la reserva en curso hasta
+     * {@code ahora}.
+     *
+     * @param ahora Instante de la consulta ({@link System#nanoTime()}).
+     * @return Nanosegundos ocupados.
+     */
+    public long getNanosOcupado(long ahora) {
+        Reserva r = reserva.get();
+        long cerradas = nanosOcupado.get();
+        return r != null ? cerradas + Math.max(0, ahora - r.desde) : cerradas;
+    }
+
+    /**
+     * Escribe la reserva en curso y el tiempo ocupado para un checkpoint. El
+     * instante de ocupación se guarda relativo al origen del reloj.
+     *
+     * @param origen Origen del reloj de la simulación
+     * ({@link System#nanoTime()}).
+     */
+    public void guardarEstado(DataOutputStream out, long origen) throws IOException {
+        Reserva r = reserva.get();
+        out.writeUTF(r != null ? r.owner : "");
+        out.writeLong(r != null ? r.desde - origen : 0);
+        out.writeLong(nanosOcupado.get());
+    }
+
+    /**
+     * Lee el estado escrito con {@link #guardarEstado}. Si el recurso está en
+     * un {@link IndiceRecursos}, hay que llamar después a
+     * {@link IndiceRecursos#reindexar()}.
+     *
+     * @param origen Origen del reloj de la simulación reanudada.
+     */
+    public void restaurarEstado(DataInputStream in, long origen) throws IOException {
+        String owner = in.readUTF();
+        long desde = in.readLong() + origen;
+        reserva.set(owner.isEmpty() ? null : new Reserva(owner, desde));
+        nanosOcupado.set(in.readLong());
+    }
+
+    /**
+     * Reserva en curso: inmutable, se sustituye entera con CAS.
+     */
+    private static final class Reserva {
+
+        final String owner;
+        final long desde;
+
+        Reserva(String owner, long desde) {
+            this.owner = owner;
+            this.desde = desde;
+        }
+    }
+}
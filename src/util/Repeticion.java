@@ -0,0 +1,278 @@
+package util;
+
+import exceptions.AeronConfigException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Grabación y reproducción del orden en que la torre procesa las peticiones.
+ * <p>
+ * En una ejecución concurrente el orden depende del planificador del sistema
+ * operativo. Al grabar se anota, por cada petición procesada, su clave
+ * ({@code AVION TIPO}) y la decisión de la torre (recursos concedidos,
+ * esperas y reanudaciones). Al reproducir, los operarios extraen de la cola
+ * exactamente la petición que toca y la procesan por turnos en el mismo
+ * orden, de modo que las decisiones se repiten; cada decisión se compara con
+ * la grabada y las diferencias se cuentan como divergencias.
+ * </p>
+ * <p>
+ * El fichero incluye el escenario (semilla incluida), así que basta con él
+ * para repetir la ejecución. Los tiempos de espera siguen siendo reales: se
+ * repite el orden y las decisiones, no el reloj.
+ * </p>
+ */
+public class Repeticion {
+
+    public enum Modo {
+        LIBRE, GRABAR, REPRODUCIR
+    }
+
+    private static final String CABECERA = "# AERON grabación v1";
+    private static final String INICIO_DECISIONES = "DECISIONES";
+    private static final String PREFIJO_ESCENARIO = "escenario.";
+
+    // Si la petición esperada no llega en este tiempo, se deja de forzar el orden
+    private static final long PACIENCIA_NANOS = 5_000_000_000L;
+
+    private final Modo modo;
+    private final Escenario escenario;
+
+    // Grabación: "clave|decisión" en orden de proceso
+    private final List<String> claves = new ArrayList<>();
+    private final List<String> decisiones = new ArrayList<>();
+
+    // Reproducción
+    private int extraidas = 0;
+    private int procesadas = 0;
+    private int divergencias = 0;
+    private boolean desincronizada = false;
+    private long ultimaExtraccion = System.nanoTime();
+
+    private Repeticion(Modo modo, Escenario escenario) {
+        this.modo = modo;
+        this.escenario = escenario;
+    }
+
+    /**
+     * Sin grabación ni reproducción (ejecución normal).
+     */
+    public static Repeticion libre() {
+        return new Repeticion(Modo.LIBRE, null);
+    }
+
+    /**
+     * Graba las decisiones de una ejecución del escenario indicado.
+     */
+    public static Repeticion grabar(Escenario escenario) {
+        return new Repeticion(Modo.GRABAR, escenario);
+    }
+
+    /**
+     * Carga una grabación para reproducirla.
+     *
+     * @param fichero Fichero escrito con {@link #guardar(File)}.
+     * @throws AeronConfigException Si el fichero no existe o no es una
+     * grabación válida.
+     */
+    public static Repeticion cargar(File fichero) throws AeronConfigException {
+        StringBuilder propiedades = new StringBuilder();
+        List<String> lineas = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(fichero), StandardCharsets.UTF_8))) {
+            String linea = in.readLine();
+            if (!CABECERA.equals(linea)) {
+                throw new AeronConfigException("'" + fichero + "' no es una grabación de AERON.");
+            }
+            boolean enDecisiones = false;
+            while ((linea = in.readLine()) != null) {
+                if (enDecisiones) {
+                    lineas.add(linea);
+                } else if (linea.equals(INICIO_DECISIONES)) {
+                    enDecisiones = true;
+                } else if (linea.startsWith(PREFIJO_ESCENARIO)) {
+                    propiedades.append(linea.substring(PREFIJO_ESCENARIO.length())).append('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new AeronConfigException("No se puede leer la grabación '" + fichero + "': " + e.getMessage());
+        }
+
+        Properties p = new Properties();
+        try {
+            p.load(new StringReader(propiedades.toString()));
+        } catch (IOException e) {
+            throw new AeronConfigException("Escenario ilegible en la grabación '" + fichero + "'.");
+        }
+        Escenario escenario = Escenario.desde(p, Escenario.porDefecto("CONCURRENT", 0, 0, 0, 0));
+        Repeticion r = new Repeticion(Modo.REPRODUCIR, escenario);
+        for (String l : lineas) {
+            int sep = l.indexOf('|');
+            if (sep < 0) {
+                throw new AeronConfigException("Línea de grabación no válida: '" + l + "'.");
+            }
+            r.claves.add(l.substring(0, sep));
+            r.decisiones.add(l.substring(sep + 1));
+        }
+        return r;
+    }
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    /**
+     * @return true si se están registrando o comparando decisiones.
+     */
+    public boolean activa() {
+        return modo != Modo.LIBRE;
+    }
+
+    /**
+     * @return true si se está forzando el orden de una grabación.
+     */
+    public synchronized boolean reproduciendo() {
+        return modo == Modo.REPRODUCIR && !desincronizada;
+    }
+
+    /**
+     * @return Escenario grabado (o null en modo libre).
+     */
+    public Escenario getEscenario() {
+        return escenario;
+    }
+
+    /**
+     * Extrae de la cola la siguiente petición a procesar. Fuera de la
+     * reproducción es {@link Queue#poll()}; al reproducir es la petición
+     * grabada en la posición siguiente, o null si todavía no ha llegado. Debe
+     * llamarse con el cerrojo de la cola tomado.
+     *
+     * @param cola Cola de peticiones de la torre.
+     * @param clave Clave ({@code AVION TIPO}) de una petición.
+     */
+    public synchronized <T> T extraer(Queue<T> cola, Function<T, String> clave) {
+        if (!reproduciendo()) {
+            return cola.poll();
+        }
+        if (extraidas >= claves.size()) {
+            // La ejecución tiene más peticiones que la grabación
+            desincronizar();
+            return cola.poll();
+        }
+        String esperada = claves.get(extraidas);
+        for (Iterator<T> it = cola.iterator(); it.hasNext();) {
+            T req = it.next();
+            if (esperada.equals(clave.apply(req))) {
+                it.remove();
+                extraidas++;
+                ultimaExtraccion = System.nanoTime();
+                return req;
+            }
+        }
+        if (!cola.isEmpty() && System.nanoTime() - ultimaExtraccion > PACIENCIA_NANOS) {
+            System.err.println("Reproducción desincronizada: no llega la petición '" + esperada + "'.");
+            desincronizar();
+            return cola.poll();
+        }
+        return null;
+    }
+
+    /**
+     * @return Turno de proceso de la última petición extraída.
+     */
+    public synchronized int turnoExtraido() {
+        return extraidas;
+    }
+
+    /**
+     * Al reproducir, bloquea hasta que se hayan procesado todas las
+     * peticiones anteriores al turno indicado. Varios operarios pueden
+     * extraer peticiones a la vez, pero las procesan en el orden grabado.
+     *
+     * @param turno Valor de {@link #turnoExtraido()} tras extraer la petición.
+     */
+    public synchronized void esperarTurno(int turno) throws InterruptedException {
+        while (reproduciendo() && procesadas < turno - 1) {
+            wait();
+        }
+    }
+
+    /**
+     * Registra la decisión tomada para una petición procesada. Al grabar la
+     * anota; al reproducir la compara con la grabada y cede el turno.
+     *
+     * @param clave Clave de la petición ({@code AVION TIPO}).
+     * @param decision Decisión de la torre.
+     */
+    public synchronized void registrar(String clave, String decision) {
+        if (modo == Modo.GRABAR) {
+            claves.add(clave);
+            decisiones.add(decision);
+        } else if (modo == Modo.REPRODUCIR) {
+            if (procesadas >= claves.size() || !claves.get(procesadas).equals(clave)
+                    || !decisiones.get(procesadas).equals(decision)) {
+                divergencias++;
+            }
+            procesadas++;
+            notifyAll();
+        }
+    }
+
+    private void desincronizar() {
+        desincronizada = true;
+        divergencias++;
+        notifyAll();
+    }
+
+    /**
+     * @return Peticiones procesadas (reproducción) o grabadas.
+     */
+    public synchronized int getDecisiones() {
+        return modo == Modo.REPRODUCIR ? procesadas : claves.size();
+    }
+
+    /**
+     * @return Decisiones distintas de las grabadas (0 si la reproducción es
+     * exacta).
+     */
+    public synchronized int getDivergencias() {
+        int faltan = modo == Modo.REPRODUCIR ? Math.max(0, claves.size() - procesadas) : 0;
+        return divergencias + faltan;
+    }
+
+    /**
+     * Escribe el escenario y las decisiones grabadas.
+     */
+    public synchronized void guardar(File fichero) throws IOException {
+        Properties p = escenario.aProperties();
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(fichero),
+                StandardCharsets.UTF_8))) {
+            out.println(CABECERA);
+            for (String k : new TreeSet<>(p.stringPropertyNames())) {
+                out.println(PREFIJO_ESCENARIO + k + "=" + p.getProperty(k));
+            }
+            out.println(INICIO_DECISIONES);
+            for (int i = 0; i < claves.size(); i++) {
+                out.println(claves.get(i) + "|" + decisiones.get(i));
+            }
+            if (out.checkError()) {
+                throw new IOException("error de escritura en " + fichero);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renderizador incremental del panel de recursos.
+ * <p>
+ * Produce exactamente el mismo texto que
+ * {@link AirportState#showResourcesStatus(List, List)}, pero la plantilla
+ * (marco, identificadores y relleno) se construye una sola vez por
+ * configuración del aeropuerto. En cada llamada solo se comparan los estados
+ * de pistas y puertas con los del fotograma anterior y se sobrescriben los
+ * dos caracteres del icono de las celdas que han cambiado. Si nada ha
+ * cambiado se devuelve la misma cadena sin asignar memoria.
+ * </p>
+ * <p>
+ * No es thread-safe: está pensado para usarse desde el EDT.
+ * </p>
+ */
+public class ResourcePanelRenderer {
+
+    // Ambos iconos ocupan dos unidades UTF-16 (par subrogado)
+    private static final String LIBRE = "🟢";
+    private static final String OCUPADO = "🔴";
+
+    private char[] buffer;
+    private int[] offsetPistas;
+    private int[] offsetPuertas;
+    private boolean[] ocupadaPista;
+    private boolean[] ocupadaPuerta;
+    private String[] idsPistas = new String[0];
+    private String[] idsPuertas = new String[0];
+
+    private String ultimo;
+
+    /**
+     * Devuelve el panel actualizado.
+     *
+     * @param runways Pistas del aeropuerto.
+     * @param gates Puertas del aeropuerto.
+     * @return Texto del panel (idéntico al de {@link AirportState}).
+     */
+    public String render(List<Runway> runways, List<Gate> gates) {
+        if (buffer == null || !mismaConfiguracion(runways, gates)) {
+            construirPlantilla(runways, gates);
+        }
+
+        boolean cambios = false;
+        for (int i = 0; i < offsetPistas.length; i++) {
+            boolean ocupada = !runways.get(i).isAvailable();
+            if (ocupada != ocupadaPista[i]) {
+                ocupadaPista[i] = ocupada;
+                pintarIcono(offsetPistas[i], ocupada);
+                cambios = true;
+            }
+        }
+        for (int i = 0; i < offsetPuertas.length; i++) {
+            boolean ocupada = gates.get(i).isOccupied();
+            if (ocupada != ocupadaPuerta[i]) {
+                ocupadaPuerta[i] = ocupada;
+                pintarIcono(offsetPuertas[i], ocupada);
+                cambios = true;
+            }
+        }
+
+        if (cambios || ultimo == null) {
+            ultimo = new String(buffer);
+        }
+        return ultimo;
+    }
+
+    private void pintarIcono(int offset, boolean ocupado) {
+        String icono = ocupado ? OCUPADO : LIBRE;
+        buffer[offset] = icono.charAt(0);
+        buffer[offset + 1] = icono.charAt(1);
+    }
+
+    private boolean mismaConfiguracion(List<Runway> runways, List<Gate> gates) {
+        if (runways.size() != idsPistas.length || gates.size() != idsPuertas.length) {
+            return false;
+        }
+        for (int i = 0; i < idsPistas.length; i++) {
+            if (!runways.get(i).getId().equals(idsPistas[i])) {
+                return false;
+            }
+        }
+        for (int i = 0; i < idsPuertas.length; i++) {
+            if (!gates.get(i).getId().equals(idsPuertas[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Construye la plantilla con todos los recursos libres y calcula la
+     * posición de cada icono en el buffer.
+     */
+    private void construirPlantilla(List<Runway> runways, List<Gate> gates) {
+        idsPistas = new String[runways.size()];
+        for (int i = 0; i < idsPistas.length; i++) {
+            idsPistas[i] = runways.get(i).getId();
+        }
+        idsPuertas = new String[gates.size()];
+        for (int i = 0; i < idsPuertas.length; i++) {
+            idsPuertas[i] = gates.get(i).getId();
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(" ESTADO DE RECURSOS ");
+        lines.add("Pistas:");
+        int[] colPistas = anadirFilas(lines, idsPistas);
+        int filaPistas = lines.size() - 1;
+        lines.add("");
+        lines.add("Puertas:");
+        int[] colPuertas = anadirFilas(lines, idsPuertas);
+        int filaPuertas = lines.size() - 1;
+
+        int max = 0;
+        for (String l : lines) {
+            max = Math.max(max, l.length());
+        }
+
+        // Mismo formato que AirportState.createBoxedStringFromLines
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n╔");
+        relleno(sb, '═', max);
+        sb.append("╗\n");
+        int[] inicioFila = new int[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            String l = lines.get(i);
+            sb.append("║");
+            inicioFila[i] = sb.length();
+            sb.append(l);
+            relleno(sb, ' ', max - l.length());
+            sb.append("║\n");
+        }
+        sb.append("╚");
+        relleno(sb, '═', max);
+        sb.append("╝");
+
+        buffer = sb.toString().toCharArray();
+        offsetPistas = new int[idsPistas.length];
+        for (int i = 0; i < offsetPistas.length; i++) {
+            offsetPistas[i] = inicioFila[filaPistas] + colPistas[i];
+        }
+        offsetPuertas = new int[idsPuertas.length];
+        for (int i = 0; i < offsetPuertas.length; i++) {
+            offsetPuertas[i] = inicioFila[filaPuertas] + colPuertas[i];
+        }
+        ocupadaPista = new boolean[idsPistas.length];
+        ocupadaPuerta = new boolean[idsPuertas.length];
+        ultimo = null;
+    }
+
+    /**
+     * Añade la fila de identificadores y la de iconos (todos libres).
+     *
+     * @return Columna del icono de cada recurso dentro de la fila de iconos.
+     */
+    private static int[] anadirFilas(List<String> lines, String[] ids) {
+        int[] columnas = new int[ids.length];
+        if (ids.length == 0) {
+            lines.add(" (Sin datos)");
+            return columnas;
+        }
+        StringBuilder sbId = new StringBuilder("  ");
+        StringBuilder sbSt = new StringBuilder("  ");
+        for (int i = 0; i < ids.length; i++) {
+            int w = Math.max(ids[i].length(), 2) + 3;
+            sbId.append(ids[i]);
+            relleno(sbId, ' ', w - ids[i].length());
+            columnas[i] = sbSt.length();
+            sbSt.append(LIBRE);
+            relleno(sbSt, ' ', w - LIBRE.length());
+        }
+        lines.add(sbId.toString());
+        lines.add(sbSt.toString());
+        return columnas;
+    }
+
+    private static void relleno(StringBuilder sb, char c, int n) {
+        for (int i = 0; i < n; i++) {
+            sb.append(c);
+        }
+    }
+}
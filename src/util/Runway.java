@@ -1,46 +1,97 @@
 package util;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 /**
  * Representa una pista de aterrizaje o despegue.
  * <p>
- * Recurso compartido que solo puede ser utilizado por un avión a la vez.
+ * Recurso compartido que solo puede ser utilizado por un avión a la vez. Se
+ * ocupa y libera con {@link #tryClaim} y {@link #release}. Al liberarla, la
+ * torre deja anotada la estela del avión que sale para aplicar la
+ * {@link Separacion} al siguiente.
  * </p>
  */
-public class Runway {
+public class Runway extends Recurso {
 
-    private final String id;
-    private boolean available = true;
+    // Último avión que la dejó libre (null = sin estela)
+    private volatile Estela estela;
 
     /**
      * @param id Identificador de la pista (ej. "P1").
      */
     public Runway(String id) {
-        if (id == null || id.isEmpty()) {
-            throw new IllegalArgumentException("ID de pista inválido");
-        }
-        this.id = id;
+        this(id, ClaseAvion.JUMBO);
+    }
+
+    /**
+     * @param id Identificador de la pista.
+     * @param capacidad Mayor clase de avión que admite.
+     */
+    public Runway(String id, ClaseAvion capacidad) {
+        super(id, "pista", capacidad);
     }
 
-    public String getId() {
-        return id;
+    /**
+     * Comprueba si la pista está libre (lectura sin cerrojo).
+     */
+    public boolean isAvailable() {
+        return !reservado();
     }
 
     /**
-     * Comprueba si la pista está libre de forma sincronizada.
+     * Anota la estela del avión que deja libre la pista.
+     *
+     * @param clase Clase del avión.
+     * @param nanos Instante en que la deja ({@link System#nanoTime()}).
      */
-    public synchronized boolean isAvailable() {
-        return available;
+    public void dejarEstela(ClaseAvion clase, long nanos) {
+        estela = new Estela(clase, nanos);
     }
 
     /**
-     * Ocupa o libera la pista de forma sincronizada.
+     * @return Estela del último avión, o null si nadie ha usado la pista.
      */
-    public synchronized void setAvailable(boolean available) {
-        this.available = available;
+    public Estela getEstela() {
+        return estela;
+    }
+
+    /**
+     * Además de la reserva, guarda la estela (relativa al origen del reloj).
+     */
+    @Override
+    public void guardarEstado(DataOutputStream out, long origen) throws IOException {
+        super.guardarEstado(out, origen);
+        Estela e = estela;
+        out.writeByte(e != null ? e.clase.ordinal() : -1);
+        out.writeLong(e != null ? e.instante - origen : 0);
+    }
+
+    @Override
+    public void restaurarEstado(DataInputStream in, long origen) throws IOException {
+        super.restaurarEstado(in, origen);
+        int clase = in.readByte();
+        long instante = in.readLong() + origen;
+        estela = clase >= 0 ? new Estela(ClaseAvion.values()[clase], instante) : null;
     }
 
     @Override
     public String toString() {
-        return "Pista " + id;
+        return "Pista " + getId();
+    }
+
+    /**
+     * Clase del último avión e instante en que dejó la pista; inmutable.
+     */
+    public static final class Estela {
+
+        public final ClaseAvion clase;
+        public final long instante;
+
+        Estela(ClaseAvion clase, long instante) {
+            this.clase = clase;
+            this.instante = instante;
+        }
     }
 }
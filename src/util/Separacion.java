@@ -0,0 +1,137 @@
+package util;
+
+import java.util.List;
+
+/**
+ * Separación mínima por estela turbulenta entre dos operaciones seguidas en
+ * la misma pista.
+ * <p>
+ * La matriz indica, para cada clase del avión que abandona la pista (líder) y
+ * del que la usa a continuación (seguidor), cuántos ms deben pasar desde que
+ * la pista queda libre hasta que el seguidor empieza a aterrizar o despegar.
+ * El seguidor que recibe la pista antes de tiempo la mantiene ocupada
+ * mientras espera el hueco, así que la separación limita el número de
+ * operaciones por pista. Sin matriz (todo 0) la pista se puede reutilizar en
+ * el acto, como antes.
+ * </p>
+ */
+public final class Separacion {
+
+    /**
+     * Sin separación: la pista libre se puede usar en el acto.
+     */
+    public static final Separacion NINGUNA = new Separacion(new long[ClaseAvion.values().length][ClaseAvion.values().length]);
+
+    /**
+     * Con secuenciación por separación, aviones de cabeza de cada cola entre
+     * los que se elige el siguiente.
+     */
+    public static final int VENTANA = 4;
+
+    /**
+     * Veces que se puede adelantar a un avión antes de darle la pista sin
+     * mirar la estela (evita que espere indefinidamente).
+     */
+    public static final int MAX_ADELANTOS = 3;
+
+    private static final long NANOS_POR_MS = 1_000_000L;
+
+    // [líder][seguidor], en ms
+    private final long[][] ms;
+    private final boolean activa;
+
+    /**
+     * @param ms Separación en ms, indexada por {@code [líder][seguidor]} en el
+     * orden de {@link ClaseAvion}.
+     */
+    public Separacion(long[][] ms) {
+        int n = ClaseAvion.values().length;
+        this.ms = new long[n][n];
+        boolean alguna = false;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                this.ms[i][j] = i < ms.length && j < ms[i].length ? ms[i][j] : 0;
+                alguna |= this.ms[i][j] > 0;
+            }
+        }
+        this.activa = alguna;
+    }
+
+    /**
+     * @return false si ninguna pareja de clases exige separación.
+     */
+    public boolean activa() {
+        return activa;
+    }
+
+    public long getMs(ClaseAvion lider, ClaseAvion seguidor) {
+        return ms[lider.ordinal()][seguidor.ordinal()];
+    }
+
+    /**
+     * Tiempo que un avión debe esperar en la pista por la estela del
+     * anterior.
+     *
+     * @param pista Pista candidata.
+     * @param seguidor Clase del avión que la usaría.
+     * @param ahora Instante actual ({@link System#nanoTime()} o reloj
+     * simulado en la misma escala).
+     * @return Nanosegundos de espera (0 si la estela ya se ha disipado).
+     */
+    public long esperaNanos(Runway pista, ClaseAvion seguidor, long ahora) {
+        Runway.Estela e = pista.getEstela();
+        if (e == null) {
+            return 0;
+        }
+        return Math.max(0, e.instante + getMs(e.clase, seguidor) * NANOS_POR_MS - ahora);
+    }
+
+    /**
+     * Elige, sin ocuparla, la pista libre compatible con menor espera por
+     * estela; a igual espera, la de menor capacidad y después la primera de
+     * la lista.
+     *
+     * @return Pista elegida, o null si no hay ninguna libre compatible.
+     */
+    public Runway elegir(List<Runway> pistas, ClaseAvion seguidor, long ahora) {
+        Runway mejor = null;
+        long menor = Long.MAX_VALUE;
+        for (Runway r : pistas) {
+            if (!r.isAvailable() || !r.admite(seguidor)) {
+                continue;
+            }
+            long espera = esperaNanos(r, seguidor, ahora);
+            if (espera < menor || (espera == menor && r.getCapacidad().compareTo(mejor.getCapacidad()) < 0)) {
+                mejor = r;
+                menor = espera;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * @return Matriz en el formato de las claves {@code separacion.LIDER} del
+     * escenario: una fila por líder, ms por seguidor.
+     */
+    public String describir() {
+        if (!activa) {
+            return "ninguna";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (ClaseAvion lider : ClaseAvion.values()) {
+            sb.append(sb.length() > 0 ? " " : "").append(lider).append('=').append(fila(lider));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return Separaciones tras un líder, por seguidor, separadas por comas.
+     */
+    public String fila(ClaseAvion lider) {
+        StringBuilder sb = new StringBuilder();
+        for (long v : ms[lider.ordinal()]) {
+            sb.append(sb.length() > 0 ? "," : "").append(v);
+        }
+        return sb.toString();
+    }
+}
@@ -15,33 +15,38 @@ import java.util.Date;
  * ficheros de texto. Organiza los ficheros en directorios separados según el
  * modo de ejecución (Secuencial o Concurrente).
  * </p>
+ * <p>
+ * Cada simulación tiene su propia instancia (ver {@link ContextoSimulacion}),
+ * por lo que varias ejecuciones pueden convivir en la misma JVM.
+ * </p>
  */
 public class SimulationLogger {
 
-    private static PrintWriter logWriter;
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("HH:mm:ss.SSS");
-    private static String currentFileName;
+    private PrintWriter logWriter;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+    private String currentFileName;
 
     /**
      * Configura el sistema de logs, creando la estructura de directorios
      * necesaria y el fichero de salida con el nombre formateado.
      *
+     * @param base Directorio donde se crea {@code logs/}.
      * @param mode Modo de ejecución ("CONCURRENT" o "SEQUENTIAL").
      * @param nAviones Número de aviones en la simulación.
      * @param nPistas Número de pistas.
      * @param nPuertas Número de puertas.
      * @param nOperarios Número de operarios (solo relevante en concurrente).
      */
-    public static void setup(String mode, int nAviones, int nPistas, int nPuertas, int nOperarios) {
+    public SimulationLogger(File base, String mode, int nAviones, int nPistas, int nPuertas, int nOperarios) {
         String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
 
         // --- 1. Determinar subcarpeta según el modo ---
         // Si el modo contiene "SEQUENTIAL", va a logs/secuencial, si no a logs/concurrent
         String subFolder = mode.toUpperCase().contains("SEQUENTIAL") ? "secuencial" : "concurrent";
-        String folderPath = "logs/" + subFolder;
+        File directory = new File(base, "logs/" + subFolder);
+        String folderPath = directory.getPath();
 
         // --- 2. Crear estructura de directorios ---
-        File directory = new File(folderPath);
         if (!directory.exists()) {
             boolean created = directory.mkdirs(); // Crea carpetas padre si faltan
             if (created) {
@@ -80,7 +85,7 @@ public class SimulationLogger {
     /**
      * Escribe la cabecera inicial del fichero de log.
      */
-    private static void printHeader(String mode, int av, int pi, int pu, int op) {
+    private void printHeader(String mode, int av, int pi, int pu, int op) {
         logWriter.println("====================================================================");
         logWriter.println("   AERON AIRPORT SIMULATOR - BITÁCORA DE VUELO");
         logWriter.println("====================================================================");
@@ -99,7 +104,7 @@ public class SimulationLogger {
      * @param source Identificador del origen (ej. "TORRE", "IBE-001").
      * @param message Mensaje descriptivo del evento.
      */
-    public static synchronized void log(String source, String message) {
+    public synchronized void log(String source, String message) {
         if (logWriter != null) {
             String timestamp = dateFormat.format(new Date());
             // Formato alineado: [HH:mm:ss.SSS] [ORIGEN      ] Mensaje
@@ -115,7 +120,7 @@ public class SimulationLogger {
     /**
      * Cierra el flujo de escritura del log y finaliza el archivo.
      */
-    public static void close() {
+    public synchronized void close() {
         if (logWriter != null) {
             logWriter.println("\n====================================================================");
             logWriter.println("   FIN DE LA SIMULACIÓN");
@@ -0,0 +1,455 @@
+package util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métricas en vivo de una torre de control expuestas por JMX.
+ * <p>
+ * Los contadores son {@link LongAdder} (contadores repartidos por celdas), por
+ * lo que registrar una petición no añade contención entre productores ni
+ * operarios. Los indicadores instantáneos (gauges) se calculan solo cuando se
+ * consultan, a partir de funciones proporcionadas por la torre.
+ * </p>
+ * <p>
+ * Las peticiones que no se pueden conceder (sin pista, sin puerta o con la
+ * cola principal llena) son situaciones normales bajo carga: se cuentan por
+ * tipo de recurso con {@link #rechazo} y {@link #avisarRechazos} las resume
+ * por {@code System.err} como mucho una vez por segundo, en lugar de
+ * construir una excepción y escribir una línea por cada una. La línea lleva
+ * el nombre JMX de la torre para distinguir ejecuciones simultáneas.
+ * </p>
+ */
+public class TowerMetrics implements TowerMetricsMXBean {
+
+    /**
+     * Motivo por el que la torre no ha podido atender una petición en el
+     * acto.
+     */
+    public enum Rechazo {
+        PISTA("sin pista"), PUERTA("sin puerta"), COLA("reintentos por cola llena");
+
+        private final String descripcion;
+
+        Rechazo(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    // Intervalo mínimo entre resúmenes de rechazos por stderr
+    private static final long AVISO_NANOS = 1_000_000_000L;
+
+    // Ventana mínima entre muestras para el cálculo de tasas
+    private static final long VENTANA_NANOS = 1_000_000_000L;
+    private static final AtomicInteger instancias = new AtomicInteger(0);
+
+    private final String mode;
+    // Nombre de la torre en JMX (p. ej. CONCURRENT-3); identifica la ejecución
+    private volatile String nombre;
+    private final IntSupplier permisosPistas;
+    private final IntSupplier esperaAterrizaje;
+    private final IntSupplier esperaDespegue;
+    private final List<Runway> runways;
+    private final List<Gate> gates;
+    // Origen de la utilización acumulada; se retrasa al reanudar un
+    // checkpoint para contar el tiempo ya simulado
+    private volatile long inicioNanos = System.nanoTime();
+
+    private final LongAdder recibidas = new LongAdder();
+    private final LongAdder extraidas = new LongAdder();
+    private volatile LongAdder[] porOperario = new LongAdder[0];
+    // Profundidad exacta y composición de la cola (null = no disponibles)
+    private volatile IntSupplier profundidadCola;
+    private volatile Supplier<int[]> composicionCola;
+
+    // Rechazos por motivo; el resumen solo lo escribe el hilo que gana la CAS
+    private final LongAdder[] rechazos = new LongAdder[Rechazo.values().length];
+    private final AtomicLong proximoAviso = new AtomicLong(System.nanoTime() + AVISO_NANOS);
+    // Cuentas y instante del último resumen (protegidos por avisos)
+    private final Object avisos = new Object();
+    private final long[] avisados = new long[Rechazo.values().length];
+    private long ultimoAviso = System.nanoTime();
+
+    // Última muestra para las tasas (protegida por this)
+    private long muestraNanos = System.nanoTime();
+    private long[] muestraCuentas = new long[0];
+    private double[] tasas = new double[0];
+
+    private ObjectName nombreJmx;
+
+    /**
+     * @param mode Modo de la torre.
+     * @param permisosPistas Pistas disponibles.
+     * @param esperaAterrizaje Tamaño de la cola de espera de aterrizaje.
+     * @param esperaDespegue Tamaño de la cola de espera de despegue.
+     * @param runways Pistas de la torre.
+     * @param gates Puertas de la torre.
+     */
+    public TowerMetrics(String mode, IntSupplier permisosPistas, IntSupplier esperaAterrizaje,
+            IntSupplier esperaDespegue, List<Runway> runways, List<Gate> gates) {
+        this.mode = mode;
+        this.nombre = mode;
+        this.permisosPistas = permisosPistas;
+        this.esperaAterrizaje = esperaAterrizaje;
+        this.esperaDespegue = esperaDespegue;
+        this.runways = runways;
+        this.gates = gates;
+        for (Rechazo r : Rechazo.values()) {
+            rechazos[r.ordinal()] = new LongAdder();
+        }
+    }
+
+    /**
+     * Reserva los contadores por operario. Debe llamarse antes de lanzar los
+     * operarios.
+     */
+    public void configurarOperarios(int nOperarios) {
+        LongAdder[] contadores = new LongAdder[nOperarios];
+        for (int i = 0; i < nOperarios; i++) {
+            contadores[i] = new LongAdder();
+        }
+        porOperario = contadores;
+    }
+
+    /**
+     * Fija cómo leer sin cerrojo la profundidad y la composición por tipo de
+     * la cola principal. Sin ellas la profundidad es la diferencia entre
+     * peticiones recibidas y extraídas.
+     */
+    public void configurarCola(IntSupplier profundidad, Supplier<int[]> composicion) {
+        this.profundidadCola = profundidad;
+        this.composicionCola = composicion;
+    }
+
+    /**
+     * Una petición ha entrado en la cola principal.
+     */
+    public void peticionRecibida() {
+        recibidas.increment();
+    }
+
+    /**
+     * Una petición ha salido de la cola principal.
+     */
+    public void peticionExtraida() {
+        extraidas.increment();
+    }
+
+    /**
+     * El operario indicado ha terminado de procesar una petición.
+     *
+     * @param operario Índice del operario (0..n-1).
+     */
+    public void peticionProcesada(int operario) {
+        LongAdder[] contadores = porOperario;
+        if (operario >= 0 && operario < contadores.length) {
+            contadores[operario].increment();
+        }
+    }
+
+    /**
+     * La torre no ha podido atender una petición en el acto. Solo cuenta:
+     * se puede llamar con los cerrojos de la torre tomados.
+     *
+     * @param motivo Recurso que faltaba.
+     */
+    public void rechazo(Rechazo motivo) {
+        rechazos[motivo.ordinal()].increment();
+    }
+
+    /**
+     * Si ha pasado el intervalo de aviso, escribe el resumen de rechazos. Debe
+     * llamarse sin cerrojos de la torre tomados: escribir por stderr puede
+     * bloquear.
+     */
+    public void avisarRechazos() {
+        long ahora = System.nanoTime();
+        long proximo = proximoAviso.get();
+        if (ahora - proximo >= 0 && proximoAviso.compareAndSet(proximo, ahora + AVISO_NANOS)) {
+            resumirRechazos();
+        }
+    }
+
+    /**
+     * Escribe por stderr los rechazos desde el último resumen, si los hay.
+     * La torre lo llama también al apagarse para no perder los últimos.
+     */
+    public void resumirRechazos() {
+        String linea;
+        synchronized (avisos) {
+            long ahora = System.nanoTime();
+            StringBuilder sb = new StringBuilder();
+            for (Rechazo r : Rechazo.values()) {
+                long total = rechazos[r.ordinal()].sum();
+                long nuevos = total - avisados[r.ordinal()];
+                avisados[r.ordinal()] = total;
+                if (nuevos > 0) {
+                    sb.append(sb.length() > 0 ? ", " : "").append(nuevos).append(' ').append(r.getDescripcion());
+                }
+            }
+            if (sb.length() == 0) {
+                return;
+            }
+            linea = String.format("Torre %s: %s en los últimos %.1f s", nombre, sb, (ahora - ultimoAviso) / 1e9);
+            ultimoAviso = ahora;
+        }
+        System.err.println(linea);
+    }
+
+    /**
+     * @return Rechazos por el motivo indicado desde el arranque de la torre.
+     */
+    public long getRechazos(Rechazo motivo) {
+        return rechazos[motivo.ordinal()].sum();
+    }
+
+    /**
+     * Escribe los contadores y el tiempo transcurrido para un checkpoint.
+     */
+    public void guardarEstado(DataOutputStream out) throws IOException {
+        out.writeLong(System.nanoTime() - inicioNanos);
+        out.writeLong(recibidas.sum());
+        out.writeLong(extraidas.sum());
+        long[] procesadas = getRequestsPerOperator();
+        out.writeInt(procesadas.length);
+        for (long p : procesadas) {
+            out.writeLong(p);
+        }
+        out.writeInt(rechazos.length);
+        for (LongAdder r : rechazos) {
+            out.writeLong(r.sum());
+        }
+    }
+
+    /**
+     * Suma los contadores escritos con {@link #guardarEstado} y retrasa el
+     * inicio para que la utilización incluya el tiempo ya simulado. Los
+     * rechazos restaurados no se vuelven a avisar.
+     */
+    public void restaurarEstado(DataInputStream in) throws IOException {
+        inicioNanos = System.nanoTime() - in.readLong();
+        recibidas.add(in.readLong());
+        extraidas.add(in.readLong());
+        LongAdder[] contadores = porOperario;
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            long p = in.readLong();
+            if (i < contadores.length) {
+                contadores[i].add(p);
+            }
+        }
+        n = in.readInt();
+        synchronized (avisos) {
+            for (int i = 0; i < n; i++) {
+                long r = in.readLong();
+                if (i < rechazos.length) {
+                    rechazos[i].add(r);
+                    avisados[i] += r;
+                }
+            }
+        }
+    }
+
+    /**
+     * Registra el MBean en el servidor de la plataforma. Los errores de
+     * registro no detienen la simulación.
+     */
+    public void registrar() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            int n = instancias.incrementAndGet();
+            nombre = mode + (n > 1 ? "-" + n : "");
+            nombreJmx = new ObjectName("aeron:type=ControlTower,name=" + nombre);
+            server.registerMBean(this, nombreJmx);
+        } catch (JMException e) {
+            System.err.println("No se han podido registrar las métricas JMX: " + e.getMessage());
+            nombreJmx = null;
+        }
+    }
+
+    /**
+     * Elimina el MBean del servidor de la plataforma.
+     */
+    public void desregistrar() {
+        if (nombreJmx != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(nombreJmx);
+            } catch (JMException e) {
+                // Ya no estaba registrado
+            }
+            nombreJmx = null;
+        }
+    }
+
+    /**
+     * @return Nombre de la torre en JMX ({@code name=} del MBean), o el modo
+     * si no se ha registrado.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    @Override
+    public String getMode() {
+        return mode;
+    }
+
+    @Override
+    public long getQueueDepth() {
+        IntSupplier profundidad = profundidadCola;
+        if (profundidad != null) {
+            return profundidad.getAsInt();
+        }
+        // Aproximado: ambas sumas no se leen de forma atómica
+        return Math.max(0, recibidas.sum() - extraidas.sum());
+    }
+
+    @Override
+    public int[] getQueueComposition() {
+        Supplier<int[]> composicion = composicionCola;
+        return composicion != null ? composicion.get() : new int[0];
+    }
+
+    @Override
+    public int getAvailableRunwayPermits() {
+        return permisosPistas.getAsInt();
+    }
+
+    @Override
+    public int getWaitingForLanding() {
+        return esperaAterrizaje.getAsInt();
+    }
+
+    @Override
+    public int getWaitingForTakeoff() {
+        return esperaDespegue.getAsInt();
+    }
+
+    @Override
+    public int getOccupiedGates() {
+        int n = 0;
+        for (Gate g : gates) {
+            if (g.isOccupied()) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int getTotalGates() {
+        return gates.size();
+    }
+
+    @Override
+    public double getGateOccupancy() {
+        return gates.isEmpty() ? 0 : (double) getOccupiedGates() / gates.size();
+    }
+
+    @Override
+    public double getRunwayUtilization() {
+        return utilizacion(runways);
+    }
+
+    @Override
+    public double getGateUtilization() {
+        return utilizacion(gates);
+    }
+
+    // Tiempo ocupado de todos los recursos entre el tiempo disponible
+    private double utilizacion(List<? extends Recurso> recursos) {
+        long ahora = System.nanoTime();
+        long transcurrido = ahora - inicioNanos;
+        if (recursos.isEmpty() || transcurrido <= 0) {
+            return 0;
+        }
+        long ocupado = 0;
+        for (Recurso r : recursos) {
+            ocupado += r.getNanosOcupado(ahora);
+        }
+        return (double) ocupado / ((double) transcurrido * recursos.size());
+    }
+
+    @Override
+    public long getRunwayRejections() {
+        return getRechazos(Rechazo.PISTA);
+    }
+
+    @Override
+    public long getGateRejections() {
+        return getRechazos(Rechazo.PUERTA);
+    }
+
+    @Override
+    public long getSaturationRetries() {
+        return getRechazos(Rechazo.COLA);
+    }
+
+    @Override
+    public long getRequestsReceived() {
+        return recibidas.sum();
+    }
+
+    @Override
+    public long getRequestsProcessed() {
+        long total = 0;
+        for (LongAdder c : porOperario) {
+            total += c.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long[] getRequestsPerOperator() {
+        LongAdder[] contadores = porOperario;
+        long[] res = new long[contadores.length];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = contadores[i].sum();
+        }
+        return res;
+    }
+
+    @Override
+    public synchronized double[] getRequestsPerSecondPerOperator() {
+        long ahora = System.nanoTime();
+        long[] cuentas = getRequestsPerOperator();
+        if (muestraCuentas.length != cuentas.length) {
+            // Primera consulta: tasa media desde el inicio de la ventana
+            muestraCuentas = new long[cuentas.length];
+            tasas = new double[cuentas.length];
+        }
+        long transcurrido = ahora - muestraNanos;
+        if (transcurrido >= VENTANA_NANOS) {
+            for (int i = 0; i < cuentas.length; i++) {
+                tasas[i] = (cuentas[i] - muestraCuentas[i]) * 1e9 / transcurrido;
+            }
+            muestraCuentas = cuentas;
+            muestraNanos = ahora;
+        }
+        return tasas.clone();
+    }
+
+    @Override
+    public double getRequestsPerSecond() {
+        double total = 0;
+        for (double t : getRequestsPerSecondPerOperator()) {
+            total += t;
+        }
+        return total;
+    }
+}
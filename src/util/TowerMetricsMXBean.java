@@ -0,0 +1,95 @@
+package util;
+
+/**
+ * Interfaz de gestión JMX de las métricas en vivo de una torre de control.
+ * <p>
+ * Registrada bajo {@code aeron:type=ControlTower,name=<MODO>} y consultable con
+ * las herramientas estándar del JDK (jconsole, jcmd, VisualVM).
+ * </p>
+ */
+public interface TowerMetricsMXBean {
+
+    /**
+     * @return Modo de la torre (CONCURRENT o SEQUENTIAL).
+     */
+    String getMode();
+
+    /**
+     * @return Peticiones pendientes en la cola principal.
+     */
+    long getQueueDepth();
+
+    /**
+     * @return Peticiones en la cola principal por tipo (LANDING, LANDED,
+     * BOARDING, BOARDED, TAKEOFF, DEPARTED), leídas sin cerrojo; vacío si la
+     * torre no lo ofrece (modo secuencial).
+     */
+    int[] getQueueComposition();
+
+    /**
+     * @return Permisos libres del semáforo de pistas (pistas libres en modo
+     * secuencial).
+     */
+    int getAvailableRunwayPermits();
+
+    int getWaitingForLanding();
+
+    int getWaitingForTakeoff();
+
+    int getOccupiedGates();
+
+    int getTotalGates();
+
+    /**
+     * @return Fracción de puertas ocupadas [0, 1].
+     */
+    double getGateOccupancy();
+
+    /**
+     * @return Fracción del tiempo desde el arranque de la torre en que las
+     * pistas han estado ocupadas [0, 1].
+     */
+    double getRunwayUtilization();
+
+    /**
+     * @return Fracción del tiempo desde el arranque de la torre en que las
+     * puertas han estado ocupadas [0, 1].
+     */
+    double getGateUtilization();
+
+    /**
+     * @return Aterrizajes y despegues que no han tenido pista en el acto.
+     */
+    long getRunwayRejections();
+
+    /**
+     * @return Aterrizajes con pista pero sin puerta compatible libre.
+     */
+    long getGateRejections();
+
+    /**
+     * @return Reintentos por encontrar llena la cola principal.
+     */
+    long getSaturationRetries();
+
+    long getRequestsReceived();
+
+    long getRequestsProcessed();
+
+    /**
+     * @return Peticiones procesadas por cada operario desde el inicio.
+     */
+    long[] getRequestsPerOperator();
+
+    /**
+     * @return Peticiones por segundo de cada operario en la última ventana de
+     * muestreo.
+     */
+    double[] getRequestsPerSecondPerOperator();
+
+    /**
+     * @return Peticiones por segundo (todos los operarios) en la última ventana
+     * de muestreo.
+     */
+    double getRequestsPerSecond();
+}
@@ -0,0 +1,72 @@
+package util;
+
+/**
+ * Trabajo de CPU de duración calibrada.
+ * <p>
+ * Simula el coste de procesar datos reales (validar un billete, asignar un
+ * asiento...) con una cadena de operaciones dependientes, de modo que el
+ * tiempo se consume de verdad en un núcleo: si hay más hilos que núcleos, el
+ * trabajo tarda más, igual que lo haría el procesamiento real. La velocidad
+ * de la máquina se mide una vez por JVM, la primera vez que se necesita.
+ * </p>
+ */
+public final class TrabajoCalibrado {
+
+    // Duración mínima de la medida de calibración
+    private static final long NANOS_CALIBRACION = 20_000_000L;
+
+    private static double iteracionesPorNano = 0;
+
+    private TrabajoCalibrado() {
+    }
+
+    /**
+     * @param nanos Duración deseada en un núcleo libre.
+     * @return Iteraciones de {@link #consumir(long, long)} que tardan
+     * aproximadamente esa duración.
+     */
+    public static long iteraciones(long nanos) {
+        return nanos <= 0 ? 0 : Math.max(1, Math.round(nanos * velocidad()));
+    }
+
+    /**
+     * Ejecuta el trabajo. El resultado depende de todas las iteraciones, así
+     * que el compilador no puede eliminarlas si se usa.
+     *
+     * @param iteraciones Iteraciones (ver {@link #iteraciones(long)}).
+     * @param semilla Valor inicial de la cadena.
+     * @return Valor final de la cadena.
+     */
+    public static long consumir(long iteraciones, long semilla) {
+        long x = semilla | 1;
+        for (long i = 0; i < iteraciones; i++) {
+            // xorshift64
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+        }
+        return x;
+    }
+
+    /**
+     * @return Iteraciones por nanosegundo de esta máquina.
+     */
+    public static synchronized double velocidad() {
+        if (iteracionesPorNano == 0) {
+            long sumidero = consumir(5_000_000, 1); // Calentamiento (JIT)
+            long n = 1_000_000;
+            long t;
+            while (true) {
+                long t0 = System.nanoTime();
+                sumidero ^= consumir(n, sumidero);
+                t = System.nanoTime() - t0;
+                if (t >= NANOS_CALIBRACION) {
+                    break;
+                }
+                n *= 2;
+            }
+            iteracionesPorNano = (double) n / t + (sumidero == 0 ? 1e-12 : 0);
+        }
+        return iteracionesPorNano;
+    }
+}
@@ -0,0 +1,190 @@
+package util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Marcas temporales ({@link System#nanoTime()}) del ciclo de vida de un
+ * vuelo, recursos asignados y resultado del embarque.
+ * <p>
+ * Cada avión mantiene su propia traza y la entrega a
+ * {@link EstadisticasVuelo} al finalizar, que deriva de ella la duración de
+ * cada fase.
+ * </p>
+ */
+public class TrazaVuelo {
+
+    /**
+     * Hitos del ciclo de vida, en orden cronológico.
+     */
+    public enum Hito {
+        SOLICITUD_ATERRIZAJE, ATERRIZAJE_AUTORIZADO, PISTA_LIBERADA, PUERTA_LIBERADA,
+        SOLICITUD_DESPEGUE, DESPEGUE_AUTORIZADO, DESPEGADO
+    }
+
+    private final long[] marcas = new long[Hito.values().length];
+
+    // Índices numéricos de los recursos asignados (P1 -> 1, G3 -> 3), -1 si no hay
+    private int pistaAterrizaje = -1;
+    private int puerta = -1;
+    private int pistaDespegue = -1;
+
+    // Embarque: pasaje, embarcados, rechazados y duración (-1 si no ha embarcado)
+    private int pasajeros = 0;
+    private int embarcados = 0;
+    private int rechazados = 0;
+    private long nanosEmbarque = -1;
+
+    /**
+     * Registra el instante actual para el hito indicado.
+     */
+    public void marcar(Hito hito) {
+        marcas[hito.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Registra un instante dado para el hito indicado (bucle de eventos
+     * secuencial, que marca el instante programado del evento).
+     *
+     * @param nanos Instante en la escala de {@link System#nanoTime()}.
+     */
+    public void marcar(Hito hito, long nanos) {
+        marcas[hito.ordinal()] = nanos;
+    }
+
+    /**
+     * @return Instante del hito en nanosegundos, o 0 si no se ha alcanzado.
+     */
+    public long get(Hito hito) {
+        return marcas[hito.ordinal()];
+    }
+
+    /**
+     * Anota los recursos concedidos para el aterrizaje.
+     */
+    public void recursosAterrizaje(Runway r, Gate g) {
+        pistaAterrizaje = indice(r != null ? r.getId() : null);
+        puerta = indice(g != null ? g.getId() : null);
+    }
+
+    /**
+     * Anota la pista concedida para el despegue.
+     */
+    public void recursoDespegue(Runway r) {
+        pistaDespegue = indice(r != null ? r.getId() : null);
+    }
+
+    /**
+     * Anota el resultado del embarque.
+     *
+     * @param nanos Duración del procesamiento del pasaje.
+     */
+    public void embarque(int pasajeros, int embarcados, int rechazados, long nanos) {
+        this.pasajeros = pasajeros;
+        this.embarcados = embarcados;
+        this.rechazados = rechazados;
+        this.nanosEmbarque = nanos;
+    }
+
+    public int getPasajeros() {
+        return pasajeros;
+    }
+
+    public int getEmbarcados() {
+        return embarcados;
+    }
+
+    public int getRechazados() {
+        return rechazados;
+    }
+
+    public long getNanosEmbarque() {
+        return nanosEmbarque;
+    }
+
+    public int getPistaAterrizaje() {
+        return pistaAterrizaje;
+    }
+
+    public int getPuerta() {
+        return puerta;
+    }
+
+    public int getPistaDespegue() {
+        return pistaDespegue;
+    }
+
+    /**
+     * Escribe la traza para un checkpoint. Las marcas se guardan relativas
+     * al origen del reloj, que cambia al reanudar.
+     *
+     * @param origen Origen del reloj de la simulación
+     * ({@link System#nanoTime()}).
+     */
+    public void guardarEstado(DataOutputStream out, long origen) throws IOException {
+        for (long m : marcas) {
+            out.writeLong(m == 0 ? -1 : m - origen);
+        }
+        out.writeInt(pistaAterrizaje);
+        out.writeInt(puerta);
+        out.writeInt(pistaDespegue);
+        out.writeInt(pasajeros);
+        out.writeInt(embarcados);
+        out.writeInt(rechazados);
+        out.writeLong(nanosEmbarque);
+    }
+
+    /**
+     * Lee una traza escrita con {@link #guardarEstado}.
+     *
+     * @param origen Origen del reloj de la simulación reanudada.
+     */
+    public void restaurarEstado(DataInputStream in, long origen) throws IOException {
+        for (int i = 0; i < marcas.length; i++) {
+            long m = in.readLong();
+            marcas[i] = m < 0 ? 0 : m + origen;
+        }
+        pistaAterrizaje = in.readInt();
+        puerta = in.readInt();
+        pistaDespegue = in.readInt();
+        pasajeros = in.readInt();
+        embarcados = in.readInt();
+        rechazados = in.readInt();
+        nanosEmbarque = in.readLong();
+    }
+
+    /**
+     * Extrae el sufijo numérico de un identificador de recurso.
+     *
+     * @return Número final del identificador, o -1 si no tiene.
+     */
+    public static int indice(String id) {
+        if (id == null) {
+            return -1;
+        }
+        int i = id.length();
+        while (i > 0 && Character.isDigit(id.charAt(i - 1))) {
+            i--;
+        }
+        if (i == id.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(id.substring(i));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Calcula el tiempo transcurrido entre dos hitos.
+     *
+     * @return Nanosegundos entre ambos, o -1 si alguno no se ha alcanzado.
+     */
+    public long entre(Hito desde, Hito hasta) {
+        long a = marcas[desde.ordinal()];
+        long b = marcas[hasta.ordinal()];
+        return (a == 0 || b == 0) ? -1 : b - a;
+    }
+}
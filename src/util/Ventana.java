@@ -4,6 +4,8 @@ import model.concurrent.ControlTowerConcurrent;
 import model.sequential.ControlTowerSequential;
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.text.BadLocationException;
 
 /**
  * Interfaz Gráfica de Usuario (GUI) para la simulación AERON.
@@ -15,23 +17,79 @@ import java.awt.*;
  * <p>
  * Es capaz de visualizar tanto el modo Secuencial como el Concurrente.
  * </p>
+ * <p>
+ * El refresco está limitado a un número fijo de fotogramas por segundo: los
+ * hilos de la simulación solo encolan mensajes y marcan el estado como sucio,
+ * y un único {@link javax.swing.Timer} vuelca en cada fotograma todos los
+ * mensajes pendientes con un {@code append} por panel y redibuja los recursos
+ * si han cambiado. Así la cola del EDT no crece con la tasa de eventos.
+ * </p>
+ * <p>
+ * Los paneles de log están acotados: solo conservan las últimas N líneas
+ * (buffer circular {@link LogRingBuffer} más recorte del documento), de modo
+ * que la memoria no crece con la duración de la ejecución. La historia
+ * completa queda en el log de disco ({@link SimulationLogger}).
+ * </p>
  */
-public class Ventana extends JFrame {
+public class Ventana extends JFrame implements EventSink {
 
     private JTextArea areaAviones;
     private JTextArea areaTorre;
     private JTextArea areaRecursos;
+    private JTabbedPane pestanasRecursos;
+    private OccupancyHeatmap mapaOcupacion;
+
+    // Fotogramas por segundo por defecto del refresco de la GUI
+    public static final int FPS_POR_DEFECTO = 20;
+    // Líneas visibles por defecto en cada panel de log
+    public static final int LINEAS_POR_DEFECTO = 1000;
+    // Índice de la pestaña del mapa de ocupación en el panel de recursos
+    private static final int PESTANA_MAPA = 1;
+
+    // Mensajes pendientes de pintar y estado de recursos sucio
+    private final int maxLineas;
+    private final LogRingBuffer pendientesAviones;
+    private final LogRingBuffer pendientesTorre;
+    private final AtomicBoolean recursosSucios = new AtomicBoolean(true);
+    private final Timer refresco;
+    // Plantilla del panel de recursos; solo se parchean las celdas que cambian
+    private final ResourcePanelRenderer renderRecursos = new ResourcePanelRenderer();
 
     // Referencias a los posibles tipos de torre (Polimorfismo ad-hoc)
     private ControlTowerConcurrent towerConcurrent;
     private ControlTowerSequential towerSequential;
 
+    // Log de disco de la simulación (puede ser null)
+    private final SimulationLogger logger;
+
+    // Cerrar la ventana al terminar la simulación (ejecuciones automáticas)
+    private final boolean cerrarAlTerminar;
+
+    /**
+     * Constructor de la ventana principal con el refresco por defecto.
+     *
+     * @param logger Log de disco de la simulación, o null.
+     */
+    public Ventana(SimulationLogger logger) {
+        this(FPS_POR_DEFECTO, LINEAS_POR_DEFECTO, logger, false);
+    }
+
     /**
      * Constructor de la ventana principal. Configura el Layout y componentes
      * Swing.
+     *
+     * @param fps Fotogramas por segundo máximos del refresco.
+     * @param maxLineas Líneas conservadas en cada panel de log.
+     * @param logger Log de disco de la simulación, o null.
+     * @param cerrarAlTerminar Cerrar la ventana en {@link #finalizar(String)}.
      */
-    public Ventana() {
+    public Ventana(int fps, int maxLineas, SimulationLogger logger, boolean cerrarAlTerminar) {
         super("AERON Simulator - Panel de Control");
+        this.logger = logger;
+        this.cerrarAlTerminar = cerrarAlTerminar;
+        this.maxLineas = Math.max(1, maxLineas);
+        this.pendientesAviones = new LogRingBuffer(this.maxLineas);
+        this.pendientesTorre = new LogRingBuffer(this.maxLineas);
         setLayout(new GridLayout(1, 3));
 
         areaAviones = createArea("Bitácora de Aviones");
@@ -41,13 +99,25 @@ public class Ventana extends JFrame {
         // Fuente monoespaciada obligatoria para el arte ASCII de AirportState
         areaRecursos.setFont(new Font("Monospaced", Font.PLAIN, 12));
 
+        // Recursos: vista de texto y mapa de ocupación para aeropuertos grandes
+        mapaOcupacion = new OccupancyHeatmap();
+        pestanasRecursos = new JTabbedPane();
+        pestanasRecursos.addTab("Texto", new JScrollPane(areaRecursos));
+        pestanasRecursos.addTab("Mapa de ocupación", new JScrollPane(mapaOcupacion));
+        pestanasRecursos.addChangeListener(e -> recursosSucios.set(true));
+
         add(new JScrollPane(areaAviones));
         add(new JScrollPane(areaTorre));
-        add(new JScrollPane(areaRecursos));
+        add(pestanasRecursos);
 
         setSize(1400, 700);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setVisible(true);
+
+        // Un único temporizador en el EDT pinta como mucho 'fps' veces por segundo
+        refresco = new Timer(1000 / Math.max(1, fps), e -> pintarFotograma());
+        refresco.setCoalesce(true);
+        refresco.start();
     }
 
     private JTextArea createArea(String title) {
@@ -64,6 +134,7 @@ public class Ventana extends JFrame {
      * @param tower Instancia de la torre (ControlTowerConcurrent o
      * ControlTowerSequential).
      */
+    @Override
     public void setTower(Object tower) {
         if (tower instanceof ControlTowerConcurrent) {
             this.towerConcurrent = (ControlTowerConcurrent) tower;
@@ -79,15 +150,14 @@ public class Ventana extends JFrame {
      *
      * @param msg Mensaje del avión.
      */
+    @Override
     public void logAvion(String msg) {
-        SwingUtilities.invokeLater(() -> {
-            areaAviones.append(msg + "\n");
-            // Auto-scroll al final
-            areaAviones.setCaretPosition(areaAviones.getDocument().getLength());
-        });
+        pendientesAviones.add(msg);
         // Extraemos el ID del avión para el log estructurado (formato ID: Mensaje)
         String id = msg.contains(":") ? msg.split(":")[0] : "AVION";
-        SimulationLogger.log(id, msg);
+        if (logger != null) {
+            logger.log(id, msg);
+        }
     }
 
     /**
@@ -95,34 +165,108 @@ public class Ventana extends JFrame {
      *
      * @param msg Mensaje de la torre.
      */
+    @Override
     public void log(String msg) {
-        SwingUtilities.invokeLater(() -> {
-            areaTorre.append(msg + "\n");
-            areaTorre.setCaretPosition(areaTorre.getDocument().getLength());
-        });
-        SimulationLogger.log("TORRE", msg);
+        pendientesTorre.add(msg);
+        if (logger != null) {
+            logger.log("TORRE", msg);
+        }
     }
 
     /**
-     * Actualiza el panel derecho con el estado visual de los recursos. Utiliza
-     * {@link AirportState} para formatear el texto.
+     * Marca el panel de recursos como pendiente de actualizar. El redibujado
+     * real se hace en el siguiente fotograma, por muchas llamadas que haya.
      */
+    @Override
     public void updateResources() {
+        recursosSucios.set(true);
+    }
+
+    /**
+     * Pinta el último fotograma, detiene el refresco y muestra el resumen. Si
+     * se pidió al construir la ventana, la cierra: sin ventanas ni
+     * temporizadores, AWT termina y la JVM puede salir.
+     *
+     * @param resumen Línea de resumen de la simulación.
+     */
+    @Override
+    public void finalizar(String resumen) {
+        pendientesTorre.add(resumen);
         SwingUtilities.invokeLater(() -> {
+            refresco.stop();
+            recursosSucios.set(true);
+            pintarFotograma();
+            setTitle(getTitle() + " - Finalizada");
+            if (cerrarAlTerminar) {
+                dispose();
+            }
+        });
+    }
+
+    /**
+     * Pinta un fotograma (en el EDT): vuelca los mensajes pendientes y
+     * actualiza la pestaña de recursos visible. El mapa se actualiza en todos
+     * los fotogramas porque el color refleja el tiempo de ocupación; el texto
+     * solo cuando el estado ha cambiado.
+     */
+    private void pintarFotograma() {
+        volcar(pendientesAviones, areaAviones);
+        volcar(pendientesTorre, areaTorre);
+
+        if (pestanasRecursos.getSelectedIndex() == PESTANA_MAPA) {
+            recursosSucios.set(false);
+            if (towerConcurrent != null) {
+                mapaOcupacion.actualizar(towerConcurrent.getRunways(), towerConcurrent.getGates(),
+                        towerConcurrent.getMetrics());
+            } else if (towerSequential != null) {
+                mapaOcupacion.actualizar(towerSequential.getRunways(), towerSequential.getGates(),
+                        towerSequential.getMetrics());
+            }
+        } else if (recursosSucios.getAndSet(false)) {
             String status = "";
             String queue = "";
 
             if (towerConcurrent != null) {
                 // Modo Concurrente: Mostramos pistas, puertas y la cola real
-                status = AirportState.showResourcesStatus(towerConcurrent.getRunways(), towerConcurrent.getGates());
+                status = renderRecursos.render(towerConcurrent.getRunways(), towerConcurrent.getGates());
                 queue = AirportState.showRequestQueue(towerConcurrent.getQueueSnapshot());
             } else if (towerSequential != null) {
                 // Modo Secuencial: Mostramos pistas y puertas
-                status = AirportState.showResourcesStatus(towerSequential.getRunways(), towerSequential.getGates());
-                queue = "\n[MODO SECUENCIAL]\nProcesamiento FIFO estricto.\nCola interna gestionada secuencialmente.";
+                status = renderRecursos.render(towerSequential.getRunways(), towerSequential.getGates());
+                queue = "\n[MODO SECUENCIAL]\nBucle de eventos en un único hilo.\nPeticiones atendidas en orden FIFO.";
             }
 
             areaRecursos.setText(status + "\n" + queue);
-        });
+        }
+    }
+
+    /**
+     * Agrupa todos los mensajes pendientes en un único append y recorta el
+     * documento a las últimas {@code maxLineas} líneas.
+     */
+    private void volcar(LogRingBuffer pendientes, JTextArea area) {
+        StringBuilder sb = new StringBuilder();
+        long descartadas = pendientes.drenar(sb);
+        if (sb.length() == 0) {
+            return;
+        }
+        if (descartadas > 0) {
+            // Han llegado más líneas que las visibles: se sustituye todo el texto
+            area.setText(sb.toString());
+        } else {
+            area.append(sb.toString());
+        }
+
+        // El texto acaba en '\n', por lo que la última línea está vacía
+        int exceso = area.getLineCount() - 1 - maxLineas;
+        if (exceso > 0) {
+            try {
+                area.replaceRange(null, 0, area.getLineStartOffset(exceso));
+            } catch (BadLocationException e) {
+                area.setText(sb.toString());
+            }
+        }
+        // Auto-scroll al final
+        area.setCaretPosition(area.getDocument().getLength());
     }
 }
@@ -0,0 +1,115 @@
+package util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Contador de vuelos pendientes de una simulación, para detectar cuándo ha
+ * terminado.
+ * <p>
+ * Un vuelo cuenta desde que se lanza el avión hasta que la torre procesa su
+ * salida (DEPARTED) y libera la pista; es decir, hasta que ya no ocupa ningún
+ * recurso. La simulación termina cuando se han lanzado todas las llegadas y
+ * no queda ningún vuelo pendiente.
+ * </p>
+ */
+public class VuelosEnCurso {
+
+    private int lanzados = 0;
+    private int completados = 0;
+    private boolean llegadasCerradas = false;
+    private long ultimaSalidaNanos = 0;
+
+    /**
+     * Anota un avión lanzado.
+     */
+    public synchronized void lanzado() {
+        lanzados++;
+    }
+
+    /**
+     * Anota un vuelo terminado (la torre ha procesado su salida).
+     */
+    public synchronized void completado() {
+        completados++;
+        ultimaSalidaNanos = System.nanoTime();
+        if (terminada()) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Indica que no se lanzarán más aviones.
+     */
+    public synchronized void cerrarLlegadas() {
+        llegadasCerradas = true;
+        if (terminada()) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return true si se han lanzado todas las llegadas y todas han salido.
+     */
+    public synchronized boolean terminada() {
+        return llegadasCerradas && completados >= lanzados;
+    }
+
+    /**
+     * Espera a que termine la simulación.
+     *
+     * @param timeoutMs Espera máxima en milisegundos.
+     * @return true si ha terminado; false si se agota la espera.
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public synchronized boolean esperarFin(long timeoutMs) throws InterruptedException {
+        long limite = System.nanoTime() + timeoutMs * 1_000_000L;
+        while (!terminada()) {
+            long resta = limite - System.nanoTime();
+            if (resta <= 0) {
+                return false;
+            }
+            wait(Math.max(1, resta / 1_000_000L));
+        }
+        return true;
+    }
+
+    /**
+     * Escribe los contadores para un checkpoint.
+     */
+    public synchronized void guardarEstado(DataOutputStream out) throws IOException {
+        out.writeInt(lanzados);
+        out.writeInt(completados);
+        out.writeBoolean(llegadasCerradas);
+    }
+
+    /**
+     * Lee los contadores escritos con {@link #guardarEstado}.
+     */
+    public synchronized void restaurarEstado(DataInputStream in) throws IOException {
+        lanzados = in.readInt();
+        completados = in.readInt();
+        llegadasCerradas = in.readBoolean();
+    }
+
+    public synchronized int getLanzados() {
+        return lanzados;
+    }
+
+    public synchronized int getPendientes() {
+        return lanzados - completados;
+    }
+
+    public synchronized int getCompletados() {
+        return completados;
+    }
+
+    /**
+     * @return Instante ({@link System#nanoTime()}) de la última salida, o 0 si
+     * no ha salido ninguno.
+     */
+    public synchronized long getUltimaSalidaNanos() {
+        return ultimaSalidaNanos;
+    }
+}